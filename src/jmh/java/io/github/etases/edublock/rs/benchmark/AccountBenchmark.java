@@ -0,0 +1,45 @@
+package io.github.etases.edublock.rs.benchmark;
+
+import io.github.etases.edublock.rs.internal.account.AccountUtil;
+import io.github.etases.edublock.rs.internal.account.PasswordUtil;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.concurrent.TimeUnit;
+
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class AccountBenchmark {
+    private String salt;
+    private String firstName;
+    private String lastName;
+    private String fullName;
+
+    @Setup
+    public void setup() {
+        var random = BenchmarkData.createRandom();
+        salt = PasswordUtil.generateSalt();
+        firstName = BenchmarkData.randomFirstName(random);
+        lastName = BenchmarkData.randomLastName(random);
+        fullName = lastName + " " + firstName;
+    }
+
+    @Benchmark
+    @OutputTimeUnit(TimeUnit.MILLISECONDS)
+    public String hashPassword() {
+        return PasswordUtil.hashPassword("P@ssw0rd-benchmark", salt);
+    }
+
+    @Benchmark
+    public String generateUsername() {
+        return AccountUtil.generateUsername(firstName, lastName);
+    }
+
+    @Benchmark
+    public boolean containsUnaccent() {
+        return AccountUtil.containsUnaccent(fullName, "hoang");
+    }
+}
@@ -0,0 +1,167 @@
+package io.github.etases.edublock.rs.benchmark;
+
+import io.github.etases.edublock.rs.entity.Record;
+import io.github.etases.edublock.rs.entity.*;
+import io.github.etases.edublock.rs.internal.subject.SubjectManager;
+import io.github.etases.edublock.rs.model.fabric.ClassRecord;
+import io.github.etases.edublock.rs.model.fabric.Classification;
+import io.github.etases.edublock.rs.model.fabric.Personal;
+import io.github.etases.edublock.rs.model.fabric.Subject;
+import lombok.experimental.UtilityClass;
+
+import java.util.*;
+
+/**
+ * The generator of the synthetic data used by the benchmarks.
+ * The data is generated from a fixed seed, so the runs of different releases work on the same input.
+ */
+@UtilityClass
+public class BenchmarkData {
+    private static final String[] FIRST_NAMES = {"Nguyễn Văn", "Trần Thị", "Lê Hoàng", "Phạm Minh", "Hoàng Đức", "Vũ Ngọc", "Đặng Quốc", "Bùi Thị Thanh"};
+    private static final String[] LAST_NAMES = {"An", "Bình", "Cường", "Dũng", "Giang", "Hương", "Khánh", "Long", "Mai", "Phương", "Quỳnh", "Tuấn"};
+    private static final String[] CLASSIFICATIONS = {"EXCELLENT", "GOOD", "AVERAGE", "POOR"};
+
+    /**
+     * Create the random generator of a benchmark
+     *
+     * @return the random generator
+     */
+    public static Random createRandom() {
+        return new Random(20221018L);
+    }
+
+    public static String randomFirstName(Random random) {
+        return FIRST_NAMES[random.nextInt(FIRST_NAMES.length)];
+    }
+
+    public static String randomLastName(Random random) {
+        return LAST_NAMES[random.nextInt(LAST_NAMES.length)];
+    }
+
+    public static float randomScore(Random random) {
+        return Math.round(random.nextFloat() * 100) / 10f;
+    }
+
+    public static List<Long> getSubjectIds() {
+        return SubjectManager.getSubjects().stream().map(io.github.etases.edublock.rs.internal.subject.Subject::getId).toList();
+    }
+
+    public static Account createAccount(long id) {
+        var account = new Account();
+        account.setId(id);
+        account.setUsername("user" + id);
+        account.setRole("TEACHER");
+        account.setCreatedAt(new Date(0));
+        return account;
+    }
+
+    public static Profile createProfile(Random random, long id) {
+        var profile = new Profile();
+        profile.setId(id);
+        profile.setFirstName(randomFirstName(random));
+        profile.setLastName(randomLastName(random));
+        profile.setMale(random.nextBoolean());
+        profile.setAvatar("");
+        profile.setBirthDate(new Date(0));
+        profile.setAddress("Hồ Chí Minh");
+        profile.setPhone("0123456789");
+        profile.setEmail("user" + id + "@edublock.local");
+        return profile;
+    }
+
+    /**
+     * Create a record of a classroom with the teachers of all subjects.
+     * Every subject has {@code entriesPerSubject} approved entries.
+     *
+     * @param random            the random generator
+     * @param entriesPerSubject the number of the entries of each subject
+     * @return the record
+     */
+    public static Record createRecord(Random random, int entriesPerSubject) {
+        var subjectIds = getSubjectIds();
+
+        var classroom = new Classroom();
+        classroom.setId(1L);
+        classroom.setName("10A1");
+        classroom.setGrade(10);
+        classroom.setYear(2022);
+        classroom.setHomeroomTeacher(createAccount(1));
+        List<ClassTeacher> teachers = new ArrayList<>();
+        for (long subjectId : subjectIds) {
+            teachers.add(new ClassTeacher(subjectId, classroom, createAccount(100 + subjectId), subjectId));
+        }
+        classroom.setTeachers(teachers);
+
+        var record = new Record();
+        record.setId(1L);
+        record.setClassroom(classroom);
+        List<RecordEntry> entries = new ArrayList<>();
+        long entryId = 1;
+        for (long subjectId : subjectIds) {
+            for (int i = 0; i < entriesPerSubject; i++) {
+                var entry = new RecordEntry();
+                entry.setId(entryId++);
+                entry.setSubjectId(subjectId);
+                entry.setFirstHalfScore(randomScore(random));
+                entry.setSecondHalfScore(randomScore(random));
+                entry.setFinalScore(randomScore(random));
+                entry.setRequestDate(new Date(i * 1000L));
+                entry.setApprovalDate(new Date(i * 1000L + 500));
+                entry.setTeacher(createAccount(100 + subjectId));
+                entry.setRequester(createAccount(100 + subjectId));
+                entry.setApprover(classroom.getHomeroomTeacher());
+                entry.setRecord(record);
+                entries.add(entry);
+            }
+        }
+        record.setRecordEntry(entries);
+        return record;
+    }
+
+    public static ClassRecord createClassRecord(Random random, int grade) {
+        Map<Long, Subject> subjects = new HashMap<>();
+        for (var subject : SubjectManager.getSubjects()) {
+            subjects.put(subject.getId(), new Subject(subject.getName(), randomScore(random), randomScore(random), randomScore(random)));
+        }
+        var classification = new Classification(
+                CLASSIFICATIONS[random.nextInt(CLASSIFICATIONS.length)],
+                CLASSIFICATIONS[random.nextInt(CLASSIFICATIONS.length)],
+                CLASSIFICATIONS[random.nextInt(CLASSIFICATIONS.length)]
+        );
+        return new ClassRecord(2012 + grade, grade, grade + "A1", subjects, classification);
+    }
+
+    /**
+     * Create the record of a student on the ledger, with one class record for each grade from 10
+     *
+     * @param random     the random generator
+     * @param classCount the number of the class records
+     * @return the record
+     */
+    public static io.github.etases.edublock.rs.model.fabric.Record createFabricRecord(Random random, int classCount) {
+        Map<Long, ClassRecord> classRecords = new HashMap<>();
+        for (int i = 0; i < classCount; i++) {
+            classRecords.put((long) i + 1, createClassRecord(random, 10 + i % 3));
+        }
+        return new io.github.etases.edublock.rs.model.fabric.Record(classRecords);
+    }
+
+    public static Personal createPersonal(Random random) {
+        var personal = new Personal();
+        personal.setFirstName(randomFirstName(random));
+        personal.setLastName(randomLastName(random));
+        personal.setMale(random.nextBoolean());
+        personal.setAvatar("");
+        personal.setBirthDate(new Date(0));
+        personal.setAddress("Hồ Chí Minh");
+        personal.setEthnic("Kinh");
+        personal.setFatherName(randomFirstName(random) + " " + randomLastName(random));
+        personal.setFatherJob("Kỹ sư");
+        personal.setMotherName(randomFirstName(random) + " " + randomLastName(random));
+        personal.setMotherJob("Giáo viên");
+        personal.setGuardianName("");
+        personal.setGuardianJob("");
+        personal.setHomeTown("Hà Nội");
+        return personal;
+    }
+}
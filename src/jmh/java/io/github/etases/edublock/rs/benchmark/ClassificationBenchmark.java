@@ -0,0 +1,52 @@
+package io.github.etases.edublock.rs.benchmark;
+
+import io.github.etases.edublock.rs.entity.Record;
+import io.github.etases.edublock.rs.internal.classification.Classification;
+import io.github.etases.edublock.rs.internal.classification.ClassificationManager;
+import io.github.etases.edublock.rs.internal.classification.ClassificationReport;
+import io.github.etases.edublock.rs.internal.subject.SubjectManager;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.concurrent.TimeUnit;
+
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class ClassificationBenchmark {
+    @Param({"1", "5"})
+    public int entriesPerSubject;
+
+    private float[] scores;
+    private Record record;
+    private Record classifiedRecord;
+
+    @Setup
+    public void setup() {
+        var random = BenchmarkData.createRandom();
+        scores = SubjectManager.createScoreArray();
+        for (int i = 0; i < scores.length; i++) {
+            scores[i] = BenchmarkData.randomScore(random);
+        }
+        record = BenchmarkData.createRecord(random, entriesPerSubject);
+        classifiedRecord = BenchmarkData.createRecord(random, entriesPerSubject);
+        ClassificationManager.rebuild(classifiedRecord);
+    }
+
+    @Benchmark
+    public Classification classify() {
+        return ClassificationManager.classify(scores);
+    }
+
+    @Benchmark
+    public ClassificationReport createReportFromEntries() {
+        return ClassificationManager.createReport(record);
+    }
+
+    @Benchmark
+    public ClassificationReport createReportFromLatestScores() {
+        return ClassificationManager.createReport(classifiedRecord);
+    }
+}
@@ -0,0 +1,68 @@
+package io.github.etases.edublock.rs.benchmark;
+
+import com.google.gson.Gson;
+import io.github.etases.edublock.rs.model.fabric.*;
+import org.openjdk.jmh.annotations.*;
+
+import java.nio.charset.StandardCharsets;
+import java.util.*;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * The decoding of the ledger responses, as done by the Fabric updater.
+ * The payloads are encoded once in the setup and decoded from their bytes in the same way as the updater does.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class FabricDecodeBenchmark {
+    /**
+     * The number of the students in a map payload, such as the students of a classroom or a grade
+     */
+    @Param({"40", "400"})
+    public int studentCount;
+
+    private final Gson gson = new Gson();
+    private byte[] recordMapPayload;
+    private byte[] personalMapPayload;
+    private byte[] recordHistoryListPayload;
+
+    @Setup
+    public void setup() {
+        var random = BenchmarkData.createRandom();
+
+        Map<Long, io.github.etases.edublock.rs.model.fabric.Record> records = new HashMap<>();
+        Map<Long, Personal> personals = new HashMap<>();
+        for (long id = 1; id <= studentCount; id++) {
+            records.put(id, BenchmarkData.createFabricRecord(random, 3));
+            personals.put(id, BenchmarkData.createPersonal(random));
+        }
+
+        List<RecordHistory> histories = new ArrayList<>();
+        for (int i = 0; i < studentCount / 4; i++) {
+            histories.add(new RecordHistory(new Date(i * 60_000L), BenchmarkData.createFabricRecord(random, 1 + i % 3), "teacher" + i % 13));
+        }
+
+        recordMapPayload = gson.toJson(new RecordMap(records)).getBytes(StandardCharsets.UTF_8);
+        personalMapPayload = gson.toJson(new PersonalMap(personals)).getBytes(StandardCharsets.UTF_8);
+        recordHistoryListPayload = gson.toJson(new RecordHistoryList(histories)).getBytes(StandardCharsets.UTF_8);
+    }
+
+    @Benchmark
+    public Map<Long, io.github.etases.edublock.rs.model.fabric.Record> decodeRecordMap() {
+        return gson.fromJson(new String(recordMapPayload, StandardCharsets.UTF_8), RecordMap.class).getRecords();
+    }
+
+    @Benchmark
+    public Map<Long, Personal> decodePersonalMap() {
+        return gson.fromJson(new String(personalMapPayload, StandardCharsets.UTF_8), PersonalMap.class).getPersonals();
+    }
+
+    @Benchmark
+    public List<RecordHistory> decodeRecordHistoryList() {
+        return gson.fromJson(new String(recordHistoryListPayload, StandardCharsets.UTF_8), RecordHistoryList.class).getHistories();
+    }
+}
@@ -0,0 +1,46 @@
+package io.github.etases.edublock.rs.benchmark;
+
+import io.github.etases.edublock.rs.internal.pagination.PaginationUtil;
+import io.github.etases.edublock.rs.model.input.PaginationParameter;
+import io.github.etases.edublock.rs.model.output.element.PaginationInfo;
+import me.hsgamer.hscore.common.Pair;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class PaginationBenchmark {
+    @Param({"1000", "100000"})
+    public int size;
+
+    private List<Long> list;
+    private PaginationParameter firstPage;
+    private PaginationParameter lastPage;
+
+    @Setup
+    public void setup() {
+        list = new ArrayList<>(size);
+        for (long i = 0; i < size; i++) {
+            list.add(i);
+        }
+        firstPage = new PaginationParameter(50, 1);
+        lastPage = new PaginationParameter(50, size / 50);
+    }
+
+    @Benchmark
+    public Pair<List<Long>, PaginationInfo> getFirstPage() {
+        return PaginationUtil.getPagedList(list, firstPage);
+    }
+
+    @Benchmark
+    public Pair<List<Long>, PaginationInfo> getLastPage() {
+        return PaginationUtil.getPagedList(list, lastPage);
+    }
+}
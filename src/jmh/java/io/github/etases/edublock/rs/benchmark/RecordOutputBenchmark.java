@@ -0,0 +1,53 @@
+package io.github.etases.edublock.rs.benchmark;
+
+import io.github.etases.edublock.rs.entity.Profile;
+import io.github.etases.edublock.rs.entity.Record;
+import io.github.etases.edublock.rs.model.output.element.RecordOutput;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class RecordOutputBenchmark {
+    @Param({"1", "5"})
+    public int entriesPerSubject;
+
+    private Record record;
+    private Map<Long, Profile> profiles;
+    private io.github.etases.edublock.rs.model.fabric.Record fabricRecord;
+
+    @Setup
+    public void setup() {
+        var random = BenchmarkData.createRandom();
+        record = BenchmarkData.createRecord(random, entriesPerSubject);
+        profiles = new HashMap<>();
+        profiles.put(1L, BenchmarkData.createProfile(random, 1));
+        for (long subjectId : BenchmarkData.getSubjectIds()) {
+            profiles.put(100 + subjectId, BenchmarkData.createProfile(random, 100 + subjectId));
+        }
+        fabricRecord = BenchmarkData.createFabricRecord(random, 3 * entriesPerSubject);
+    }
+
+    @Benchmark
+    public RecordOutput fromEntity() {
+        return RecordOutput.fromEntity(record, profiles::get, false, true);
+    }
+
+    @Benchmark
+    public List<RecordOutput> fromFabricModel() {
+        return RecordOutput.fromFabricModel(fabricRecord);
+    }
+
+    @Benchmark
+    public io.github.etases.edublock.rs.model.fabric.Record cloneFabricRecord() {
+        return io.github.etases.edublock.rs.model.fabric.Record.clone(fabricRecord);
+    }
+}
@@ -0,0 +1,152 @@
+package io.github.etases.edublock.rs.benchmark.load;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import java.io.IOException;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.time.Duration;
+import java.util.Map;
+import java.util.Optional;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * The HTTP client of the load test.
+ * The latency of every request is recorded by its route while the recording is enabled.
+ */
+public class LoadClient {
+    private final HttpClient httpClient = HttpClient.newBuilder()
+            .version(HttpClient.Version.HTTP_1_1)
+            .connectTimeout(Duration.ofSeconds(10))
+            .build();
+    private final ObjectMapper objectMapper = new ObjectMapper();
+    private final String baseUrl;
+    private final String password;
+    private final Map<String, String> tokens = new ConcurrentHashMap<>();
+    private final Map<String, RouteStats> stats = new ConcurrentHashMap<>();
+    private volatile boolean recording;
+
+    public LoadClient(String baseUrl, String password) {
+        this.baseUrl = baseUrl;
+        this.password = password;
+    }
+
+    public void setRecording(boolean recording) {
+        this.recording = recording;
+    }
+
+    /**
+     * Get the stats of the recorded routes
+     *
+     * @return the stats, sorted by the route
+     */
+    public Map<String, RouteStats> getStats() {
+        return new TreeMap<>(stats);
+    }
+
+    /**
+     * Get the token of the account, the account is logged in on the first call
+     *
+     * @param username the username
+     * @return the token, or empty if the login failed
+     */
+    public Optional<String> token(String username) {
+        var token = tokens.get(username);
+        if (token != null) {
+            return Optional.of(token);
+        }
+        return login(username).map(newToken -> {
+            tokens.put(username, newToken);
+            return newToken;
+        });
+    }
+
+    /**
+     * Log in to the account without using the cached token
+     *
+     * @param username the username
+     * @return the token, or empty if the login failed
+     */
+    public Optional<String> login(String username) {
+        return post("POST /login", "/login", null, Map.of("username", username, "password", password))
+                .map(node -> node.path("data").asText(null));
+    }
+
+    /**
+     * Send a GET request
+     *
+     * @param route the route to record the latency
+     * @param path  the path, including the query
+     * @param token the token, null if there is no authentication
+     * @return the response body, or empty if the request failed
+     */
+    public Optional<JsonNode> get(String route, String path, String token) {
+        return send(route, token, newRequest(path).GET());
+    }
+
+    /**
+     * Send a POST request with a JSON body
+     *
+     * @param route the route to record the latency
+     * @param path  the path
+     * @param token the token, null if there is no authentication
+     * @param body  the body
+     * @return the response body, or empty if the request failed
+     */
+    public Optional<JsonNode> post(String route, String path, String token, Object body) {
+        try {
+            var publisher = HttpRequest.BodyPublishers.ofByteArray(objectMapper.writeValueAsBytes(body));
+            return send(route, token, newRequest(path).header("Content-Type", "application/json").POST(publisher));
+        } catch (IOException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    /**
+     * Get the text of a path without recording the latency, such as the metrics
+     *
+     * @param path  the path
+     * @param token the token, null if there is no authentication
+     * @return the text
+     */
+    public String getText(String path, String token) throws IOException, InterruptedException {
+        var builder = newRequest(path).GET();
+        if (token != null) {
+            builder.header("Authorization", "Bearer " + token);
+        }
+        return httpClient.send(builder.build(), HttpResponse.BodyHandlers.ofString()).body();
+    }
+
+    private HttpRequest.Builder newRequest(String path) {
+        return HttpRequest.newBuilder(URI.create(baseUrl + path)).timeout(Duration.ofSeconds(60));
+    }
+
+    private Optional<JsonNode> send(String route, String token, HttpRequest.Builder builder) {
+        if (token != null) {
+            builder.header("Authorization", "Bearer " + token);
+        }
+        long startTime = System.nanoTime();
+        boolean error = true;
+        try {
+            var response = httpClient.send(builder.build(), HttpResponse.BodyHandlers.ofByteArray());
+            error = response.statusCode() >= 400;
+            if (error || response.body().length == 0) {
+                return Optional.empty();
+            }
+            return Optional.of(objectMapper.readTree(response.body()));
+        } catch (IOException e) {
+            return Optional.empty();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return Optional.empty();
+        } finally {
+            if (recording) {
+                stats.computeIfAbsent(route, key -> new RouteStats()).record(System.nanoTime() - startTime, error);
+            }
+        }
+    }
+}
@@ -0,0 +1,116 @@
+package io.github.etases.edublock.rs.benchmark.load;
+
+import io.github.etases.edublock.rs.benchmark.BenchmarkData;
+
+import java.util.*;
+
+/**
+ * The mix of the requests sent by a client of the load test.
+ * The weights roughly follow the exam week, where the teachers read and update the records of their classrooms.
+ */
+public class LoadScenario {
+    private static final int BULK_SIZE = 10;
+    private static final int VERIFY_SIZE = 20;
+
+    private final LoadClient client;
+    private final SyntheticSchool school;
+    private final List<Long> subjectIds;
+    private final Random random;
+    private final int totalWeight;
+
+    public LoadScenario(LoadClient client, SyntheticSchool school, long seed) {
+        this.client = client;
+        this.school = school;
+        this.subjectIds = BenchmarkData.getSubjectIds();
+        this.random = new Random(seed);
+        this.totalWeight = Arrays.stream(Operation.values()).mapToInt(operation -> operation.weight).sum();
+    }
+
+    /**
+     * Send the requests of a random operation
+     */
+    public void runOnce() {
+        int value = random.nextInt(totalWeight);
+        for (var operation : Operation.values()) {
+            value -= operation.weight;
+            if (value < 0) {
+                run(operation);
+                return;
+            }
+        }
+    }
+
+    private void run(Operation operation) {
+        var classroom = school.classrooms().get(random.nextInt(school.classrooms().size()));
+        if (classroom.students().isEmpty()) {
+            return;
+        }
+        var student = classroom.students().get(random.nextInt(classroom.students().size()));
+        switch (operation) {
+            case LOGIN -> client.login(random.nextBoolean() ? student.username() : classroom.homeroomTeacherUsername());
+            case OWN_RECORD -> client.token(student.username()).ifPresent(token ->
+                    client.get("GET /record/{classroomId}", "/record/" + classroom.id(), token));
+            case OWN_RECORD_UPDATER -> client.token(student.username()).ifPresent(token ->
+                    client.get("GET /record/{classroomId}?updater=true", "/record/" + classroom.id() + "?updater=true", token));
+            case STUDENT_RECORD -> client.token(classroom.homeroomTeacherUsername()).ifPresent(token ->
+                    client.get("GET /record/{classroomId}/{studentId}", "/record/" + classroom.id() + "/" + student.id(), token));
+            case STUDENT_RECORD_UPDATER -> client.token(classroom.homeroomTeacherUsername()).ifPresent(token ->
+                    client.get("GET /record/{classroomId}/{studentId}?updater=true", "/record/" + classroom.id() + "/" + student.id() + "?updater=true", token));
+            case CLASSROOM_RECORDS -> client.token(classroom.homeroomTeacherUsername()).ifPresent(token ->
+                    client.get("GET /record/list/classroom/{classroomId}", "/record/list/classroom/" + classroom.id(), token));
+            case GRADE_RECORDS -> client.token(school.staffUsername()).ifPresent(token ->
+                    client.get("GET /record/list/grade/{grade}/{year}", "/record/list/grade/" + classroom.grade() + "/" + classroom.year(), token));
+            case CLASSROOM_STUDENTS -> client.token(classroom.homeroomTeacherUsername()).ifPresent(token ->
+                    client.get("GET /classroom/{id}/student", "/classroom/" + classroom.id() + "/student", token));
+            case BULK_REQUEST -> {
+                long subjectId = subjectIds.get(random.nextInt(subjectIds.size()));
+                String teacher = classroom.subjectTeacherUsernames().get(subjectId);
+                client.token(teacher).ifPresent(token -> {
+                    List<Map<String, Object>> requests = new ArrayList<>();
+                    for (int i = 0; i < Math.min(BULK_SIZE, classroom.students().size()); i++) {
+                        var requestStudent = classroom.students().get(random.nextInt(classroom.students().size()));
+                        requests.add(Map.of(
+                                "studentId", requestStudent.id(),
+                                "classroomId", classroom.id(),
+                                "subjectId", subjectId,
+                                "firstHalfScore", BenchmarkData.randomScore(random),
+                                "secondHalfScore", BenchmarkData.randomScore(random),
+                                "finalScore", BenchmarkData.randomScore(random)
+                        ));
+                    }
+                    client.post("POST /record/request/list", "/record/request/list", token, Map.of("requests", requests));
+                });
+            }
+            case VERIFY -> client.token(classroom.homeroomTeacherUsername()).ifPresent(token ->
+                    client.get("GET /record/pending/list", "/record/pending/list?pageSize=" + VERIFY_SIZE, token).ifPresent(response -> {
+                        List<Map<String, Object>> requests = new ArrayList<>();
+                        response.path("data").forEach(pending -> requests.add(Map.of(
+                                "id", pending.path("id").asLong(),
+                                "accepted", random.nextInt(10) > 0
+                        )));
+                        if (!requests.isEmpty()) {
+                            client.post("POST /record/pending/verify/list", "/record/pending/verify/list", token, Map.of("requests", requests));
+                        }
+                    }));
+        }
+    }
+
+    private enum Operation {
+        LOGIN(3),
+        OWN_RECORD(15),
+        OWN_RECORD_UPDATER(5),
+        STUDENT_RECORD(20),
+        STUDENT_RECORD_UPDATER(7),
+        CLASSROOM_RECORDS(10),
+        GRADE_RECORDS(2),
+        CLASSROOM_STUDENTS(8),
+        BULK_REQUEST(15),
+        VERIFY(15);
+
+        private final int weight;
+
+        Operation(int weight) {
+            this.weight = weight;
+        }
+    }
+}
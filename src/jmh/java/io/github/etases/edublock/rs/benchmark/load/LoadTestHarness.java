@@ -0,0 +1,214 @@
+package io.github.etases.edublock.rs.benchmark.load;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import io.github.etases.edublock.rs.RequestServer;
+import io.github.etases.edublock.rs.config.MainConfig;
+import io.github.etases.edublock.rs.handler.JwtHandler;
+import io.github.etases.edublock.rs.internal.property.DatabaseProperties;
+import io.github.etases.edublock.rs.internal.property.ProfilerProperties;
+import io.github.etases.edublock.rs.internal.property.ServerProperties;
+import org.tinylog.Logger;
+
+import java.io.File;
+import java.util.*;
+import java.util.concurrent.TimeUnit;
+import java.util.regex.Pattern;
+
+/**
+ * The load test harness.
+ * It starts the server with an in-memory database and the temporary student updater, seeds a synthetic school,
+ * then drives the request mix of {@link LoadScenario} from many concurrent clients and reports the latencies by route.
+ * <p>
+ * The options are passed as {@code key=value} arguments:
+ * {@code students}, {@code classes-per-grade}, {@code teachers-per-subject}, {@code entries-per-record} (see {@link SchoolSpec}),
+ * {@code clients}, {@code warmup} and {@code duration} in seconds, {@code port}, {@code thread-mode}, {@code output} and {@code max-startup}.
+ */
+public class LoadTestHarness {
+    private static final Pattern METRIC_PATTERN = Pattern.compile("^(\\w+)(?:\\{(.*)})? (\\S+)$");
+    private static final Pattern LABEL_PATTERN = Pattern.compile("(\\w+)=\"((?:[^\"\\\\]|\\\\.)*)\"");
+
+    public static void main(String[] args) throws Exception {
+        Map<String, String> options = new HashMap<>();
+        for (String arg : args) {
+            String[] split = arg.split("=", 2);
+            options.put(split[0], split.length > 1 ? split[1] : "true");
+        }
+        int clients = Integer.parseInt(options.getOrDefault("clients", "64"));
+        int warmup = Integer.parseInt(options.getOrDefault("warmup", "15"));
+        int duration = Integer.parseInt(options.getOrDefault("duration", "60"));
+        int port = Integer.parseInt(options.getOrDefault("port", "7171"));
+        String output = options.getOrDefault("output", "target/load-result.json");
+        long maxStartup = Long.parseLong(options.getOrDefault("max-startup", "0"));
+        var spec = SchoolSpec.fromMap(options);
+
+        var requestServer = new RequestServer(createConfig(port, options.getOrDefault("thread-mode", "platform")));
+        long databaseStartTime = System.nanoTime();
+        requestServer.getDatabaseManager().init();
+        long databaseNanos = System.nanoTime() - databaseStartTime;
+        var school = SchoolSeeder.seed(requestServer.getDatabaseManager().getSessionFactory(), spec);
+        requestServer.startServer();
+        // The session factory is built before seeding, so its time is added to the rest of the startup
+        double startupMillis = (databaseNanos + requestServer.getStartupGraph().getTotalNanos()) / 1_000_000.0;
+
+        var client = new LoadClient("http://localhost:" + port, school.password());
+        // The metrics are only served to the admins, and the synthetic school has no admin account
+        String metricsToken = requestServer.getHandler(JwtHandler.class).generateToken(0, "loadtest", JwtHandler.Role.ADMIN.name());
+        Logger.info("Warming up " + clients + " clients for " + warmup + "s");
+        runClients(client, school, clients, warmup, 0);
+
+        var metricsBefore = scrapeMetrics(client, metricsToken);
+        client.setRecording(true);
+        Logger.info("Running " + clients + " clients for " + duration + "s");
+        long startTime = System.nanoTime();
+        runClients(client, school, clients, duration, clients);
+        double seconds = (System.nanoTime() - startTime) / 1_000_000_000.0;
+        client.setRecording(false);
+        var metricsAfter = scrapeMetrics(client, metricsToken);
+
+        var report = createReport(spec, clients, seconds, client.getStats(), metricsBefore, metricsAfter);
+        report.put("startupMillis", startupMillis);
+        printReport(report);
+        var outputFile = new File(output);
+        if (outputFile.getParentFile() != null) {
+            outputFile.getParentFile().mkdirs();
+        }
+        new ObjectMapper().enable(SerializationFeature.INDENT_OUTPUT).writeValue(outputFile, report);
+        Logger.info("The report is written to " + outputFile.getAbsolutePath());
+        if (maxStartup > 0 && startupMillis > maxStartup) {
+            Logger.error(String.format("The startup took %.0fms, more than the limit of %dms", startupMillis, maxStartup));
+            System.exit(1);
+        }
+        System.exit(0);
+    }
+
+    private static MainConfig createConfig(int port, String threadMode) {
+        var serverProperties = ServerProperties.fromMap(Map.of(
+                "port", port,
+                "dev-mode", false,
+                "thread-mode", threadMode
+        ));
+        var databaseProperties = DatabaseProperties.fromMap(Map.of(
+                "name", "loadtest",
+                "is-memory", true
+        ));
+        var profilerProperties = ProfilerProperties.fromMap(Map.of(
+                "sample-rate", 0.01
+        ));
+        return new MainConfig() {
+            @Override
+            public ServerProperties getServerProperties() {
+                return serverProperties;
+            }
+
+            @Override
+            public DatabaseProperties getDatabaseProperties() {
+                return databaseProperties;
+            }
+
+            @Override
+            public ProfilerProperties getProfilerProperties() {
+                return profilerProperties;
+            }
+        };
+    }
+
+    private static void runClients(LoadClient client, SyntheticSchool school, int clients, int seconds, long seedOffset) throws InterruptedException {
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(seconds);
+        List<Thread> threads = new ArrayList<>();
+        for (int i = 0; i < clients; i++) {
+            var scenario = new LoadScenario(client, school, seedOffset + i);
+            var thread = new Thread(() -> {
+                while (System.nanoTime() < deadline) {
+                    scenario.runOnce();
+                }
+            }, "load-client-" + i);
+            thread.start();
+            threads.add(thread);
+        }
+        for (var thread : threads) {
+            thread.join();
+        }
+    }
+
+    /**
+     * Scrape the request and statement counters of the server
+     *
+     * @param client the client
+     * @param token  the token of an admin
+     * @return the counters, keyed by the metric name and the method and the route of the request, if any
+     */
+    private static Map<String, Double> scrapeMetrics(LoadClient client, String token) throws Exception {
+        Map<String, Double> metrics = new HashMap<>();
+        for (String line : client.getText("/metrics", token).split("\n")) {
+            var matcher = METRIC_PATTERN.matcher(line);
+            if (line.startsWith("#") || !matcher.matches()) {
+                continue;
+            }
+            String name = matcher.group(1);
+            Map<String, String> labels = new HashMap<>();
+            if (matcher.group(2) != null) {
+                var labelMatcher = LABEL_PATTERN.matcher(matcher.group(2));
+                while (labelMatcher.find()) {
+                    labels.put(labelMatcher.group(1), labelMatcher.group(2));
+                }
+            }
+            String key = labels.containsKey("route") ? name + " " + labels.get("method") + " " + labels.get("route") : name;
+            metrics.merge(key, Double.parseDouble(matcher.group(3)), Double::sum);
+        }
+        return metrics;
+    }
+
+    private static Map<String, Object> createReport(SchoolSpec spec, int clients, double seconds, Map<String, RouteStats> stats,
+                                                    Map<String, Double> metricsBefore, Map<String, Double> metricsAfter) {
+        Map<String, Object> report = new LinkedHashMap<>();
+        report.put("school", spec);
+        report.put("clients", clients);
+        report.put("seconds", seconds);
+
+        Map<String, RouteStats.Summary> routes = new LinkedHashMap<>();
+        int total = 0;
+        int errors = 0;
+        for (var entry : stats.entrySet()) {
+            var summary = entry.getValue().summarize(seconds);
+            routes.put(entry.getKey(), summary);
+            total += summary.count();
+            errors += summary.errors();
+        }
+        report.put("requests", total);
+        report.put("errors", errors);
+        report.put("throughput", total / seconds);
+        report.put("routes", routes);
+
+        Map<String, Map<String, Double>> statements = new TreeMap<>();
+        for (var entry : metricsAfter.entrySet()) {
+            String prefix = "http_request_statements_total ";
+            if (!entry.getKey().startsWith(prefix)) {
+                continue;
+            }
+            String route = entry.getKey().substring(prefix.length());
+            double count = entry.getValue() - metricsBefore.getOrDefault(entry.getKey(), 0.0);
+            double requests = metricsAfter.getOrDefault("http_requests_total " + route, 0.0) - metricsBefore.getOrDefault("http_requests_total " + route, 0.0);
+            if (requests > 0) {
+                statements.put(route, Map.of("statements", count, "perRequest", count / requests));
+            }
+        }
+        report.put("statements", statements);
+        report.put("preparedStatements", metricsAfter.getOrDefault("hibernate_statements_prepared_total", 0.0) - metricsBefore.getOrDefault("hibernate_statements_prepared_total", 0.0));
+        return report;
+    }
+
+    @SuppressWarnings("unchecked")
+    private static void printReport(Map<String, Object> report) {
+        var out = System.out;
+        out.printf("%nRequests: %s, errors: %s, throughput: %.1f req/s%n%n", report.get("requests"), report.get("errors"), (double) report.get("throughput"));
+        out.printf("%-55s %8s %7s %9s %9s %9s %9s %9s%n", "Route", "Count", "Errors", "Req/s", "p50 ms", "p95 ms", "p99 ms", "Max ms");
+        ((Map<String, RouteStats.Summary>) report.get("routes")).forEach((route, summary) ->
+                out.printf("%-55s %8d %7d %9.1f %9.2f %9.2f %9.2f %9.2f%n", route, summary.count(), summary.errors(), summary.throughput(), summary.p50(), summary.p95(), summary.p99(), summary.max()));
+        out.printf("%n%-55s %12s %12s%n", "Route", "Statements", "Per request");
+        ((Map<String, Map<String, Double>>) report.get("statements")).forEach((route, statements) ->
+                out.printf("%-55s %12.0f %12.2f%n", route, statements.get("statements"), statements.get("perRequest")));
+        out.printf("%nPrepared statements: %.0f%n", (double) report.get("preparedStatements"));
+        out.printf("Startup: %.0fms%n", (double) report.get("startupMillis"));
+    }
+}
@@ -0,0 +1,62 @@
+package io.github.etases.edublock.rs.benchmark.load;
+
+import java.util.Arrays;
+
+/**
+ * The latencies of the requests of a route
+ */
+public class RouteStats {
+    private long[] latencies = new long[1024];
+    private int count;
+    private int errors;
+
+    /**
+     * Record a request
+     *
+     * @param nanos the latency in nanoseconds
+     * @param error true if the request failed or got an unexpected status
+     */
+    public synchronized void record(long nanos, boolean error) {
+        if (count == latencies.length) {
+            latencies = Arrays.copyOf(latencies, count * 2);
+        }
+        latencies[count++] = nanos;
+        if (error) {
+            errors++;
+        }
+    }
+
+    /**
+     * Get the summary of the recorded requests
+     *
+     * @param seconds the duration of the run, to compute the throughput
+     * @return the summary
+     */
+    public synchronized Summary summarize(double seconds) {
+        var sorted = Arrays.copyOf(latencies, count);
+        Arrays.sort(sorted);
+        return new Summary(
+                count,
+                errors,
+                seconds > 0 ? count / seconds : 0,
+                percentile(sorted, 0.50),
+                percentile(sorted, 0.95),
+                percentile(sorted, 0.99),
+                count == 0 ? 0 : sorted[count - 1] / 1_000_000.0
+        );
+    }
+
+    private static double percentile(long[] sorted, double percentile) {
+        if (sorted.length == 0) {
+            return 0;
+        }
+        int index = (int) Math.ceil(percentile * sorted.length) - 1;
+        return sorted[Math.max(0, Math.min(index, sorted.length - 1))] / 1_000_000.0;
+    }
+
+    /**
+     * The summary of a route, the latencies are in milliseconds
+     */
+    public record Summary(int count, int errors, double throughput, double p50, double p95, double p99, double max) {
+    }
+}
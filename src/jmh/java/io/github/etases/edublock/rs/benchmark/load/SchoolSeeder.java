@@ -0,0 +1,177 @@
+package io.github.etases.edublock.rs.benchmark.load;
+
+import io.github.etases.edublock.rs.benchmark.BenchmarkData;
+import io.github.etases.edublock.rs.entity.Record;
+import io.github.etases.edublock.rs.entity.*;
+import io.github.etases.edublock.rs.internal.account.PasswordUtil;
+import io.github.etases.edublock.rs.internal.classification.ClassificationManager;
+import lombok.experimental.UtilityClass;
+import org.hibernate.Session;
+import org.hibernate.SessionFactory;
+import org.tinylog.Logger;
+
+import java.util.*;
+
+/**
+ * The seeder of the synthetic school.
+ * The entities are saved directly in the database, so the seeding does not count in the load test.
+ */
+@UtilityClass
+public class SchoolSeeder {
+    private static final String PASSWORD = "password";
+    private static final int BATCH_SIZE = 50;
+
+    /**
+     * Seed the school
+     *
+     * @param sessionFactory the session factory
+     * @param spec           the size of the school
+     * @return the seeded school
+     */
+    public static SyntheticSchool seed(SessionFactory sessionFactory, SchoolSpec spec) {
+        long startTime = System.currentTimeMillis();
+        var random = BenchmarkData.createRandom();
+        var subjectIds = BenchmarkData.getSubjectIds();
+        String salt = PasswordUtil.generateSalt();
+        String hash = PasswordUtil.hashPassword(PASSWORD, salt);
+
+        List<SyntheticSchool.SeededClassroom> seededClassrooms = new ArrayList<>();
+        try (var session = sessionFactory.openSession()) {
+            var transaction = session.beginTransaction();
+
+            var staff = createAccount(session, random, "staff", "STAFF", salt, hash);
+
+            Map<Long, List<Account>> teachersBySubject = new LinkedHashMap<>();
+            List<Account> teachers = new ArrayList<>();
+            for (long subjectId : subjectIds) {
+                List<Account> subjectTeachers = new ArrayList<>();
+                for (int i = 0; i < spec.teachersPerSubject(); i++) {
+                    var teacher = createAccount(session, random, "teacher" + (teachers.size() + 1), "TEACHER", salt, hash);
+                    subjectTeachers.add(teacher);
+                    teachers.add(teacher);
+                }
+                teachersBySubject.put(subjectId, subjectTeachers);
+            }
+
+            List<Classroom> classrooms = new ArrayList<>();
+            for (int grade : SchoolSpec.GRADES) {
+                for (int i = 0; i < spec.classesPerGrade(); i++) {
+                    var classroom = new Classroom();
+                    classroom.setName(grade + "A" + (i + 1));
+                    classroom.setGrade(grade);
+                    classroom.setYear(spec.year());
+                    classroom.setHomeroomTeacher(teachers.get(classrooms.size() % teachers.size()));
+                    session.save(classroom);
+                    classrooms.add(classroom);
+                }
+            }
+
+            List<Map<Long, Account>> classTeachers = new ArrayList<>();
+            for (int i = 0; i < classrooms.size(); i++) {
+                Map<Long, Account> subjectTeachers = new HashMap<>();
+                for (var entry : teachersBySubject.entrySet()) {
+                    var teacher = entry.getValue().get(i % entry.getValue().size());
+                    var classTeacher = new ClassTeacher();
+                    classTeacher.setClassroom(classrooms.get(i));
+                    classTeacher.setTeacher(teacher);
+                    classTeacher.setSubjectId(entry.getKey());
+                    session.save(classTeacher);
+                    subjectTeachers.put(entry.getKey(), teacher);
+                }
+                classTeachers.add(subjectTeachers);
+            }
+
+            List<List<SyntheticSchool.SeededStudent>> classroomStudents = new ArrayList<>();
+            classrooms.forEach(classroom -> classroomStudents.add(new ArrayList<>()));
+            for (int i = 0; i < spec.students(); i++) {
+                int classIndex = i % classrooms.size();
+                var classroom = classrooms.get(classIndex);
+                var account = createAccount(session, random, "student" + (i + 1), "STUDENT", salt, hash);
+                var student = new Student();
+                student.setId(account.getId());
+                student.setAccount(account);
+                student.setEthnic("Kinh");
+                student.setFatherName(BenchmarkData.randomFirstName(random) + " " + BenchmarkData.randomLastName(random));
+                student.setFatherJob("");
+                student.setMotherName(BenchmarkData.randomFirstName(random) + " " + BenchmarkData.randomLastName(random));
+                student.setMotherJob("");
+                student.setGuardianName("");
+                student.setGuardianJob("");
+                student.setHomeTown("");
+                session.save(student);
+
+                var classStudent = new ClassStudent();
+                classStudent.setClassroom(classroom);
+                classStudent.setStudent(student);
+                session.save(classStudent);
+
+                var record = new Record();
+                record.setClassroom(classroom);
+                record.setStudent(student);
+                session.save(record);
+                List<RecordEntry> entries = new ArrayList<>();
+                for (int j = 0; j < spec.entriesPerRecord(); j++) {
+                    long subjectId = subjectIds.get(j % subjectIds.size());
+                    var teacher = classTeachers.get(classIndex).get(subjectId);
+                    var entry = new RecordEntry();
+                    entry.setSubjectId(subjectId);
+                    entry.setFirstHalfScore(BenchmarkData.randomScore(random));
+                    entry.setSecondHalfScore(BenchmarkData.randomScore(random));
+                    entry.setFinalScore(BenchmarkData.randomScore(random));
+                    entry.setTeacher(teacher);
+                    entry.setRequester(teacher);
+                    entry.setApprover(classroom.getHomeroomTeacher());
+                    entry.setRequestDate(new Date(startTime - (spec.entriesPerRecord() - j) * 60_000L));
+                    entry.setApprovalDate(new Date(startTime - (spec.entriesPerRecord() - j) * 60_000L + 1000));
+                    entry.setUpdateComplete(false);
+                    entry.setRecord(record);
+                    session.save(entry);
+                    entries.add(entry);
+                }
+                record.setRecordEntry(entries);
+                ClassificationManager.rebuild(record);
+
+                classroomStudents.get(classIndex).add(new SyntheticSchool.SeededStudent(student.getId(), account.getUsername()));
+                if ((i + 1) % BATCH_SIZE == 0) {
+                    session.flush();
+                    session.clear();
+                }
+            }
+
+            transaction.commit();
+
+            for (int i = 0; i < classrooms.size(); i++) {
+                var classroom = classrooms.get(i);
+                Map<Long, String> subjectTeacherUsernames = new HashMap<>();
+                classTeachers.get(i).forEach((subjectId, teacher) -> subjectTeacherUsernames.put(subjectId, teacher.getUsername()));
+                seededClassrooms.add(new SyntheticSchool.SeededClassroom(
+                        classroom.getId(),
+                        classroom.getGrade(),
+                        classroom.getYear(),
+                        classroom.getHomeroomTeacher().getUsername(),
+                        subjectTeacherUsernames,
+                        classroomStudents.get(i)
+                ));
+            }
+
+            Logger.info("Seeded " + spec.students() + " students, " + classrooms.size() + " classrooms and " + teachers.size() + " teachers in " + (System.currentTimeMillis() - startTime) + "ms");
+            return new SyntheticSchool(PASSWORD, staff.getUsername(), seededClassrooms);
+        }
+    }
+
+    private static Account createAccount(Session session, Random random, String username, String role, String salt, String hash) {
+        var account = new Account();
+        account.setUsername(username);
+        account.setSalt(salt);
+        account.setHashedPassword(hash);
+        account.setRole(role);
+        account.setCreatedAt(new Date());
+        session.save(account);
+
+        var profile = BenchmarkData.createProfile(random, account.getId());
+        profile.setAccount(account);
+        profile.setUpdated(true);
+        session.save(profile);
+        return account;
+    }
+}
@@ -0,0 +1,34 @@
+package io.github.etases.edublock.rs.benchmark.load;
+
+import java.util.Map;
+import java.util.Objects;
+
+/**
+ * The size of the synthetic school
+ *
+ * @param students           the number of the students
+ * @param classesPerGrade    the number of the classrooms in each grade
+ * @param teachersPerSubject the number of the teachers of each subject
+ * @param entriesPerRecord   the number of the approved entries in each record
+ * @param year               the school year of the classrooms
+ */
+public record SchoolSpec(int students, int classesPerGrade, int teachersPerSubject, int entriesPerRecord, int year) {
+    /**
+     * The grades of the school
+     */
+    public static final int[] GRADES = {10, 11, 12};
+
+    public static SchoolSpec fromMap(Map<?, ?> map) {
+        return new SchoolSpec(
+                Integer.parseInt(Objects.toString(map.get("students"), "1200")),
+                Integer.parseInt(Objects.toString(map.get("classes-per-grade"), "10")),
+                Integer.parseInt(Objects.toString(map.get("teachers-per-subject"), "3")),
+                Integer.parseInt(Objects.toString(map.get("entries-per-record"), "20")),
+                Integer.parseInt(Objects.toString(map.get("year"), "2022"))
+        );
+    }
+
+    public int classrooms() {
+        return classesPerGrade * GRADES.length;
+    }
+}
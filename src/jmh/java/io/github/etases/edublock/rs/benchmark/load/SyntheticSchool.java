@@ -0,0 +1,36 @@
+package io.github.etases.edublock.rs.benchmark.load;
+
+import java.util.List;
+import java.util.Map;
+
+/**
+ * The accounts and classrooms of a seeded school, used to build the requests of the load test
+ *
+ * @param password      the password of all accounts
+ * @param staffUsername the username of the staff account
+ * @param classrooms    the classrooms
+ */
+public record SyntheticSchool(String password, String staffUsername, List<SeededClassroom> classrooms) {
+    /**
+     * A seeded classroom
+     *
+     * @param id                      the id of the classroom
+     * @param grade                   the grade
+     * @param year                    the year
+     * @param homeroomTeacherUsername the username of the homeroom teacher
+     * @param subjectTeacherUsernames the usernames of the teachers, keyed by the subject id
+     * @param students                the students
+     */
+    public record SeededClassroom(long id, int grade, int year, String homeroomTeacherUsername,
+                                  Map<Long, String> subjectTeacherUsernames, List<SeededStudent> students) {
+    }
+
+    /**
+     * A seeded student
+     *
+     * @param id       the id of the student
+     * @param username the username
+     */
+    public record SeededStudent(long id, String username) {
+    }
+}
@@ -0,0 +1,75 @@
+package io.github.etases.edublock.rs.benchmark.startup;
+
+import io.github.etases.edublock.rs.RequestServer;
+import io.github.etases.edublock.rs.config.MainConfig;
+import io.github.etases.edublock.rs.internal.property.DatabaseProperties;
+import io.github.etases.edublock.rs.internal.property.ServerProperties;
+import org.tinylog.Logger;
+
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * The startup check.
+ * It starts the server with an empty in-memory database on a random local port, then compares the time of the {@link io.github.etases.edublock.rs.internal.startup.StartupGraph}
+ * with a budget, so that a slower startup fails the build without running the load test.
+ * <p>
+ * The options are passed as {@code key=value} arguments: {@code max-startup}, the budget in milliseconds.
+ * The exit code is 1 if the startup fails or takes longer than the budget.
+ */
+public class StartupCheck {
+    public static void main(String[] args) {
+        Map<String, String> options = new HashMap<>();
+        for (String arg : args) {
+            String[] split = arg.split("=", 2);
+            options.put(split[0], split.length > 1 ? split[1] : "true");
+        }
+        long maxStartup = Long.parseLong(options.getOrDefault("max-startup", "10000"));
+
+        var requestServer = new RequestServer(createConfig());
+        try {
+            requestServer.startServer();
+        } catch (Exception e) {
+            Logger.error(e, "The server failed to start");
+            System.exit(1);
+        }
+
+        var startupGraph = requestServer.getStartupGraph();
+        double startupMillis = startupGraph.getTotalNanos() / 1_000_000.0;
+        StringBuilder builder = new StringBuilder(String.format("Startup: %.0fms (budget %dms)", startupMillis, maxStartup));
+        for (String phase : startupGraph.getPhaseNames()) {
+            builder.append(System.lineSeparator())
+                    .append(String.format("  %-16s %8.0fms", phase, startupGraph.getPhaseNanos(phase) / 1_000_000.0));
+        }
+        System.out.println(builder);
+
+        if (startupMillis > maxStartup) {
+            Logger.error(String.format("The startup took %.0fms, more than the budget of %dms", startupMillis, maxStartup));
+            System.exit(1);
+        }
+        System.exit(0);
+    }
+
+    private static MainConfig createConfig() {
+        var serverProperties = ServerProperties.fromMap(Map.of(
+                "host", "localhost",
+                "port", 0,
+                "dev-mode", false
+        ));
+        var databaseProperties = DatabaseProperties.fromMap(Map.of(
+                "name", "startupcheck",
+                "is-memory", true
+        ));
+        return new MainConfig() {
+            @Override
+            public ServerProperties getServerProperties() {
+                return serverProperties;
+            }
+
+            @Override
+            public DatabaseProperties getDatabaseProperties() {
+                return databaseProperties;
+            }
+        };
+    }
+}
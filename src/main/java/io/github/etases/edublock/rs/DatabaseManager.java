@@ -2,6 +2,8 @@ package io.github.etases.edublock.rs;
 
 import io.github.etases.edublock.rs.entity.Record;
 import io.github.etases.edublock.rs.entity.*;
+import io.github.etases.edublock.rs.internal.profiler.ProfilingSessionEventListener;
+import io.github.etases.edublock.rs.internal.profiler.ProfilingStatementInspector;
 import io.github.etases.edublock.rs.internal.property.DatabaseProperties;
 import lombok.Getter;
 import me.hsgamer.hscore.database.Driver;
@@ -20,14 +22,26 @@ import java.util.List;
 /**
  * The database session factory
  */
-@Getter
 public class DatabaseManager {
+    private final RequestServer requestServer;
     /**
-     * The session factory
+     * The session factory, built by {@link #init()}
      */
-    private final SessionFactory sessionFactory;
+    @Getter
+    private volatile SessionFactory sessionFactory;
 
     public DatabaseManager(RequestServer requestServer) {
+        this.requestServer = requestServer;
+    }
+
+    /**
+     * Build the session factory and update the schema.
+     * This does nothing if the session factory is already built.
+     */
+    public synchronized void init() {
+        if (sessionFactory != null) {
+            return;
+        }
         System.setProperty("org.jboss.logging.provider", "slf4j");
 
         DatabaseProperties databaseProperties = requestServer.getMainConfig().getDatabaseProperties();
@@ -46,12 +60,14 @@ public class DatabaseManager {
                 .setHost(databaseProperties.host())
                 .setPort(databaseProperties.port())
                 .setClientProperty(AvailableSettings.DIALECT, H2Dialect.class.getName())
-                .setClientProperty(AvailableSettings.HBM2DDL_AUTO, "update");
+                .setClientProperty(AvailableSettings.HBM2DDL_AUTO, "update")
+                .setClientProperty(AvailableSettings.STATEMENT_BATCH_SIZE, 50)
+                .setClientProperty(AvailableSettings.ORDER_INSERTS, true);
 
-        if (requestServer.getMainConfig().getServerProperties().devMode()) {
+        if (requestServer.getMainConfig().getProfilerProperties().enabled()) {
             setting
-                    .setClientProperty(AvailableSettings.SHOW_SQL, true)
-                    .setClientProperty(AvailableSettings.FORMAT_SQL, true);
+                    .setClientProperty(AvailableSettings.STATEMENT_INSPECTOR, ProfilingStatementInspector.class.getName())
+                    .setClientProperty(AvailableSettings.AUTO_SESSION_EVENTS_LISTENER, ProfilingSessionEventListener.class.getName());
         }
 
         HibernateClient client = new HibernateClient(setting, driver);
@@ -71,7 +87,8 @@ public class DatabaseManager {
                 RecordEntry.class,
                 Student.class,
                 UpdaterKey.class,
-                StatisticKey.class
+                StatisticKey.class,
+                Job.class
         );
     }
 }
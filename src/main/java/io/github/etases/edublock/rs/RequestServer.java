@@ -4,7 +4,14 @@ import io.github.etases.edublock.rs.api.ServerHandler;
 import io.github.etases.edublock.rs.config.MainConfig;
 import io.github.etases.edublock.rs.config.SystemMainConfig;
 import io.github.etases.edublock.rs.handler.*;
+import io.github.etases.edublock.rs.internal.account.CredentialHasher;
+import io.github.etases.edublock.rs.internal.classification.ClassificationManager;
+import io.github.etases.edublock.rs.internal.job.JobManager;
+import io.github.etases.edublock.rs.internal.startup.StartupGraph;
+import io.github.etases.edublock.rs.internal.subject.SubjectManager;
 import io.github.etases.edublock.rs.internal.terminal.ServerTerminal;
+import io.github.etases.edublock.rs.internal.training.TrainingMainConfig;
+import io.github.etases.edublock.rs.internal.training.TrainingRun;
 import io.javalin.Javalin;
 import lombok.Getter;
 import me.hsgamer.hscore.config.configurate.ConfigurateConfig;
@@ -15,6 +22,7 @@ import org.spongepowered.configurate.yaml.YamlConfigurationLoader;
 import org.tinylog.Logger;
 
 import java.io.File;
+import java.util.Arrays;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
@@ -28,19 +36,21 @@ public class RequestServer {
     private final DependencyManager dependencyManager;
     private final ServerTerminal terminal;
     private final Map<Class<? extends ServerHandler>, ServerHandler> serverHandlers = new HashMap<>();
+    private final StartupGraph startupGraph = new StartupGraph();
     private Javalin server;
 
     RequestServer(String[] args) {
-        if (SystemMainConfig.isSystemConfigEnabled()) {
-            mainConfig = new SystemMainConfig();
-        } else {
-            mainConfig = ConfigGenerator.newInstance(MainConfig.class, new ConfigurateConfig(new File("./config", "config.yml"),
-                    YamlConfigurationLoader.builder()
-                            .nodeStyle(NodeStyle.BLOCK)
-                            .headerMode(HeaderMode.PRESERVE)
-                            .indent(2)
-            ));
-        }
+        this(loadMainConfig());
+    }
+
+    /**
+     * Create the server with the config.
+     * This is used to embed the server, such as in the load test harness.
+     *
+     * @param mainConfig the config
+     */
+    public RequestServer(MainConfig mainConfig) {
+        this.mainConfig = mainConfig;
         commandManager = new CommandManager();
         serverBuilder = new ServerBuilder();
         databaseManager = new DatabaseManager(this);
@@ -48,8 +58,24 @@ public class RequestServer {
         terminal = dependencyManager.getInjector().getInstance(ServerTerminal.class);
     }
 
+    private static MainConfig loadMainConfig() {
+        if (SystemMainConfig.isSystemConfigEnabled()) {
+            return new SystemMainConfig();
+        }
+        return ConfigGenerator.newInstance(MainConfig.class, new ConfigurateConfig(new File("./config", "config.yml"),
+                YamlConfigurationLoader.builder()
+                        .nodeStyle(NodeStyle.BLOCK)
+                        .headerMode(HeaderMode.PRESERVE)
+                        .indent(2)
+        ));
+    }
+
     public static void main(String[] args) {
         SysOutErrRedirect.init();
+        if (Arrays.asList(args).contains("--training")) {
+            new TrainingRun(new RequestServer(new TrainingMainConfig(loadMainConfig()))).run();
+            return;
+        }
         new RequestServer(args).start();
     }
 
@@ -61,19 +87,45 @@ public class RequestServer {
             return;
         }
 
+        startServer();
+        terminal.start();
+    }
+
+    /**
+     * Set up the handlers and start the server without the terminal.
+     * The startup is run as a graph of phases, see {@link StartupGraph}.
+     */
+    public void startServer() {
         Runtime.getRuntime().addShutdownHook(new Thread(this::stop));
 
-        getHandlers().forEach(clazz -> serverHandlers.put(clazz, dependencyManager.getInjector().getInstance(clazz)));
-        serverHandlers.values().forEach(ServerHandler::setup);
-        serverHandlers.values().forEach(ServerHandler::postSetup);
+        var injector = dependencyManager.getInjector();
+        startupGraph
+                .add("database", databaseManager::init)
+                .add("classification", () -> {
+                    SubjectManager.getSubjects();
+                    ClassificationManager.getClassifications();
+                })
+                .add("fabric", () -> {
+                    var fabricHandler = injector.getInstance(FabricHandler.class);
+                    fabricHandler.connect();
+                    serverHandlers.put(FabricHandler.class, fabricHandler);
+                })
+                .add("handlers", () -> getHandlers().forEach(clazz -> serverHandlers.computeIfAbsent(clazz, c -> injector.getInstance(c))), "database", "fabric")
+                .add("setup", () -> serverHandlers.values().forEach(ServerHandler::setup), "handlers", "classification")
+                .add("post-setup", () -> serverHandlers.values().forEach(ServerHandler::postSetup), "setup")
+                .add("server", this::startJavalin, "post-setup")
+                // The jobs are resumed after every handler registers its job runners in the post-setup
+                .add("jobs", () -> injector.getInstance(JobManager.class).resume(), "post-setup")
+                .run();
+    }
 
-        server = serverBuilder.build();
+    private void startJavalin() {
+        server = serverBuilder.build(mainConfig.getServerProperties());
         if (mainConfig.getServerProperties().host().isEmpty()) {
             server.start(mainConfig.getServerProperties().port());
         } else {
             server.start(mainConfig.getServerProperties().host(), mainConfig.getServerProperties().port());
         }
-        terminal.start();
     }
 
     private void stop() {
@@ -82,6 +134,8 @@ public class RequestServer {
         }
         serverHandlers.values().forEach(ServerHandler::stop);
         serverHandlers.values().forEach(ServerHandler::postStop);
+        // The shared services are stopped after all the handlers using them
+        dependencyManager.getInjector().getInstance(CredentialHasher.class).shutdown();
         commandManager.disable();
     }
 
@@ -105,7 +159,11 @@ public class RequestServer {
                 DevHandler.class,
                 FabricHandler.class,
                 StudentUpdateHandler.class,
-                ClassificationHandler.class
+                ClassificationHandler.class,
+                SerializationHandler.class,
+                MetricsHandler.class,
+                ProfilerHandler.class,
+                JobHandler.class
         );
     }
 
@@ -1,7 +1,10 @@
 package io.github.etases.edublock.rs;
 
+import io.github.etases.edublock.rs.internal.property.ServerProperties;
+import io.github.etases.edublock.rs.internal.server.ServerThreadPools;
 import io.javalin.Javalin;
 import io.javalin.config.JavalinConfig;
+import org.eclipse.jetty.server.Server;
 
 import java.util.LinkedList;
 import java.util.List;
@@ -26,8 +29,11 @@ public class ServerBuilder {
         return this;
     }
 
-    public Javalin build() {
-        Javalin server = Javalin.create(config -> configList.forEach(c -> c.accept(config)));
+    public Javalin build(ServerProperties properties) {
+        Javalin server = Javalin.create(config -> {
+            config.jetty.server(() -> new Server(ServerThreadPools.create(properties)));
+            configList.forEach(c -> c.accept(config));
+        });
         handlerList.forEach(h -> h.accept(server));
         return server;
     }
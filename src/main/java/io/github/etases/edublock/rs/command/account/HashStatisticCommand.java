@@ -0,0 +1,39 @@
+package io.github.etases.edublock.rs.command.account;
+
+import com.google.inject.Inject;
+import io.github.etases.edublock.rs.api.Command;
+import io.github.etases.edublock.rs.internal.account.CredentialHasher;
+import org.tinylog.Logger;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * The command to display the statistics of the credential hasher
+ */
+public class HashStatisticCommand extends Command {
+    @Inject
+    private CredentialHasher credentialHasher;
+
+    public HashStatisticCommand() {
+        super("hash-stats");
+    }
+
+    private static long toMillis(long nanos) {
+        return TimeUnit.NANOSECONDS.toMillis(nanos);
+    }
+
+    @Override
+    public void runCommand(String argument) {
+        var statistics = credentialHasher.getStatistics();
+        Logger.info("Threads: " + statistics.activeThreads() + "/" + statistics.threads());
+        Logger.info("Queue: " + statistics.queued() + "/" + statistics.queueCapacity());
+        Logger.info("Completed: " + statistics.completed() + ", Rejected: " + statistics.rejected());
+        Logger.info("Queue wait (ms): avg " + toMillis(statistics.averageQueueWaitNanos()) + ", max " + toMillis(statistics.maxQueueWaitNanos()));
+        Logger.info("Hash time (ms): avg " + toMillis(statistics.averageHashNanos()) + ", max " + toMillis(statistics.maxHashNanos()));
+    }
+
+    @Override
+    public String getDescription() {
+        return "Show the statistics of the password hashing executor";
+    }
+}
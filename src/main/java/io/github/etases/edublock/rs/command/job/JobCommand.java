@@ -0,0 +1,68 @@
+package io.github.etases.edublock.rs.command.job;
+
+import com.google.inject.Inject;
+import io.github.etases.edublock.rs.api.Command;
+import io.github.etases.edublock.rs.entity.Job;
+import io.github.etases.edublock.rs.internal.job.JobManager;
+import io.github.etases.edublock.rs.model.output.element.JobOutput;
+import org.hibernate.SessionFactory;
+import org.tinylog.Logger;
+
+/**
+ * The command to display the background jobs
+ */
+public class JobCommand extends Command {
+    private static final int LIST_SIZE = 10;
+    @Inject
+    private SessionFactory sessionFactory;
+    @Inject
+    private JobManager jobManager;
+
+    public JobCommand() {
+        super("job");
+    }
+
+    private static String formatProgress(JobOutput output) {
+        return output.getProcessed() + "/" + (output.getTotal() > 0 ? Long.toString(output.getTotal()) : "?")
+                + " (" + output.getFailed() + " failed, " + String.format("%.2f", output.getThroughput()) + " items/s)";
+    }
+
+    @Override
+    public void runCommand(String argument) {
+        try (var session = sessionFactory.openSession()) {
+            if (argument.isBlank()) {
+                var outputs = session.createNamedQuery("Job.findSummaries", JobOutput.class).setMaxResults(LIST_SIZE).getResultList();
+                Logger.info("Pending jobs: " + jobManager.getPendingCount());
+                for (var output : outputs) {
+                    Logger.info(output.getId() + " - " + output.getType() + " - " + output.getStatus() + " - " + formatProgress(output));
+                }
+                return;
+            }
+
+            var job = session.get(Job.class, argument.trim());
+            if (job == null) {
+                Logger.info("Job not found");
+                return;
+            }
+            var output = JobOutput.fromEntity(job);
+            Logger.info("Job: " + output.getId() + " (" + output.getType() + ")");
+            Logger.info("Status: " + output.getStatus());
+            Logger.info("Progress: " + formatProgress(output));
+            Logger.info("Created: " + output.getCreatedAt() + ", Started: " + output.getStartedAt() + ", Finished: " + output.getFinishedAt());
+            if (output.getMessage() != null) {
+                Logger.info("Message: " + output.getMessage());
+            }
+            output.getErrors().forEach(error -> Logger.info("Error: " + error));
+        }
+    }
+
+    @Override
+    public String getUsage() {
+        return "job [id]";
+    }
+
+    @Override
+    public String getDescription() {
+        return "Show the recent background jobs, or the progress of a job";
+    }
+}
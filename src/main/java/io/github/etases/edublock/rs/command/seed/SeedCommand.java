@@ -0,0 +1,81 @@
+package io.github.etases.edublock.rs.command.seed;
+
+import com.google.inject.Inject;
+import io.github.etases.edublock.rs.api.Command;
+import io.github.etases.edublock.rs.internal.seed.BulkSeeder;
+import io.github.etases.edublock.rs.internal.seed.SeedScale;
+import org.tinylog.Logger;
+
+import java.time.Instant;
+import java.time.Year;
+import java.util.concurrent.atomic.AtomicReference;
+
+/**
+ * The command to seed a large synthetic dataset
+ */
+public class SeedCommand extends Command {
+    private final AtomicReference<Instant> verifyTimeRef = new AtomicReference<>();
+    @Inject
+    private BulkSeeder bulkSeeder;
+
+    public SeedCommand() {
+        super("seed");
+    }
+
+    private static int getOrDefault(String[] split, int index, int defaultValue) {
+        return split.length > index ? Integer.parseInt(split[index]) : defaultValue;
+    }
+
+    @Override
+    public void runCommand(String argument) {
+        SeedScale scale;
+        try {
+            String[] split = argument.isBlank() ? new String[0] : argument.trim().split("\\s+");
+            if (split.length == 0) {
+                Logger.info("Usage: " + getUsage());
+                return;
+            }
+            scale = new SeedScale(
+                    getOrDefault(split, 0, 0),
+                    getOrDefault(split, 1, 10),
+                    getOrDefault(split, 2, 3),
+                    getOrDefault(split, 3, 20),
+                    getOrDefault(split, 4, Year.now().getValue())
+            );
+        } catch (NumberFormatException e) {
+            Logger.info("Usage: " + getUsage());
+            return;
+        }
+        if (!scale.validate()) {
+            Logger.info("Invalid scale");
+            return;
+        }
+
+        var verifyTime = verifyTimeRef.get();
+        if (verifyTime == null || Instant.now().isAfter(verifyTime.plusSeconds(5))) {
+            verifyTimeRef.set(Instant.now());
+            Logger.info("This adds " + scale.students() + " students and " + (long) scale.students() * scale.entriesPerRecord() + " record entries to the database.");
+            Logger.info("It's recommended to do this on a staging or benchmark database. Type the command again to confirm.");
+            return;
+        } else {
+            verifyTimeRef.set(null);
+        }
+
+        try {
+            var rows = bulkSeeder.seed(scale);
+            rows.forEach((table, count) -> Logger.info(table + ": " + count + " rows"));
+        } catch (Exception e) {
+            Logger.error(e, "Failed to seed the database");
+        }
+    }
+
+    @Override
+    public String getUsage() {
+        return "seed <students> [classes-per-grade] [teachers-per-subject] [entries-per-record] [year]";
+    }
+
+    @Override
+    public String getDescription() {
+        return "Seed a synthetic school in bulk, all accounts use the default password";
+    }
+}
@@ -1,21 +1,23 @@
 package io.github.etases.edublock.rs.command.updater;
 
 import io.github.etases.edublock.rs.api.Command;
-import io.github.etases.edublock.rs.handler.StudentUpdateHandler;
+import io.github.etases.edublock.rs.internal.job.JobManager;
 import org.tinylog.Logger;
 
 import java.time.Instant;
-import java.util.concurrent.CompletableFuture;
+import java.util.Map;
+import java.util.concurrent.RejectedExecutionException;
 import java.util.concurrent.atomic.AtomicReference;
 
 public class RestoreCommand extends Command {
-    private final StudentUpdateHandler handler;
-    private final AtomicReference<CompletableFuture<Void>> currentFutureRef = new AtomicReference<>();
+    private final JobManager jobManager;
+    private final String jobType;
     private final AtomicReference<Instant> verifyTimeRef = new AtomicReference<>();
 
-    public RestoreCommand(StudentUpdateHandler handler) {
+    public RestoreCommand(JobManager jobManager, String jobType) {
         super("updater-restore");
-        this.handler = handler;
+        this.jobManager = jobManager;
+        this.jobType = jobType;
     }
 
     @Override
@@ -30,12 +32,15 @@ public class RestoreCommand extends Command {
             verifyTimeRef.set(null);
         }
 
-        var currentFuture = currentFutureRef.get();
-        if (currentFuture != null && !currentFuture.isDone()) {
+        if (jobManager.hasUnfinishedJob(jobType)) {
             Logger.info("Restore already in progress");
-        } else {
-            currentFutureRef.set(handler.restoreData().thenAccept(v -> Logger.info("Restore complete")));
-            Logger.info("Restore started");
+            return;
+        }
+        try {
+            String id = jobManager.submit(jobType, 0, Map.of(), 2);
+            Logger.info("Restore started as job " + id + ", use \"job " + id + "\" to check the progress");
+        } catch (RejectedExecutionException e) {
+            Logger.info("The job queue is full, try again later");
         }
     }
 
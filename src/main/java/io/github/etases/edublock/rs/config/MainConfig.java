@@ -32,11 +32,36 @@ public interface MainConfig {
         return FabricUpdaterProperties.fromMap(Collections.emptyMap());
     }
 
+    @ConfigPath(value = "profiler", converter = ProfilerPropertiesConverter.class)
+    default ProfilerProperties getProfilerProperties() {
+        return ProfilerProperties.fromMap(Collections.emptyMap());
+    }
+
     @ConfigPath(value = "account.default-password")
     default String getDefaultPassword() {
         return "password";
     }
 
+    @ConfigPath(value = "account.hash-threads")
+    default int getHashThreads() {
+        return 0;
+    }
+
+    @ConfigPath(value = "account.hash-queue-size")
+    default int getHashQueueSize() {
+        return 64;
+    }
+
+    @ConfigPath(value = "job.threads")
+    default int getJobThreads() {
+        return 2;
+    }
+
+    @ConfigPath(value = "job.queue-size")
+    default int getJobQueueSize() {
+        return 16;
+    }
+
     @ConfigPath(value = "updater.period")
     default int getUpdaterPeriod() {
         return 60;
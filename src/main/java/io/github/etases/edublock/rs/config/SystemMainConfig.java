@@ -11,7 +11,12 @@ public class SystemMainConfig implements MainConfig {
     private final ServerProperties serverProperties;
     private final FabricProperties fabricProperties;
     private final FabricUpdaterProperties fabricUpdaterProperties;
+    private final ProfilerProperties profilerProperties;
     private final String accountDefaultPassword;
+    private final int hashThreads;
+    private final int hashQueueSize;
+    private final int jobThreads;
+    private final int jobQueueSize;
     private final int updaterPeriod;
     private final boolean oneClassPerYear;
 
@@ -37,7 +42,12 @@ public class SystemMainConfig implements MainConfig {
                 Integer.parseInt(Optional.ofNullable(System.getenv("RS_SERVER_PORT")).orElse("7070")),
                 Boolean.parseBoolean(Optional.ofNullable(System.getenv("RS_SERVER_DEV_MODE")).orElse("true")),
                 Boolean.parseBoolean(Optional.ofNullable(System.getenv("RS_SERVER_BYPASS_CORS")).orElse("true")),
-                List.of(Optional.ofNullable(System.getenv("RS_SERVER_ALLOWED_ORIGINS")).orElse("*").split(","))
+                List.of(Optional.ofNullable(System.getenv("RS_SERVER_ALLOWED_ORIGINS")).orElse("*").split(",")),
+                Optional.ofNullable(System.getenv("RS_SERVER_THREAD_MODE")).orElse("platform"),
+                Integer.parseInt(Optional.ofNullable(System.getenv("RS_SERVER_MIN_THREADS")).orElse("8")),
+                Integer.parseInt(Optional.ofNullable(System.getenv("RS_SERVER_MAX_THREADS")).orElse("250")),
+                Integer.parseInt(Optional.ofNullable(System.getenv("RS_SERVER_QUEUE_SIZE")).orElse("0")),
+                Integer.parseInt(Optional.ofNullable(System.getenv("RS_SERVER_COMPRESSION_THRESHOLD")).orElse("1500"))
         );
         this.fabricProperties = new FabricProperties(
                 Boolean.parseBoolean(Optional.ofNullable(System.getenv("RS_FABRIC_PEER_ENABLED")).orElse("false")),
@@ -55,7 +65,17 @@ public class SystemMainConfig implements MainConfig {
                 Optional.ofNullable(System.getenv("RS_FABRIC_UPDATER_CHANNEL_NAME")).orElse("mychannel"),
                 Optional.ofNullable(System.getenv("RS_FABRIC_UPDATER_CHAINCODE_NAME")).orElse("edublock")
         );
+        this.profilerProperties = new ProfilerProperties(
+                Boolean.parseBoolean(Optional.ofNullable(System.getenv("RS_PROFILER_ENABLED")).orElse("true")),
+                Long.parseLong(Optional.ofNullable(System.getenv("RS_PROFILER_SLOW_REQUEST_MILLIS")).orElse("1000")),
+                Integer.parseInt(Optional.ofNullable(System.getenv("RS_PROFILER_REPEAT_THRESHOLD")).orElse("10")),
+                Double.parseDouble(Optional.ofNullable(System.getenv("RS_PROFILER_SAMPLE_RATE")).orElse("1.0"))
+        );
         this.accountDefaultPassword = Optional.ofNullable(System.getenv("RS_ACCOUNT_DEFAULT_PASSWORD")).orElse("password");
+        this.hashThreads = Integer.parseInt(Optional.ofNullable(System.getenv("RS_ACCOUNT_HASH_THREADS")).orElse("0"));
+        this.hashQueueSize = Integer.parseInt(Optional.ofNullable(System.getenv("RS_ACCOUNT_HASH_QUEUE_SIZE")).orElse("64"));
+        this.jobThreads = Integer.parseInt(Optional.ofNullable(System.getenv("RS_JOB_THREADS")).orElse("2"));
+        this.jobQueueSize = Integer.parseInt(Optional.ofNullable(System.getenv("RS_JOB_QUEUE_SIZE")).orElse("16"));
         this.updaterPeriod = Integer.parseInt(Optional.ofNullable(System.getenv("RS_UPDATER_PERIOD")).orElse("60"));
         this.oneClassPerYear = Boolean.parseBoolean(Optional.ofNullable(System.getenv("RS_ONE_CLASS_PER_YEAR")).orElse("true"));
     }
@@ -90,11 +110,36 @@ public class SystemMainConfig implements MainConfig {
         return fabricUpdaterProperties;
     }
 
+    @Override
+    public ProfilerProperties getProfilerProperties() {
+        return profilerProperties;
+    }
+
     @Override
     public String getDefaultPassword() {
         return accountDefaultPassword;
     }
 
+    @Override
+    public int getHashThreads() {
+        return hashThreads;
+    }
+
+    @Override
+    public int getHashQueueSize() {
+        return hashQueueSize;
+    }
+
+    @Override
+    public int getJobThreads() {
+        return jobThreads;
+    }
+
+    @Override
+    public int getJobQueueSize() {
+        return jobQueueSize;
+    }
+
     @Override
     public int getUpdaterPeriod() {
         return updaterPeriod;
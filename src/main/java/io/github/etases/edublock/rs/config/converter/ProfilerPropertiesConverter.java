@@ -0,0 +1,24 @@
+package io.github.etases.edublock.rs.config.converter;
+
+import io.github.etases.edublock.rs.internal.property.ProfilerProperties;
+import me.hsgamer.hscore.config.annotation.converter.Converter;
+
+import java.util.Map;
+
+public class ProfilerPropertiesConverter implements Converter {
+    @Override
+    public Object convert(Object raw) {
+        if (raw instanceof Map<?, ?> map) {
+            return ProfilerProperties.fromMap(map);
+        }
+        return null;
+    }
+
+    @Override
+    public Object convertToRaw(Object value) {
+        if (value instanceof ProfilerProperties properties) {
+            return properties.toMap();
+        }
+        return null;
+    }
+}
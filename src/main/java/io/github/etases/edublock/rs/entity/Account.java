@@ -19,7 +19,11 @@ import java.util.List;
 @Setter
 @NamedQuery(name = "Account.findAll", query = "FROM Account")
 @NamedQuery(name = "Account.findByUsername", query = "FROM Account WHERE username = :username")
-@NamedQuery(name = "Account.countByUsernameRegex", query = "select count(a) FROM Account a WHERE username LIKE :username")
+@NamedQuery(name = "Account.findByUsernames", query = "FROM Account WHERE username IN :usernames")
+@NamedQuery(name = "Account.findByIds", query = "FROM Account WHERE id IN :ids")
+@NamedQuery(name = "Account.sumVersionByIds", query = "SELECT COUNT(id), COALESCE(SUM(version), 0) FROM Account WHERE id IN :ids")
+@NamedQuery(name = "Account.findTagRowsByClassrooms", query = "SELECT a.id, a.version FROM Account a WHERE a.id IN (SELECT r.student.id FROM Record r WHERE r.classroom.id IN :classroomIds) OR a.id IN (SELECT c.homeroomTeacher.id FROM Classroom c WHERE c.id IN :classroomIds) OR a.id IN (SELECT e.teacher.id FROM RecordEntry e WHERE e.record.classroom.id IN :classroomIds) OR a.id IN (SELECT e.requester.id FROM RecordEntry e WHERE e.record.classroom.id IN :classroomIds) OR a.id IN (SELECT e.approver.id FROM RecordEntry e WHERE e.record.classroom.id IN :classroomIds) OR a.id IN (SELECT ct.teacher.id FROM ClassTeacher ct WHERE ct.classroom.id IN :classroomIds) ORDER BY a.id")
+@NamedQuery(name = "Account.findAllUsernames", query = "select username FROM Account")
 @NamedQuery(name = "Account.findByRole", query = "FROM Account WHERE role = :role")
 public class Account implements Serializable {
     @Id
@@ -52,4 +56,7 @@ public class Account implements Serializable {
     private List<PendingRecordEntry> requestedPendingRecordEntries;
     @OneToMany(mappedBy = "homeroomTeacher")
     private List<Classroom> homeClassrooms;
+    @Version
+    @Column(nullable = false, columnDefinition = "BIGINT DEFAULT 0")
+    private long version;
 }
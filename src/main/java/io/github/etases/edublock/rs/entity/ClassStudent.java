@@ -18,6 +18,10 @@ import java.io.Serializable;
 @NamedQuery(name = "ClassStudent.findByStudent", query = "FROM ClassStudent WHERE student.id = :studentId")
 @NamedQuery(name = "ClassStudent.findByClassroomAndStudent", query = "FROM ClassStudent WHERE classroom.id = :classroomId and student.id = :studentId")
 @NamedQuery(name = "ClassStudent.findByYearAndStudent", query = "FROM ClassStudent WHERE classroom.year = :year and student.id = :studentId")
+@NamedQuery(name = "ClassStudent.findStudentIdByClassroomAndStudents", query = "SELECT student.id FROM ClassStudent WHERE classroom.id = :classroomId and student.id IN :studentIds")
+@NamedQuery(name = "ClassStudent.findStudentIdByYearAndStudents", query = "SELECT student.id FROM ClassStudent WHERE classroom.year = :year and student.id IN :studentIds")
+@NamedQuery(name = "ClassStudent.findByClassroomsAndStudents", query = "FROM ClassStudent cs JOIN FETCH cs.student JOIN FETCH cs.classroom WHERE cs.classroom.id IN :classroomIds and cs.student.id IN :studentIds")
+@NamedQuery(name = "ClassStudent.deleteByClassroomAndStudents", query = "DELETE FROM ClassStudent WHERE classroom.id = :classroomId and student.id IN :studentIds")
 public class ClassStudent implements Serializable {
     @Id
     @GenericGenerator(name = "ExistOrGenerate", strategy = UseExistOrIncrementGenerator.CLASS_PATH)
@@ -18,6 +18,10 @@ import java.io.Serializable;
 @NamedQuery(name = "ClassTeacher.findByClassroomAndSubject", query = "FROM ClassTeacher WHERE classroom.id = :classroomId and subjectId = :subjectId")
 @NamedQuery(name = "ClassTeacher.findByClassroomAndTeacherAndSubject", query = "FROM ClassTeacher WHERE classroom.id = :classroomId and subjectId = :subjectId and teacher.id = :teacherId")
 @NamedQuery(name = "ClassTeacher.findByTeacher", query = "FROM ClassTeacher WHERE teacher.id = :teacherId")
+@NamedQuery(name = "ClassTeacher.findByClassroom", query = "FROM ClassTeacher WHERE classroom.id = :classroomId")
+@NamedQuery(name = "ClassTeacher.findByClassroomsAndSubjects", query = "FROM ClassTeacher ct JOIN FETCH ct.teacher WHERE ct.classroom.id IN :classroomIds and ct.subjectId IN :subjectIds")
+@NamedQuery(name = "ClassTeacher.findTagRowsByClassrooms", query = "SELECT id, subjectId, teacher.id FROM ClassTeacher WHERE classroom.id IN :classroomIds ORDER BY id")
+@NamedQuery(name = "ClassTeacher.deleteByIds", query = "DELETE FROM ClassTeacher WHERE id IN :ids")
 public class ClassTeacher implements Serializable {
     @Id
     @GenericGenerator(name = "ExistOrGenerate", strategy = UseExistOrIncrementGenerator.CLASS_PATH)
@@ -19,6 +19,8 @@ import java.util.List;
 @NamedQuery(name = "Classroom.findAll", query = "FROM Classroom")
 @NamedQuery(name = "Classroom.findByName", query = "FROM Classroom WHERE name = :name")
 @NamedQuery(name = "Classroom.findByHomeroomTeacher", query = "FROM Classroom WHERE homeroomTeacher.id = :teacherId")
+@NamedQuery(name = "Classroom.findIdByGradeAndYear", query = "SELECT id FROM Classroom WHERE grade = :grade and year = :year")
+@NamedQuery(name = "Classroom.findTagRowsByIds", query = "SELECT id, version, homeroomTeacher.id FROM Classroom WHERE id IN :classroomIds ORDER BY id")
 public class Classroom implements Serializable {
     @Id
     @GenericGenerator(name = "ExistOrGenerate", strategy = UseExistOrIncrementGenerator.CLASS_PATH)
@@ -41,4 +43,7 @@ public class Classroom implements Serializable {
     private List<ClassTeacher> teachers;
     @OneToMany(mappedBy = "classroom")
     private List<Record> records;
+    @Version
+    @Column(nullable = false, columnDefinition = "BIGINT DEFAULT 0")
+    private long version;
 }
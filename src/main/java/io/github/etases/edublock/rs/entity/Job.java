@@ -0,0 +1,48 @@
+package io.github.etases.edublock.rs.entity;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+import org.hibernate.annotations.GenericGenerator;
+
+import javax.persistence.*;
+import java.util.Date;
+
+@Entity
+@NoArgsConstructor
+@AllArgsConstructor
+@Getter
+@Setter
+@NamedQuery(name = "Job.findSummaries", query = "SELECT new io.github.etases.edublock.rs.model.output.element.JobOutput(id, type, status, requesterId, total, processed, failed, message, createdAt, startedAt, finishedAt) FROM Job ORDER BY createdAt DESC")
+@NamedQuery(name = "Job.count", query = "SELECT COUNT(id) FROM Job")
+@NamedQuery(name = "Job.findByStatus", query = "FROM Job WHERE status IN :statuses ORDER BY createdAt")
+public class Job {
+    @Id
+    @GeneratedValue(generator = "UUID")
+    @GenericGenerator(name = "UUID", strategy = "org.hibernate.id.UUIDGenerator")
+    private String id;
+    @Column(nullable = false)
+    private String type;
+    @Column(nullable = false)
+    private String status;
+    @Column(nullable = false)
+    private long requesterId;
+    @Lob
+    @Column(nullable = false)
+    private String payload;
+    @Column(nullable = false)
+    private long total;
+    @Column(nullable = false)
+    private long processed;
+    @Column(nullable = false)
+    private long failed;
+    @Lob
+    private String errors;
+    @Column(length = 1024)
+    private String message;
+    @Column(nullable = false)
+    private Date createdAt;
+    private Date startedAt;
+    private Date finishedAt;
+}
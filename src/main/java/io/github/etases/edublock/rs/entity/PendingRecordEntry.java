@@ -19,6 +19,9 @@ import java.util.Date;
 @NamedQuery(name = "PendingRecordEntry.findAll", query = "FROM PendingRecordEntry")
 @NamedQuery(name = "PendingRecordEntry.findByHomeroomTeacher", query = "FROM PendingRecordEntry WHERE record.classroom.homeroomTeacher.id = :teacherId")
 @NamedQuery(name = "PendingRecordEntry.findByHomeroomTeacherAndStudent", query = "FROM PendingRecordEntry WHERE record.classroom.homeroomTeacher.id = :teacherId and record.student.id = :studentId")
+@NamedQuery(name = "PendingRecordEntry.deleteByRecords", query = "DELETE FROM PendingRecordEntry WHERE record.id IN :recordIds")
+@NamedQuery(name = "PendingRecordEntry.findByIdsWithClassroom", query = "SELECT p FROM PendingRecordEntry p JOIN FETCH p.record r JOIN FETCH r.classroom c LEFT JOIN FETCH c.homeroomTeacher WHERE p.id IN :ids")
+@NamedQuery(name = "PendingRecordEntry.deleteByIds", query = "DELETE FROM PendingRecordEntry WHERE id IN :ids")
 public class PendingRecordEntry implements Serializable {
     @Id
     @GenericGenerator(name = "ExistOrGenerate", strategy = UseExistOrIncrementGenerator.CLASS_PATH)
@@ -16,6 +16,8 @@ import java.util.Date;
 @Getter
 @Setter
 @NamedQuery(name = "Profile.findUpdated", query = "FROM Profile WHERE updated = true")
+@NamedQuery(name = "Profile.findTagRowsByClassrooms", query = "SELECT p.id, p.version FROM Profile p WHERE p.id IN (SELECT r.student.id FROM Record r WHERE r.classroom.id IN :classroomIds) OR p.id IN (SELECT c.homeroomTeacher.id FROM Classroom c WHERE c.id IN :classroomIds) OR p.id IN (SELECT e.teacher.id FROM RecordEntry e WHERE e.record.classroom.id IN :classroomIds) OR p.id IN (SELECT e.requester.id FROM RecordEntry e WHERE e.record.classroom.id IN :classroomIds) OR p.id IN (SELECT e.approver.id FROM RecordEntry e WHERE e.record.classroom.id IN :classroomIds) OR p.id IN (SELECT ct.teacher.id FROM ClassTeacher ct WHERE ct.classroom.id IN :classroomIds) ORDER BY p.id")
+@NamedQuery(name = "Profile.sumVersionByIds", query = "SELECT COUNT(id), COALESCE(SUM(version), 0) FROM Profile WHERE id IN :ids")
 public class Profile implements Serializable {
     @Id
     private Long id;
@@ -40,6 +42,9 @@ public class Profile implements Serializable {
     private String email;
     @Column(nullable = false)
     private boolean updated;
+    @Version
+    @Column(nullable = false, columnDefinition = "BIGINT DEFAULT 0")
+    private long version;
 
     public static Profile getOrDefault(Session session, long id) {
         Profile profile = session.get(Profile.class, id);
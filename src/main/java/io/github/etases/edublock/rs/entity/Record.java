@@ -6,10 +6,12 @@ import lombok.Getter;
 import lombok.NoArgsConstructor;
 import lombok.Setter;
 import org.hibernate.annotations.GenericGenerator;
+import org.hibernate.annotations.OptimisticLock;
 
 import javax.persistence.*;
 import java.io.Serializable;
 import java.util.List;
+import java.util.Map;
 
 @Entity
 @NoArgsConstructor
@@ -17,8 +19,16 @@ import java.util.List;
 @Getter
 @Setter
 @NamedQuery(name = "Record.findByStudentAndClassroom", query = "FROM Record WHERE student.id = :studentId and classroom.id = :classroomId")
-@NamedQuery(name = "Record.findByGradeAndYear", query = "FROM Record WHERE classroom.grade = :grade and classroom.year = :year")
-@NamedQuery(name = "Record.findByClassroom", query = "FROM Record WHERE classroom.id = :classroomId")
+@NamedQuery(name = "Record.findByGradeAndYear", query = "FROM Record WHERE classroom.grade = :grade and classroom.year = :year ORDER BY student.id, id DESC")
+@NamedQuery(name = "Record.findByClassroom", query = "FROM Record WHERE classroom.id = :classroomId ORDER BY student.id, id DESC")
+@NamedQuery(name = "Record.findTagRowsByClassrooms", query = "SELECT r.id, r.version, r.student.id, r.student.version FROM Record r WHERE r.classroom.id IN :classroomIds ORDER BY r.id")
+@NamedQuery(name = "Record.findByClassroomsAndStudents", query = "FROM Record WHERE classroom.id IN :classroomIds and student.id IN :studentIds")
+@NamedQuery(name = "Record.findStudentIdByClassroomAndStudents", query = "SELECT student.id FROM Record WHERE classroom.id = :classroomId and student.id IN :studentIds")
+@NamedQuery(name = "Record.findIdByClassroomAndStudents", query = "SELECT id FROM Record WHERE classroom.id = :classroomId and student.id IN :studentIds")
+@NamedQuery(name = "Record.deleteByIds", query = "DELETE FROM Record WHERE id IN :ids")
+@NamedQuery(name = "Record.findByIds", query = "FROM Record WHERE id IN :ids")
+@NamedQuery(name = "Record.findIdNeedLatestScores", query = "SELECT id FROM Record r WHERE (r.finalClassify IS NULL AND r.recordEntry IS NOT EMPTY) OR (r.finalClassify IS NOT NULL AND (r.classificationVersion IS NULL OR r.classificationVersion <> :rulesVersion)) OR r.id IN (SELECT r2.id FROM Record r2 JOIN r2.latestScores s WHERE s.entryId IS NULL)")
+@NamedNativeQuery(name = "Record.deleteLatestScoresByIds", query = "DELETE FROM RecordLatestScore WHERE record_id IN (:ids)")
 public class Record implements Serializable {
     @Id
     @GenericGenerator(name = "ExistOrGenerate", strategy = UseExistOrIncrementGenerator.CLASS_PATH)
@@ -32,7 +42,31 @@ public class Record implements Serializable {
     @JoinColumn(nullable = false)
     private Student student;
     @OneToMany(mappedBy = "record")
+    @OptimisticLock(excluded = true)
     private List<RecordEntry> recordEntry;
     @OneToMany(mappedBy = "record")
+    @OptimisticLock(excluded = true)
     private List<PendingRecordEntry> pendingRecordEntry;
+    // The classification and the latest scores are derived from the entries, so they do not change the version.
+    // The writers lock the record row instead, see RecordHandler#lockForProjection
+    @Column
+    @OptimisticLock(excluded = true)
+    private String firstHalfClassify;
+    @Column
+    @OptimisticLock(excluded = true)
+    private String secondHalfClassify;
+    @Column
+    @OptimisticLock(excluded = true)
+    private String finalClassify;
+    @Column
+    @OptimisticLock(excluded = true)
+    private String classificationVersion;
+    @ElementCollection
+    @OptimisticLock(excluded = true)
+    @CollectionTable(name = "RecordLatestScore", joinColumns = @JoinColumn(name = "record_id"))
+    @MapKeyColumn(name = "subjectId")
+    private Map<Long, RecordScore> latestScores;
+    @Version
+    @Column(nullable = false, columnDefinition = "BIGINT DEFAULT 0")
+    private long version;
 }
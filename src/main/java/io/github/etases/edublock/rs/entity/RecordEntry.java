@@ -17,6 +17,8 @@ import java.util.Date;
 @Getter
 @Setter
 @NamedQuery(name = "RecordEntry.findNeedUpdate", query = "FROM RecordEntry where updateComplete = false")
+@NamedQuery(name = "RecordEntry.findTagRowsByClassrooms", query = "SELECT e.id, e.subjectId, e.updateComplete FROM RecordEntry e WHERE e.record.classroom.id IN :classroomIds ORDER BY e.id")
+@NamedQuery(name = "RecordEntry.deleteByRecords", query = "DELETE FROM RecordEntry WHERE record.id IN :recordIds")
 public class RecordEntry implements Serializable {
     @Id
     @GenericGenerator(name = "ExistOrGenerate", strategy = UseExistOrIncrementGenerator.CLASS_PATH)
@@ -0,0 +1,42 @@
+package io.github.etases.edublock.rs.entity;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+import javax.persistence.Column;
+import javax.persistence.Embeddable;
+import java.io.Serializable;
+import java.util.Date;
+
+/**
+ * The latest scores of a subject in a {@link Record}, with the id of the {@link RecordEntry} they come from
+ */
+@Embeddable
+@NoArgsConstructor
+@AllArgsConstructor
+@Getter
+@Setter
+public class RecordScore implements Serializable {
+    @Column(nullable = false)
+    private float firstHalfScore;
+    @Column(nullable = false)
+    private float secondHalfScore;
+    @Column(nullable = false)
+    private float finalScore;
+    @Column
+    private Date approvalDate;
+    @Column
+    private Long entryId;
+
+    public static RecordScore fromEntry(RecordEntry recordEntry) {
+        return new RecordScore(
+                recordEntry.getFirstHalfScore(),
+                recordEntry.getSecondHalfScore(),
+                recordEntry.getFinalScore(),
+                recordEntry.getApprovalDate(),
+                recordEntry.getId()
+        );
+    }
+}
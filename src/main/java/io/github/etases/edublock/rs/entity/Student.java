@@ -15,6 +15,7 @@ import java.util.List;
 @Getter
 @Setter
 @NamedQuery(name = "Student.findAll", query = "FROM Student")
+@NamedQuery(name = "Student.findByIds", query = "FROM Student WHERE id IN :ids")
 public class Student implements Serializable {
     @Id
     private Long id;
@@ -44,4 +45,7 @@ public class Student implements Serializable {
     private List<Record> records;
     @OneToMany(mappedBy = "student")
     private List<UpdaterKey> updaterKey;
+    @Version
+    @Column(nullable = false, columnDefinition = "BIGINT DEFAULT 0")
+    private long version;
 }
@@ -31,6 +31,14 @@ public class UseExistOrIncrementGenerator extends IncrementGenerator {
         return super.generate(session, object);
     }
 
+    /**
+     * Reload the current maximum identifier on the next generation.
+     * Call this after the rows are inserted without Hibernate, such as by a bulk load.
+     */
+    public void reset() {
+        initPreviousValue = true;
+    }
+
     @Override
     public void initialize(SqlStringGenerationContext context) {
         super.initialize(context);
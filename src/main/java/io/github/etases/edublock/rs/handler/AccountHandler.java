@@ -7,26 +7,37 @@ import io.github.etases.edublock.rs.config.MainConfig;
 import io.github.etases.edublock.rs.entity.Account;
 import io.github.etases.edublock.rs.entity.Profile;
 import io.github.etases.edublock.rs.entity.Student;
+import io.github.etases.edublock.rs.internal.account.AccountImportReader;
 import io.github.etases.edublock.rs.internal.account.AccountUtil;
+import io.github.etases.edublock.rs.internal.account.CredentialHasher;
+import io.github.etases.edublock.rs.internal.account.HashedPassword;
 import io.github.etases.edublock.rs.internal.account.PasswordUtil;
+import io.github.etases.edublock.rs.internal.account.UsernameAllocator;
+import io.github.etases.edublock.rs.internal.etag.EntityTag;
 import io.github.etases.edublock.rs.internal.filter.ListSessionInputFilter;
+import io.github.etases.edublock.rs.internal.job.JobContext;
+import io.github.etases.edublock.rs.internal.job.JobManager;
+import io.github.etases.edublock.rs.internal.json.ResponseCompression;
+import io.github.etases.edublock.rs.internal.jwt.JwtUtil;
 import io.github.etases.edublock.rs.internal.pagination.PaginationUtil;
 import io.github.etases.edublock.rs.model.input.*;
 import io.github.etases.edublock.rs.model.output.*;
 import io.github.etases.edublock.rs.model.output.element.*;
 import io.javalin.Javalin;
 import io.javalin.http.Context;
+import io.javalin.json.JsonMapper;
 import io.javalin.openapi.*;
 import io.javalin.security.RouteRole;
+import org.hibernate.Session;
 import org.hibernate.SessionFactory;
 import org.hibernate.Transaction;
+import org.tinylog.Logger;
 
+import java.io.*;
+import java.nio.charset.StandardCharsets;
 import java.sql.Date;
 import java.time.Instant;
-import java.util.ArrayList;
-import java.util.Calendar;
-import java.util.List;
-import java.util.Locale;
+import java.util.*;
 
 public class AccountHandler extends SimpleServerHandler {
     private static final ListSessionInputFilter<Account> ACCOUNTS_FILTER = ListSessionInputFilter.<Account>create()
@@ -61,14 +72,30 @@ public class AccountHandler extends SimpleServerHandler {
                 calendar.setTime(o.getAccount().getCreatedAt());
                 return Integer.toString(calendar.get(Calendar.YEAR)).equals(input);
             });
+    private static final int CHUNK_SIZE = 200;
+    private static final String BULK_CREATE_JOB = "account-bulk-create";
     private final SessionFactory sessionFactory;
     private final MainConfig mainConfig;
+    private final CredentialHasher credentialHasher;
+    private final UsernameAllocator usernameAllocator;
+    private final JobManager jobManager;
+    private final ResponseCompression responseCompression;
 
     @Inject
-    public AccountHandler(ServerBuilder serverBuilder, SessionFactory sessionFactory, MainConfig mainConfig) {
+    public AccountHandler(ServerBuilder serverBuilder, SessionFactory sessionFactory, MainConfig mainConfig, CredentialHasher credentialHasher, UsernameAllocator usernameAllocator, JobManager jobManager, ResponseCompression responseCompression) {
         super(serverBuilder);
         this.sessionFactory = sessionFactory;
         this.mainConfig = mainConfig;
+        this.credentialHasher = credentialHasher;
+        this.usernameAllocator = usernameAllocator;
+        this.jobManager = jobManager;
+        this.responseCompression = responseCompression;
+    }
+
+    @Override
+    public void postSetup() {
+        usernameAllocator.reload();
+        jobManager.register(BULK_CREATE_JOB, this::runBulkCreateJob);
     }
 
     @Override
@@ -80,6 +107,16 @@ public class AccountHandler extends SimpleServerHandler {
                         ? new RouteRole[0]
                         : new RouteRole[]{JwtHandler.Role.ADMIN}
         );
+        server.post("/account/list/async", this::bulkCreateAsync,
+                mainConfig.getServerProperties().devMode()
+                        ? new RouteRole[0]
+                        : new RouteRole[]{JwtHandler.Role.ADMIN}
+        );
+        server.post("/account/import", this::importAccounts,
+                mainConfig.getServerProperties().devMode()
+                        ? new RouteRole[0]
+                        : new RouteRole[]{JwtHandler.Role.ADMIN}
+        );
         server.put("/account/list/password", this::bulkUpdatePassword, JwtHandler.Role.ADMIN);
         server.put("/account/password", this::updatePassword, JwtHandler.Role.authenticated());
         server.get("/account/role/{role}/list", this::listByRole, JwtHandler.Role.ADMIN, JwtHandler.Role.STAFF);
@@ -98,8 +135,17 @@ public class AccountHandler extends SimpleServerHandler {
                 ctx.json(new AccountWithProfileResponse(1, "Account not found", null));
                 return;
             }
-            if (JwtHandler.Role.getRole(account.getRole()) == JwtHandler.Role.STUDENT) {
-                var student = session.get(Student.class, userId);
+            boolean isStudent = JwtHandler.Role.getRole(account.getRole()) == JwtHandler.Role.STUDENT;
+            var student = isStudent ? session.get(Student.class, userId) : null;
+            var tag = EntityTag.of(ctx)
+                    .add(userId)
+                    .add(student == null ? -1 : student.getVersion())
+                    .addAccount(account)
+                    .build(session);
+            if (EntityTag.isNotModified(ctx, tag)) {
+                return;
+            }
+            if (isStudent) {
                 var output = AccountWithStudentProfileOutput.fromEntity(student, id -> Profile.getOrDefault(session, id));
                 ctx.json(new AccountWithStudentProfileResponse(0, "Get account", output));
             } else {
@@ -223,60 +269,235 @@ public class AccountHandler extends SimpleServerHandler {
                 .check(AccountCreateListInput::validate, "Invalid account list")
                 .get();
 
+        List<AccountCreateErrorListResponse.ErrorData> errors = new ArrayList<>();
+        List<JwtHandler.Role> roles = new ArrayList<>();
+        for (var accountCreate : input.getAccounts()) {
+            var optionalRole = JwtHandler.Role.getRoleOptional(accountCreate.getRole());
+            if (optionalRole.isEmpty()) {
+                errors.add(new AccountCreateErrorListResponse.ErrorData(1, "Invalid role", accountCreate));
+                continue;
+            }
+            roles.add(optionalRole.get());
+        }
+        if (!errors.isEmpty()) {
+            ctx.status(400);
+            ctx.json(new AccountCreateErrorListResponse(1, "There are errors in the account list", errors));
+            return;
+        }
+
+        var passwords = credentialHasher.hashAll(Collections.nCopies(roles.size(), mainConfig.getDefaultPassword()));
+
+        usernameAllocator.runReconciling(() -> bulkCreate(ctx, input, roles, passwords));
+    }
+
+    private void bulkCreate(Context ctx, AccountCreateListInput input, List<JwtHandler.Role> roles, List<HashedPassword> passwords) {
         try (var session = sessionFactory.openSession()) {
-            List<AccountCreateErrorListResponse.ErrorData> errors = new ArrayList<>();
             List<AccountWithProfileOutput> outputs = new ArrayList<>();
             Transaction transaction = session.beginTransaction();
-            for (var accountCreate : input.getAccounts()) {
+            for (int i = 0; i < input.getAccounts().size(); i++) {
+                outputs.add(saveNewAccount(session, input.getAccounts().get(i), roles.get(i), passwords.get(i)));
+            }
+            transaction.commit();
+            ctx.json(new AccountWithProfileListResponse(0, "Bulk create account successfully", PaginationInfo.whole(outputs), outputs));
+        }
+    }
+
+    private AccountWithProfileOutput saveNewAccount(Session session, AccountCreate accountCreate, JwtHandler.Role role, HashedPassword password) {
+        String username = usernameAllocator.allocate(AccountUtil.generateUsername(accountCreate.getFirstName(), accountCreate.getLastName()));
+        var account = AccountUtil.createAccount(username, password);
+        account.setRole(role.name().toUpperCase());
+        session.save(account);
+        var profile = new Profile();
+        profile.setId(account.getId());
+        profile.setAccount(account);
+        profile.setFirstName(accountCreate.getFirstName());
+        profile.setLastName(accountCreate.getLastName());
+        profile.setMale(true);
+        profile.setAvatar("");
+        profile.setBirthDate(Date.from(Instant.EPOCH));
+        profile.setAddress("");
+        profile.setPhone("");
+        profile.setEmail("");
+        profile.setUpdated(true);
+        session.save(profile);
+        if (role == JwtHandler.Role.STUDENT) {
+            var student = new Student();
+            student.setId(account.getId());
+            student.setAccount(account);
+            student.setEthnic("");
+            student.setFatherName("");
+            student.setFatherJob("");
+            student.setMotherName("");
+            student.setMotherJob("");
+            student.setGuardianName("");
+            student.setGuardianJob("");
+            student.setHomeTown("");
+            session.save(student);
+        }
+        return new AccountWithProfileOutput(AccountOutput.fromEntity(account), ProfileOutput.fromEntity(profile));
+    }
+
+    @OpenApi(
+            path = "/account/list/async",
+            methods = HttpMethod.POST,
+            summary = "Create multiple accounts in a background job. Roles: ADMIN",
+            description = "Create multiple accounts in a background job. Roles: ADMIN."
+                    + " The accounts are saved in chunks of " + CHUNK_SIZE + ", the accounts with invalid roles are recorded as errors of the job",
+            tags = "Account",
+            security = @OpenApiSecurity(name = SwaggerHandler.AUTH_KEY),
+            requestBody = @OpenApiRequestBody(content = @OpenApiContent(from = AccountCreateListInput.class)),
+            responses = {
+                    @OpenApiResponse(
+                            status = "202",
+                            description = "The id of the job",
+                            content = @OpenApiContent(from = StringResponse.class)
+                    ),
+                    @OpenApiResponse(
+                            status = "503",
+                            description = "The job queue is full",
+                            content = @OpenApiContent(from = StringResponse.class)
+                    ),
+            }
+    )
+    private void bulkCreateAsync(Context ctx) {
+        AccountCreateListInput input = ctx.bodyValidator(AccountCreateListInput.class)
+                .check(AccountCreateListInput::validate, "Invalid account list")
+                .get();
+        long requesterId = JwtUtil.containsJwt(ctx) ? JwtHandler.getUserId(ctx) : 0;
+        JobHandler.submit(ctx, jobManager, BULK_CREATE_JOB, requesterId, input, input.getAccounts().size());
+    }
+
+    private void runBulkCreateJob(JobContext context) {
+        var accounts = context.getPayload(AccountCreateListInput.class).getAccounts();
+        for (int start = (int) context.getCheckpoint(); start < accounts.size(); start += CHUNK_SIZE) {
+            int end = Math.min(accounts.size(), start + CHUNK_SIZE);
+            List<String> errors = new ArrayList<>();
+            List<AccountCreate> validAccounts = new ArrayList<>();
+            List<JwtHandler.Role> roles = new ArrayList<>();
+            for (int i = start; i < end; i++) {
+                var accountCreate = accounts.get(i);
                 var optionalRole = JwtHandler.Role.getRoleOptional(accountCreate.getRole());
                 if (optionalRole.isEmpty()) {
-                    errors.add(new AccountCreateErrorListResponse.ErrorData(1, "Invalid role", accountCreate));
+                    errors.add("#" + i + ": Invalid role");
                     continue;
                 }
-                var role = optionalRole.get();
-                String username = AccountUtil.generateUsername(accountCreate.getFirstName(), accountCreate.getLastName());
-                String password = mainConfig.getDefaultPassword();
-                var account = AccountUtil.createAccount(session, username, password);
-                account.setRole(role.name().toUpperCase());
-                session.save(account);
-                var profile = new Profile();
-                profile.setId(account.getId());
-                profile.setAccount(account);
-                profile.setFirstName(accountCreate.getFirstName());
-                profile.setLastName(accountCreate.getLastName());
-                profile.setMale(true);
-                profile.setAvatar("");
-                profile.setBirthDate(Date.from(Instant.EPOCH));
-                profile.setAddress("");
-                profile.setPhone("");
-                profile.setEmail("");
-                profile.setUpdated(true);
-                session.save(profile);
-                if (role == JwtHandler.Role.STUDENT) {
-                    var student = new Student();
-                    student.setId(account.getId());
-                    student.setAccount(account);
-                    student.setEthnic("");
-                    student.setFatherName("");
-                    student.setFatherJob("");
-                    student.setMotherName("");
-                    student.setMotherJob("");
-                    student.setGuardianName("");
-                    student.setGuardianJob("");
-                    student.setHomeTown("");
-                    session.save(student);
+                validAccounts.add(accountCreate);
+                roles.add(optionalRole.get());
+            }
+            var passwords = credentialHasher.hashAll(Collections.nCopies(validAccounts.size(), mainConfig.getDefaultPassword()));
+            usernameAllocator.runReconciling(() -> {
+                try (var session = sessionFactory.openSession()) {
+                    Transaction transaction = session.beginTransaction();
+                    for (int i = 0; i < validAccounts.size(); i++) {
+                        saveNewAccount(session, validAccounts.get(i), roles.get(i), passwords.get(i));
+                    }
+                    context.checkpoint(session, end, errors);
+                    transaction.commit();
                 }
-                outputs.add(new AccountWithProfileOutput(AccountOutput.fromEntity(account), ProfileOutput.fromEntity(profile)));
+            });
+        }
+    }
+
+    @OpenApi(
+            path = "/account/import",
+            methods = HttpMethod.POST,
+            summary = "Import accounts from a CSV or NDJSON stream. Roles: ADMIN",
+            description = "Import accounts from a CSV or NDJSON stream. Roles: ADMIN."
+                    + " Each CSV line is firstName,lastName,role with an optional header, each NDJSON line is an account creation object."
+                    + " The rows are saved in chunks of " + CHUNK_SIZE + ", and the result of each row is streamed back as a NDJSON line."
+                    + " Result statuses: 0 = created, 1 = invalid role, 2 = invalid row, 3 = failed to save",
+            tags = "Account",
+            security = @OpenApiSecurity(name = SwaggerHandler.AUTH_KEY),
+            requestBody = @OpenApiRequestBody(content = {
+                    @OpenApiContent(type = "string", mimeType = "text/csv"),
+                    @OpenApiContent(from = AccountCreate.class, mimeType = "application/x-ndjson")
+            }),
+            responses = {
+                    @OpenApiResponse(
+                            status = "200",
+                            description = "The result of each row, one per line",
+                            content = @OpenApiContent(from = AccountImportOutput.class, mimeType = "application/x-ndjson")
+                    ),
             }
-            if (errors.isEmpty()) {
-                transaction.commit();
-                ctx.json(new AccountWithProfileListResponse(0, "Bulk create account successfully", PaginationInfo.whole(outputs), outputs));
-            } else {
-                transaction.rollback();
-                ctx.status(400);
-                ctx.json(new AccountCreateErrorListResponse(1, "There are errors in the account list", errors));
+    )
+    private void importAccounts(Context ctx) throws IOException {
+        var format = AccountImportReader.Format.fromContentType(ctx.contentType());
+        var jsonMapper = ctx.jsonMapper();
+        var reader = new AccountImportReader(
+                new BufferedReader(new InputStreamReader(ctx.req().getInputStream(), StandardCharsets.UTF_8)),
+                format,
+                line -> jsonMapper.fromJsonString(line, AccountCreate.class)
+        );
+
+        ctx.contentType("application/x-ndjson");
+        var writer = new BufferedWriter(new OutputStreamWriter(responseCompression.openOutputStream(ctx), StandardCharsets.UTF_8));
+        List<AccountImportReader.Row> chunk = new ArrayList<>(CHUNK_SIZE);
+        AccountImportReader.Row row;
+        while ((row = reader.next()) != null) {
+            chunk.add(row);
+            if (chunk.size() >= CHUNK_SIZE) {
+                importChunk(chunk, writer, jsonMapper);
+                chunk.clear();
+            }
+        }
+        if (!chunk.isEmpty()) {
+            importChunk(chunk, writer, jsonMapper);
+        }
+        writer.close();
+    }
+
+    private void importChunk(List<AccountImportReader.Row> rows, Writer writer, JsonMapper jsonMapper) throws IOException {
+        AccountImportOutput[] results = new AccountImportOutput[rows.size()];
+        List<Integer> validIndexes = new ArrayList<>();
+        List<JwtHandler.Role> roles = new ArrayList<>();
+        for (int i = 0; i < rows.size(); i++) {
+            var row = rows.get(i);
+            var accountCreate = row.account();
+            if (accountCreate == null || !accountCreate.validate()) {
+                results[i] = new AccountImportOutput(row.line(), 2, "Invalid row", accountCreate, null);
+                continue;
+            }
+            var optionalRole = JwtHandler.Role.getRoleOptional(accountCreate.getRole());
+            if (optionalRole.isEmpty()) {
+                results[i] = new AccountImportOutput(row.line(), 1, "Invalid role", accountCreate, null);
+                continue;
+            }
+            validIndexes.add(i);
+            roles.add(optionalRole.get());
+        }
+
+        if (!validIndexes.isEmpty()) {
+            var passwords = credentialHasher.hashAll(Collections.nCopies(validIndexes.size(), mainConfig.getDefaultPassword()));
+            List<AccountWithProfileOutput> outputs = new ArrayList<>(validIndexes.size());
+            try {
+                usernameAllocator.runReconciling(() -> {
+                    outputs.clear();
+                    try (var session = sessionFactory.openSession()) {
+                        Transaction transaction = session.beginTransaction();
+                        for (int i = 0; i < validIndexes.size(); i++) {
+                            outputs.add(saveNewAccount(session, rows.get(validIndexes.get(i)).account(), roles.get(i), passwords.get(i)));
+                        }
+                        transaction.commit();
+                    }
+                });
+                for (int i = 0; i < validIndexes.size(); i++) {
+                    var row = rows.get(validIndexes.get(i));
+                    results[validIndexes.get(i)] = new AccountImportOutput(row.line(), 0, "Account created", row.account(), outputs.get(i));
+                }
+            } catch (Exception e) {
+                Logger.warn(e, "Failed to import a chunk of accounts");
+                for (int index : validIndexes) {
+                    var row = rows.get(index);
+                    results[index] = new AccountImportOutput(row.line(), 3, "Failed to save the account", row.account(), null);
+                }
             }
         }
+
+        for (var result : results) {
+            writer.write(jsonMapper.toJsonString(result, AccountImportOutput.class));
+            writer.write('\n');
+        }
+        writer.flush();
     }
 
     @OpenApi(
@@ -307,29 +528,34 @@ public class AccountHandler extends SimpleServerHandler {
 
         try (var session = sessionFactory.openSession()) {
             List<AccountLoginErrorListResponse.ErrorData> errors = new ArrayList<>();
-            Transaction transaction = session.beginTransaction();
+            var usernames = input.getAccounts().stream().map(AccountLogin::getUsername).distinct().toList();
+            Map<String, Account> accountMap = new HashMap<>();
+            for (var account : session.createNamedQuery("Account.findByUsernames", Account.class).setParameterList("usernames", usernames).getResultList()) {
+                accountMap.put(account.getUsername(), account);
+            }
             for (var accountInput : input.getAccounts()) {
-                var account = session.createNamedQuery("Account.findByUsername", Account.class)
-                        .setParameter("username", accountInput.getUsername())
-                        .uniqueResult();
-                if (account == null) {
+                if (!accountMap.containsKey(accountInput.getUsername())) {
                     errors.add(new AccountLoginErrorListResponse.ErrorData(1, "Username does not exist", accountInput));
-                    continue;
                 }
-                String salt = PasswordUtil.generateSalt();
-                String hashedPassword = PasswordUtil.hashPassword(accountInput.getPassword(), salt);
-                account.setSalt(salt);
-                account.setHashedPassword(hashedPassword);
-                session.update(account);
             }
-            if (errors.isEmpty()) {
-                transaction.commit();
-                ctx.json(new AccountLoginErrorListResponse(0, "Bulk update account password successfully", errors));
-            } else {
-                transaction.rollback();
+            if (!errors.isEmpty()) {
                 ctx.status(400);
                 ctx.json(new AccountLoginErrorListResponse(1, "There are errors in the account list", errors));
+                return;
             }
+
+            var passwords = credentialHasher.hashAll(input.getAccounts().stream().map(AccountLogin::getPassword).toList());
+
+            Transaction transaction = session.beginTransaction();
+            for (int i = 0; i < input.getAccounts().size(); i++) {
+                var account = accountMap.get(input.getAccounts().get(i).getUsername());
+                var password = passwords.get(i);
+                account.setSalt(password.salt());
+                account.setHashedPassword(password.hash());
+                session.update(account);
+            }
+            transaction.commit();
+            ctx.json(new AccountLoginErrorListResponse(0, "Bulk update account password successfully", errors));
         }
     }
 
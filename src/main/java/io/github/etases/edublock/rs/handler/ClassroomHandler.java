@@ -6,7 +6,10 @@ import io.github.etases.edublock.rs.api.SimpleServerHandler;
 import io.github.etases.edublock.rs.config.MainConfig;
 import io.github.etases.edublock.rs.entity.*;
 import io.github.etases.edublock.rs.internal.account.AccountUtil;
+import io.github.etases.edublock.rs.internal.etag.EntityTag;
 import io.github.etases.edublock.rs.internal.filter.ListSessionInputFilter;
+import io.github.etases.edublock.rs.internal.job.JobContext;
+import io.github.etases.edublock.rs.internal.job.JobManager;
 import io.github.etases.edublock.rs.internal.pagination.PaginationUtil;
 import io.github.etases.edublock.rs.internal.subject.SubjectManager;
 import io.github.etases.edublock.rs.model.input.*;
@@ -17,6 +20,7 @@ import io.github.etases.edublock.rs.model.output.element.TeacherWithSubjectOutpu
 import io.javalin.Javalin;
 import io.javalin.http.Context;
 import io.javalin.openapi.*;
+import org.hibernate.Session;
 import org.hibernate.SessionFactory;
 import org.hibernate.Transaction;
 
@@ -41,14 +45,23 @@ public class ClassroomHandler extends SimpleServerHandler {
                 }
                 return Integer.toString(o.getYear()).equals(input);
             });
+    private static final int CHUNK_SIZE = 200;
+    private static final String ADD_STUDENT_JOB = "classroom-add-student";
     private final SessionFactory sessionFactory;
     private final MainConfig mainConfig;
+    private final JobManager jobManager;
 
     @Inject
-    public ClassroomHandler(ServerBuilder serverBuilder, SessionFactory sessionFactory, MainConfig mainConfig) {
+    public ClassroomHandler(ServerBuilder serverBuilder, SessionFactory sessionFactory, MainConfig mainConfig, JobManager jobManager) {
         super(serverBuilder);
         this.sessionFactory = sessionFactory;
         this.mainConfig = mainConfig;
+        this.jobManager = jobManager;
+    }
+
+    @Override
+    public void postSetup() {
+        jobManager.register(ADD_STUDENT_JOB, this::runAddStudentJob);
     }
 
     @Override
@@ -66,6 +79,7 @@ public class ClassroomHandler extends SimpleServerHandler {
         server.delete("/classroom/{id}/teacher", this::removeTeacher, JwtHandler.Role.STAFF);
         server.get("/classroom/{id}/student", this::studentList, JwtHandler.Role.TEACHER, JwtHandler.Role.ADMIN, JwtHandler.Role.STAFF);
         server.post("/classroom/{id}/student", this::addStudent, JwtHandler.Role.STAFF);
+        server.post("/classroom/{id}/student/async", this::addStudentAsync, JwtHandler.Role.STAFF);
         server.delete("/classroom/{id}/student", this::removeStudent, JwtHandler.Role.STAFF);
     }
 
@@ -255,6 +269,13 @@ public class ClassroomHandler extends SimpleServerHandler {
                 ctx.json(new ClassroomResponse(1, "Classroom not found", null));
                 return;
             }
+            var tag = EntityTag.of(ctx)
+                    .add(classroom.getVersion())
+                    .addAccount(classroom.getHomeroomTeacher())
+                    .build(session);
+            if (EntityTag.isNotModified(ctx, tag)) {
+                return;
+            }
             ctx.json(new ClassroomResponse(0, "Get classroom", ClassroomOutput.fromEntity(classroom, id -> Profile.getOrDefault(session, id))));
         }
     }
@@ -517,10 +538,20 @@ public class ClassroomHandler extends SimpleServerHandler {
                 ctx.json(new TeacherWithSubjectErrorListResponse(1, "Classroom not found", Collections.emptyList()));
                 return;
             }
-            Transaction transaction = session.beginTransaction();
+            var teacherIds = input.getTeachers().stream().map(TeacherWithSubjectInput::getTeacherId).distinct().toList();
+            Map<Long, Account> teachers = new HashMap<>();
+            for (var teacher : session.createNamedQuery("Account.findByIds", Account.class).setParameterList("ids", teacherIds).getResultList()) {
+                teachers.put(teacher.getId(), teacher);
+            }
+            Map<Long, Set<Long>> assignedSubjects = new HashMap<>();
+            for (var classTeacher : session.createNamedQuery("ClassTeacher.findByClassroom", ClassTeacher.class).setParameter("classroomId", classroomId).getResultList()) {
+                assignedSubjects.computeIfAbsent(classTeacher.getTeacher().getId(), id -> new HashSet<>()).add(classTeacher.getSubjectId());
+            }
+
             List<TeacherWithSubjectErrorListResponse.ErrorData> errors = new ArrayList<>();
+            List<ClassTeacher> classTeachers = new ArrayList<>();
             for (var teacherWithSubject : input.getTeachers()) {
-                var teacher = session.get(Account.class, teacherWithSubject.getTeacherId());
+                var teacher = teachers.get(teacherWithSubject.getTeacherId());
                 if (teacher == null) {
                     errors.add(new TeacherWithSubjectErrorListResponse.ErrorData(1, "Teacher not found", teacherWithSubject));
                     continue;
@@ -534,11 +565,7 @@ public class ClassroomHandler extends SimpleServerHandler {
                     errors.add(new TeacherWithSubjectErrorListResponse.ErrorData(3, "Subject not found", teacherWithSubject));
                     continue;
                 }
-                if (session.createNamedQuery("ClassTeacher.findByClassroomAndTeacherAndSubject", ClassTeacher.class)
-                        .setParameter("classroomId", classroomId)
-                        .setParameter("teacherId", teacherWithSubject.getTeacherId())
-                        .setParameter("subjectId", teacherWithSubject.getSubjectId())
-                        .uniqueResultOptional().isPresent()) {
+                if (!assignedSubjects.computeIfAbsent(teacher.getId(), id -> new HashSet<>()).add(subject.getId())) {
                     errors.add(new TeacherWithSubjectErrorListResponse.ErrorData(4, "Teacher already in class", teacherWithSubject));
                     continue;
                 }
@@ -547,13 +574,14 @@ public class ClassroomHandler extends SimpleServerHandler {
                 classTeacher.setClassroom(classroom);
                 classTeacher.setTeacher(teacher);
                 classTeacher.setSubjectId(subject.getId());
-                session.save(classTeacher);
+                classTeachers.add(classTeacher);
             }
             if (errors.isEmpty()) {
+                Transaction transaction = session.beginTransaction();
+                classTeachers.forEach(session::save);
                 transaction.commit();
                 ctx.json(new TeacherWithSubjectErrorListResponse(0, "Teachers added", Collections.emptyList()));
             } else {
-                transaction.rollback();
                 ctx.status(400);
                 ctx.json(new TeacherWithSubjectErrorListResponse(2, "Some teachers not added", errors));
             }
@@ -583,14 +611,19 @@ public class ClassroomHandler extends SimpleServerHandler {
                 .get();
         long classroomId = Long.parseLong(ctx.pathParam("id"));
         try (var session = sessionFactory.openSession()) {
-            Transaction transaction = session.beginTransaction();
+            Map<Long, Set<Long>> removedSubjects = new HashMap<>();
             for (var teacherWithSubject : input.getTeachers()) {
-                session.createNamedQuery("ClassTeacher.findByClassroomAndTeacherAndSubject", ClassTeacher.class)
-                        .setParameter("classroomId", classroomId)
-                        .setParameter("teacherId", teacherWithSubject.getTeacherId())
-                        .setParameter("subjectId", teacherWithSubject.getSubjectId())
-                        .stream()
-                        .forEach(session::delete);
+                removedSubjects.computeIfAbsent(teacherWithSubject.getTeacherId(), id -> new HashSet<>()).add(teacherWithSubject.getSubjectId());
+            }
+            List<Long> classTeacherIds = new ArrayList<>();
+            for (var classTeacher : session.createNamedQuery("ClassTeacher.findByClassroom", ClassTeacher.class).setParameter("classroomId", classroomId).getResultList()) {
+                if (removedSubjects.getOrDefault(classTeacher.getTeacher().getId(), Collections.emptySet()).contains(classTeacher.getSubjectId())) {
+                    classTeacherIds.add(classTeacher.getId());
+                }
+            }
+            Transaction transaction = session.beginTransaction();
+            if (!classTeacherIds.isEmpty()) {
+                session.createNamedQuery("ClassTeacher.deleteByIds").setParameterList("ids", classTeacherIds).executeUpdate();
             }
             transaction.commit();
             ctx.json(new Response(0, "Teachers removed"));
@@ -637,46 +670,141 @@ public class ClassroomHandler extends SimpleServerHandler {
                 ctx.json(new AccountErrorListResponse(1, "Classroom not found", Collections.emptyList()));
                 return;
             }
-            Transaction transaction = session.beginTransaction();
             List<AccountErrorListResponse.ErrorData> errors = new ArrayList<>();
-            for (var accountId : input.getAccounts()) {
-                var student = session.get(Student.class, accountId);
-                if (student == null) {
-                    errors.add(new AccountErrorListResponse.ErrorData(1, "Student not found", accountId));
-                    continue;
-                }
-                if (session.createNamedQuery("ClassStudent.findByClassroomAndStudent", ClassStudent.class)
-                        .setParameter("classroomId", classroomId)
-                        .setParameter("studentId", accountId)
-                        .uniqueResultOptional().isPresent()) {
-                    errors.add(new AccountErrorListResponse.ErrorData(2, "Student already in class", accountId));
-                    continue;
-                }
-                if (mainConfig.isOneClassPerYear() && session.createNamedQuery("ClassStudent.findByYearAndStudent", ClassStudent.class)
-                        .setParameter("year", classroom.getYear())
-                        .setParameter("studentId", accountId)
-                        .uniqueResultOptional().isPresent()) {
-                    errors.add(new AccountErrorListResponse.ErrorData(3, "Student already in a class on this year", accountId));
-                }
-
-                var classStudent = new ClassStudent();
-                classStudent.setClassroom(classroom);
-                classStudent.setStudent(student);
-                session.save(classStudent);
-
-                RecordHandler.getOrCreateRecord(session, student, classroom);
-            }
+            var students = validateStudents(session, classroom, input.getAccounts(), errors);
             if (errors.isEmpty()) {
+                Transaction transaction = session.beginTransaction();
+                saveStudents(session, classroom, students);
                 transaction.commit();
                 ctx.json(new AccountErrorListResponse(0, "Students added", Collections.emptyList()));
             } else {
-                transaction.rollback();
                 ctx.status(400);
                 ctx.json(new AccountErrorListResponse(2, "Some students not added", errors));
             }
         }
     }
 
+    private List<Student> validateStudents(Session session, Classroom classroom, List<Long> accountIds, List<AccountErrorListResponse.ErrorData> errors) {
+        var distinctIds = accountIds.stream().distinct().toList();
+        Map<Long, Student> studentMap = new HashMap<>();
+        for (var student : session.createNamedQuery("Student.findByIds", Student.class).setParameterList("ids", distinctIds).getResultList()) {
+            studentMap.put(student.getId(), student);
+        }
+        Set<Long> inClassroom = new HashSet<>(session.createNamedQuery("ClassStudent.findStudentIdByClassroomAndStudents", Long.class)
+                .setParameter("classroomId", classroom.getId())
+                .setParameterList("studentIds", distinctIds)
+                .getResultList());
+        Set<Long> inYear = mainConfig.isOneClassPerYear()
+                ? new HashSet<>(session.createNamedQuery("ClassStudent.findStudentIdByYearAndStudents", Long.class)
+                .setParameter("year", classroom.getYear())
+                .setParameterList("studentIds", distinctIds)
+                .getResultList())
+                : Collections.emptySet();
+
+        List<Student> students = new ArrayList<>();
+        for (long accountId : accountIds) {
+            var student = studentMap.get(accountId);
+            if (student == null) {
+                errors.add(new AccountErrorListResponse.ErrorData(1, "Student not found", accountId));
+                continue;
+            }
+            if (!inClassroom.add(accountId)) {
+                errors.add(new AccountErrorListResponse.ErrorData(2, "Student already in class", accountId));
+                continue;
+            }
+            if (inYear.contains(accountId)) {
+                errors.add(new AccountErrorListResponse.ErrorData(3, "Student already in a class on this year", accountId));
+                continue;
+            }
+            students.add(student);
+        }
+        return students;
+    }
+
+    private void saveStudents(Session session, Classroom classroom, List<Student> students) {
+        if (students.isEmpty()) {
+            return;
+        }
+        Set<Long> withRecord = new HashSet<>(session.createNamedQuery("Record.findStudentIdByClassroomAndStudents", Long.class)
+                .setParameter("classroomId", classroom.getId())
+                .setParameterList("studentIds", students.stream().map(Student::getId).toList())
+                .getResultList());
+        for (var student : students) {
+            var classStudent = new ClassStudent();
+            classStudent.setClassroom(classroom);
+            classStudent.setStudent(student);
+            session.save(classStudent);
+
+            if (withRecord.add(student.getId())) {
+                session.save(RecordHandler.createEmptyRecord(student, classroom));
+            }
+        }
+    }
+
+    @OpenApi(
+            path = "/classroom/{id}/student/async",
+            methods = HttpMethod.POST,
+            summary = "Add students to a class in a background job. Roles: STAFF",
+            description = "Add students to a class in a background job. Roles: STAFF."
+                    + " The students are added in chunks of " + CHUNK_SIZE + ", the students that cannot be added are recorded as errors of the job",
+            tags = "Classroom",
+            pathParams = @OpenApiParam(name = "id", description = "Classroom ID", required = true),
+            security = @OpenApiSecurity(name = SwaggerHandler.AUTH_KEY),
+            requestBody = @OpenApiRequestBody(content = @OpenApiContent(from = AccountListInput.class)),
+            responses = {
+                    @OpenApiResponse(
+                            status = "202",
+                            content = @OpenApiContent(from = StringResponse.class),
+                            description = "The id of the job"
+                    ),
+                    @OpenApiResponse(
+                            status = "404",
+                            content = @OpenApiContent(from = StringResponse.class),
+                            description = "Classroom not found"
+                    ),
+                    @OpenApiResponse(
+                            status = "503",
+                            content = @OpenApiContent(from = StringResponse.class),
+                            description = "The job queue is full"
+                    )
+            }
+    )
+    private void addStudentAsync(Context ctx) {
+        var input = ctx.bodyValidator(AccountListInput.class)
+                .check(AccountListInput::validate, "Invalid data")
+                .get();
+        long classroomId = Long.parseLong(ctx.pathParam("id"));
+
+        try (var session = sessionFactory.openSession()) {
+            if (session.get(Classroom.class, classroomId) == null) {
+                ctx.status(404);
+                ctx.json(new StringResponse(1, "Classroom not found", null));
+                return;
+            }
+        }
+        JobHandler.submit(ctx, jobManager, ADD_STUDENT_JOB, JwtHandler.getUserId(ctx), new AddStudentJobPayload(classroomId, input.getAccounts()), input.getAccounts().size());
+    }
+
+    private void runAddStudentJob(JobContext context) {
+        var payload = context.getPayload(AddStudentJobPayload.class);
+        var accounts = payload.accounts();
+        for (int start = (int) context.getCheckpoint(); start < accounts.size(); start += CHUNK_SIZE) {
+            int end = Math.min(accounts.size(), start + CHUNK_SIZE);
+            try (var session = sessionFactory.openSession()) {
+                var classroom = session.get(Classroom.class, payload.classroomId());
+                if (classroom == null) {
+                    throw new IllegalStateException("Classroom not found");
+                }
+                List<AccountErrorListResponse.ErrorData> errors = new ArrayList<>();
+                var students = validateStudents(session, classroom, accounts.subList(start, end), errors);
+                Transaction transaction = session.beginTransaction();
+                saveStudents(session, classroom, students);
+                context.checkpoint(session, end, errors.stream().map(error -> error.getData() + ": " + error.getMessage()).toList());
+                transaction.commit();
+            }
+        }
+    }
+
     @OpenApi(
             path = "/classroom/{id}/student",
             methods = HttpMethod.DELETE,
@@ -701,27 +829,34 @@ public class ClassroomHandler extends SimpleServerHandler {
         long classroomId = Long.parseLong(ctx.pathParam("id"));
 
         try (var session = sessionFactory.openSession()) {
-            Transaction transaction = session.beginTransaction();
-            for (var accountId : input.getAccounts()) {
-                var classStudentQuery = session.createNamedQuery("ClassStudent.findByClassroomAndStudent", ClassStudent.class)
-                        .setParameter("classroomId", classroomId)
-                        .setParameter("studentId", accountId);
-
-                var classStudentList = classStudentQuery.list();
-                for (var classStudent : classStudentList) {
-                    session.delete(classStudent);
-                }
+            var studentIds = input.getAccounts().stream().distinct().toList();
+            List<Long> recordIds = session.createNamedQuery("Record.findIdByClassroomAndStudents", Long.class)
+                    .setParameter("classroomId", classroomId)
+                    .setParameterList("studentIds", studentIds)
+                    .getResultList();
 
-                var recordQuery = session.createNamedQuery("Record.findByStudentAndClassroom")
-                        .setParameter("studentId", accountId)
-                        .setParameter("classroomId", classroomId);
-                var recordList = recordQuery.list();
-                for (var record : recordList) {
-                    session.delete(record);
-                }
+            Transaction transaction = session.beginTransaction();
+            if (!recordIds.isEmpty()) {
+                session.createNamedQuery("RecordEntry.deleteByRecords").setParameterList("recordIds", recordIds).executeUpdate();
+                session.createNamedQuery("PendingRecordEntry.deleteByRecords").setParameterList("recordIds", recordIds).executeUpdate();
+                session.getNamedNativeQuery("Record.deleteLatestScoresByIds").setParameterList("ids", recordIds).executeUpdate();
+                session.createNamedQuery("Record.deleteByIds").setParameterList("ids", recordIds).executeUpdate();
             }
+            session.createNamedQuery("ClassStudent.deleteByClassroomAndStudents")
+                    .setParameter("classroomId", classroomId)
+                    .setParameterList("studentIds", studentIds)
+                    .executeUpdate();
             transaction.commit();
             ctx.json(new Response(0, "Students removed"));
         }
     }
+
+    /**
+     * The payload of the job adding students to a classroom
+     *
+     * @param classroomId the classroom id
+     * @param accounts    the student ids
+     */
+    public record AddStudentJobPayload(long classroomId, List<Long> accounts) {
+    }
 }
@@ -7,6 +7,9 @@ import io.github.etases.edublock.rs.api.Command;
 import io.github.etases.edublock.rs.api.ServerHandler;
 import io.github.etases.edublock.rs.command.HelpCommand;
 import io.github.etases.edublock.rs.command.StopCommand;
+import io.github.etases.edublock.rs.command.account.HashStatisticCommand;
+import io.github.etases.edublock.rs.command.job.JobCommand;
+import io.github.etases.edublock.rs.command.seed.SeedCommand;
 
 import java.util.List;
 
@@ -19,7 +22,10 @@ public class CommandHandler implements ServerHandler {
     private List<Class<? extends Command>> getCommands() {
         return List.of(
                 HelpCommand.class,
-                StopCommand.class
+                StopCommand.class,
+                HashStatisticCommand.class,
+                JobCommand.class,
+                SeedCommand.class
         );
     }
 
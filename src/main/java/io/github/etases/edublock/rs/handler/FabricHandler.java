@@ -31,8 +31,11 @@ public class FabricHandler implements ServerHandler {
     @Getter
     private Gateway gateway;
 
-    @Override
-    public void setup() {
+    /**
+     * Connect to the gateway.
+     * This blocks until the connection is made, so it is run in its own startup phase before {@link #setup()}.
+     */
+    public void connect() {
         var fabricProperties = config.getFabricProperties();
         if (!fabricProperties.enabled()) {
             Logger.info("Fabric is disabled");
@@ -64,12 +67,18 @@ public class FabricHandler implements ServerHandler {
                     .submitOptions(options -> options.withDeadlineAfter(5, TimeUnit.SECONDS))
                     .commitStatusOptions(options -> options.withDeadlineAfter(1, TimeUnit.MINUTES));
             gateway = builder.connect();
-            getCommands().forEach(commandManager::addCommand);
         } catch (Exception e) {
             Logger.error(e);
         }
     }
 
+    @Override
+    public void setup() {
+        if (gateway != null) {
+            getCommands().forEach(commandManager::addCommand);
+        }
+    }
+
     private List<Command> getCommands() {
         return List.of(
                 new InvokeEvaluateCommand(gateway),
@@ -0,0 +1,131 @@
+package io.github.etases.edublock.rs.handler;
+
+import com.google.inject.Inject;
+import io.github.etases.edublock.rs.ServerBuilder;
+import io.github.etases.edublock.rs.api.SimpleServerHandler;
+import io.github.etases.edublock.rs.entity.Job;
+import io.github.etases.edublock.rs.internal.job.JobManager;
+import io.github.etases.edublock.rs.internal.pagination.PaginationUtil;
+import io.github.etases.edublock.rs.model.input.PaginationParameter;
+import io.github.etases.edublock.rs.model.output.JobListResponse;
+import io.github.etases.edublock.rs.model.output.JobResponse;
+import io.github.etases.edublock.rs.model.output.StringResponse;
+import io.github.etases.edublock.rs.model.output.element.JobOutput;
+import io.javalin.Javalin;
+import io.javalin.http.Context;
+import io.javalin.openapi.*;
+import org.hibernate.SessionFactory;
+
+import java.util.List;
+import java.util.concurrent.RejectedExecutionException;
+
+public class JobHandler extends SimpleServerHandler {
+    private final SessionFactory sessionFactory;
+    private final JobManager jobManager;
+
+    @Inject
+    public JobHandler(ServerBuilder serverBuilder, SessionFactory sessionFactory, JobManager jobManager) {
+        super(serverBuilder);
+        this.sessionFactory = sessionFactory;
+        this.jobManager = jobManager;
+    }
+
+    /**
+     * Submit a job and respond with its id
+     *
+     * @param ctx         the context
+     * @param jobManager  the job manager
+     * @param type        the type of the job
+     * @param requesterId the id of the requester
+     * @param payload     the payload of the job
+     * @param total       the number of the items to process
+     */
+    public static void submit(Context ctx, JobManager jobManager, String type, long requesterId, Object payload, long total) {
+        try {
+            String id = jobManager.submit(type, requesterId, payload, total);
+            ctx.status(202);
+            ctx.json(new StringResponse(0, "Job submitted", id));
+        } catch (RejectedExecutionException e) {
+            ctx.status(503);
+            ctx.header("Retry-After", "5");
+            ctx.json(new StringResponse(2, "Too many jobs, please try again later", null));
+        }
+    }
+
+    @Override
+    protected void setupServer(Javalin server) {
+        server.get("/job/list", this::list, JwtHandler.Role.ADMIN, JwtHandler.Role.STAFF);
+        server.get("/job/{id}", this::get, JwtHandler.Role.authenticated());
+    }
+
+    @Override
+    public void stop() {
+        jobManager.shutdown();
+    }
+
+    @OpenApi(
+            path = "/job/list",
+            methods = HttpMethod.GET,
+            summary = "List the background jobs, newest first. Roles: ADMIN, STAFF",
+            description = "List the background jobs, newest first. Roles: ADMIN, STAFF",
+            tags = "Job",
+            queryParams = {
+                    @OpenApiParam(name = "pageNumber", description = "Page number"),
+                    @OpenApiParam(name = "pageSize", description = "Page size"),
+            },
+            security = @OpenApiSecurity(name = SwaggerHandler.AUTH_KEY),
+            responses = @OpenApiResponse(
+                    status = "200",
+                    description = "The list of jobs",
+                    content = @OpenApiContent(from = JobListResponse.class)
+            )
+    )
+    private void list(Context ctx) {
+        var paginationParameter = PaginationParameter.fromQuery(ctx);
+        try (var session = sessionFactory.openSession()) {
+            long count = session.createNamedQuery("Job.count", Long.class).getSingleResult();
+            List<JobOutput> list = session.createNamedQuery("Job.findSummaries", JobOutput.class)
+                    .setFirstResult(PaginationUtil.getFirstResult(paginationParameter))
+                    .setMaxResults(paginationParameter.getPageSize())
+                    .getResultList();
+            var paginationInfo = PaginationUtil.getPaginationInfo((int) Math.min(Integer.MAX_VALUE, count), paginationParameter);
+            ctx.json(new JobListResponse(0, "Get job list", paginationInfo, list));
+        }
+    }
+
+    @OpenApi(
+            path = "/job/{id}",
+            methods = HttpMethod.GET,
+            summary = "Get the progress of a background job. Roles: ADMIN, STAFF, the submitter of the job",
+            description = "Get the progress of a background job. Roles: ADMIN, STAFF, the submitter of the job",
+            tags = "Job",
+            pathParams = @OpenApiParam(name = "id", description = "The job id", required = true),
+            security = @OpenApiSecurity(name = SwaggerHandler.AUTH_KEY),
+            responses = {
+                    @OpenApiResponse(
+                            status = "200",
+                            description = "The job",
+                            content = @OpenApiContent(from = JobResponse.class)
+                    ),
+                    @OpenApiResponse(
+                            status = "404",
+                            description = "Job not found",
+                            content = @OpenApiContent(from = JobResponse.class)
+                    ),
+            }
+    )
+    private void get(Context ctx) {
+        String id = ctx.pathParam("id");
+        long userId = JwtHandler.getUserId(ctx);
+        var role = JwtHandler.getUserRole(ctx);
+        try (var session = sessionFactory.openSession()) {
+            var job = session.get(Job.class, id);
+            if (job == null || (job.getRequesterId() != userId && role != JwtHandler.Role.ADMIN && role != JwtHandler.Role.STAFF)) {
+                ctx.status(404);
+                ctx.json(new JobResponse(1, "Job not found", null));
+                return;
+            }
+            ctx.json(new JobResponse(0, "Get job", JobOutput.fromEntity(job)));
+        }
+    }
+}
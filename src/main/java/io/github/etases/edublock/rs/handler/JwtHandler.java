@@ -8,7 +8,7 @@ import io.github.etases.edublock.rs.ServerBuilder;
 import io.github.etases.edublock.rs.api.SimpleServerHandler;
 import io.github.etases.edublock.rs.config.MainConfig;
 import io.github.etases.edublock.rs.entity.Account;
-import io.github.etases.edublock.rs.internal.account.PasswordUtil;
+import io.github.etases.edublock.rs.internal.account.CredentialHasher;
 import io.github.etases.edublock.rs.internal.jwt.JwtProvider;
 import io.github.etases.edublock.rs.internal.jwt.JwtUtil;
 import io.github.etases.edublock.rs.model.input.AccountLogin;
@@ -18,24 +18,29 @@ import io.javalin.config.JavalinConfig;
 import io.javalin.http.Context;
 import io.javalin.openapi.*;
 import io.javalin.security.RouteRole;
+import lombok.Getter;
 import me.hsgamer.hscore.collections.map.CaseInsensitiveStringHashMap;
 import org.hibernate.SessionFactory;
 
 import java.util.Map;
 import java.util.Optional;
-import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.RejectedExecutionException;
 
 public class JwtHandler extends SimpleServerHandler {
     private static final String USER_ROLE_CLAIM = "role";
 
+    @Getter
     private final JwtProvider provider;
     private final SessionFactory sessionFactory;
+    private final CredentialHasher credentialHasher;
 
     @Inject
-    public JwtHandler(ServerBuilder serverBuilder, MainConfig mainConfig, SessionFactory sessionFactory) {
+    public JwtHandler(ServerBuilder serverBuilder, MainConfig mainConfig, SessionFactory sessionFactory, CredentialHasher credentialHasher) {
         super(serverBuilder);
         provider = new JwtProvider(USER_ROLE_CLAIM, mainConfig.getJwtProperties());
         this.sessionFactory = sessionFactory;
+        this.credentialHasher = credentialHasher;
     }
 
     public static long getUserId(Context ctx) {
@@ -43,6 +48,11 @@ public class JwtHandler extends SimpleServerHandler {
         return jwt.getClaim("id").asLong();
     }
 
+    public static Role getUserRole(Context ctx) {
+        DecodedJWT jwt = JwtUtil.getDecodedFromContext(ctx);
+        return Role.getRole(jwt.getClaim(USER_ROLE_CLAIM).asString());
+    }
+
     @Override
     protected void setupConfig(JavalinConfig config) {
         config.accessManager(provider.createAccessManager(Role.getRoleMapping(), Role.ANYONE));
@@ -54,6 +64,22 @@ public class JwtHandler extends SimpleServerHandler {
         server.post("/login", this::login);
     }
 
+    /**
+     * Generate the token of an account
+     *
+     * @param id       the id of the account
+     * @param username the username of the account
+     * @param role     the role of the account
+     * @return the token
+     */
+    public String generateToken(long id, String username, String role) {
+        JWTCreator.Builder builder = JWT.create()
+                .withClaim(USER_ROLE_CLAIM, role)
+                .withClaim("name", username)
+                .withClaim("id", id);
+        return provider.generateToken(builder);
+    }
+
     @OpenApi(
             path = "/login",
             methods = HttpMethod.POST,
@@ -71,6 +97,11 @@ public class JwtHandler extends SimpleServerHandler {
                             status = "401",
                             content = @OpenApiContent(from = StringResponse.class),
                             description = "Invalid username or password"
+                    ),
+                    @OpenApiResponse(
+                            status = "503",
+                            content = @OpenApiContent(from = StringResponse.class),
+                            description = "Too many login requests"
                     )
             }
     )
@@ -79,25 +110,37 @@ public class JwtHandler extends SimpleServerHandler {
                 .check(input -> input.getUsername() != null, "Username cannot be null")
                 .check(input -> input.getPassword() != null, "Password cannot be null")
                 .get();
+        Account account;
+        try (var session = sessionFactory.openSession()) {
+            account = session.createNamedQuery("Account.findByUsername", Account.class)
+                    .setParameter("username", accountLogin.getUsername())
+                    .uniqueResult();
+        }
+        if (account == null) {
+            ctx.status(401);
+            ctx.json(new StringResponse(1, "Invalid username or password", null));
+            return;
+        }
         ctx.future(
-                () -> CompletableFuture.supplyAsync(() -> {
-                    try (var session = sessionFactory.openSession()) {
-                        return session.createNamedQuery("Account.findByUsername", Account.class)
-                                .setParameter("username", accountLogin.getUsername())
-                                .uniqueResult();
+                () -> credentialHasher.verify(accountLogin.getPassword(), account.getSalt(), account.getHashedPassword()).handle((valid, throwable) -> {
+                    if (throwable != null) {
+                        var cause = throwable instanceof CompletionException ? throwable.getCause() : throwable;
+                        if (cause instanceof RejectedExecutionException) {
+                            ctx.status(503);
+                            ctx.header("Retry-After", "1");
+                            ctx.json(new StringResponse(2, "Too many login requests, please try again later", null));
+                            return null;
+                        }
+                        throw new CompletionException(cause);
                     }
-                }).thenAccept(account -> {
-                    if (account == null || !PasswordUtil.verifyPassword(accountLogin.getPassword(), account.getSalt(), account.getHashedPassword())) {
+                    if (!Boolean.TRUE.equals(valid)) {
                         ctx.status(401);
                         ctx.json(new StringResponse(1, "Invalid username or password", null));
-                        return;
+                        return null;
                     }
-                    JWTCreator.Builder builder = JWT.create()
-                            .withClaim(USER_ROLE_CLAIM, account.getRole())
-                            .withClaim("name", account.getUsername())
-                            .withClaim("id", account.getId());
-                    String token = provider.generateToken(builder);
+                    String token = generateToken(account.getId(), account.getUsername(), account.getRole());
                     ctx.json(new StringResponse(0, "Login Successful", token));
+                    return null;
                 })
         );
     }
@@ -0,0 +1,153 @@
+package io.github.etases.edublock.rs.handler;
+
+import com.google.inject.Inject;
+import io.github.etases.edublock.rs.RequestServer;
+import io.github.etases.edublock.rs.ServerBuilder;
+import io.github.etases.edublock.rs.api.SimpleServerHandler;
+import io.github.etases.edublock.rs.internal.account.CredentialHasher;
+import io.github.etases.edublock.rs.internal.job.JobManager;
+import io.github.etases.edublock.rs.internal.metrics.MetricsRegistry;
+import io.javalin.Javalin;
+import io.javalin.http.Context;
+import io.javalin.openapi.HttpMethod;
+import io.javalin.openapi.OpenApi;
+import io.javalin.openapi.OpenApiContent;
+import io.javalin.openapi.OpenApiResponse;
+import io.javalin.openapi.OpenApiSecurity;
+import org.hibernate.SessionFactory;
+
+import java.lang.management.ManagementFactory;
+
+public class MetricsHandler extends SimpleServerHandler {
+    private static final String START_TIME_ATTRIBUTE = "metrics-start-time";
+    private static final String CONTENT_TYPE = "text/plain; version=0.0.4; charset=utf-8";
+
+    private final RequestServer requestServer;
+    private final MetricsRegistry metricsRegistry;
+    private final SessionFactory sessionFactory;
+    private final CredentialHasher credentialHasher;
+    private final JobManager jobManager;
+
+    @Inject
+    public MetricsHandler(ServerBuilder serverBuilder, RequestServer requestServer, MetricsRegistry metricsRegistry, SessionFactory sessionFactory, CredentialHasher credentialHasher, JobManager jobManager) {
+        super(serverBuilder);
+        this.requestServer = requestServer;
+        this.metricsRegistry = metricsRegistry;
+        this.sessionFactory = sessionFactory;
+        this.credentialHasher = credentialHasher;
+        this.jobManager = jobManager;
+    }
+
+    @Override
+    protected void setupServer(Javalin server) {
+        server.before(ctx -> ctx.attribute(START_TIME_ATTRIBUTE, System.nanoTime()));
+        server.after(this::recordRequest);
+        server.get("/metrics", this::metrics, JwtHandler.Role.ADMIN);
+    }
+
+    @Override
+    public void postSetup() {
+        registerJvmMetrics();
+        registerDatabaseMetrics();
+        registerServiceMetrics();
+    }
+
+    private void recordRequest(Context ctx) {
+        Long startTime = ctx.attribute(START_TIME_ATTRIBUTE);
+        if (startTime == null) {
+            return;
+        }
+        String route = ctx.endpointHandlerPath();
+        if (route.isEmpty()) {
+            route = "unmatched";
+        }
+        String method = ctx.method().name();
+        String status = Integer.toString(ctx.statusCode());
+        metricsRegistry.counter("http_requests_total", "The number of the handled requests", "method", method, "route", route, "status", status).increment();
+        metricsRegistry.histogram("http_request_duration_seconds", "The duration of the handled requests", "method", method, "route", route).observeNanos(System.nanoTime() - startTime);
+    }
+
+    private void registerJvmMetrics() {
+        var memoryBean = ManagementFactory.getMemoryMXBean();
+        metricsRegistry.gauge("jvm_memory_used_bytes", "The used memory", () -> memoryBean.getHeapMemoryUsage().getUsed(), "area", "heap");
+        metricsRegistry.gauge("jvm_memory_used_bytes", "The used memory", () -> memoryBean.getNonHeapMemoryUsage().getUsed(), "area", "nonheap");
+        metricsRegistry.gauge("jvm_memory_committed_bytes", "The committed memory", () -> memoryBean.getHeapMemoryUsage().getCommitted(), "area", "heap");
+        metricsRegistry.gauge("jvm_memory_committed_bytes", "The committed memory", () -> memoryBean.getNonHeapMemoryUsage().getCommitted(), "area", "nonheap");
+        metricsRegistry.gauge("jvm_memory_max_bytes", "The maximum memory", () -> memoryBean.getHeapMemoryUsage().getMax(), "area", "heap");
+
+        for (var gcBean : ManagementFactory.getGarbageCollectorMXBeans()) {
+            metricsRegistry.counterFunction("jvm_gc_collections_total", "The number of the garbage collections", gcBean::getCollectionCount, "gc", gcBean.getName());
+            metricsRegistry.counterFunction("jvm_gc_collection_seconds_total", "The time spent in the garbage collections", () -> gcBean.getCollectionTime() / 1000.0, "gc", gcBean.getName());
+        }
+
+        var threadBean = ManagementFactory.getThreadMXBean();
+        metricsRegistry.gauge("jvm_threads_current", "The number of the live threads", threadBean::getThreadCount);
+        metricsRegistry.gauge("jvm_threads_daemon", "The number of the live daemon threads", threadBean::getDaemonThreadCount);
+        metricsRegistry.gauge("jvm_threads_peak", "The peak number of the live threads", threadBean::getPeakThreadCount);
+
+        var runtimeBean = ManagementFactory.getRuntimeMXBean();
+        metricsRegistry.gauge("process_uptime_seconds", "The uptime of the server", () -> runtimeBean.getUptime() / 1000.0);
+        metricsRegistry.gauge("jvm_available_processors", "The number of the available processors", () -> Runtime.getRuntime().availableProcessors());
+
+        var startupGraph = requestServer.getStartupGraph();
+        metricsRegistry.gauge("server_startup_seconds", "The duration of the server startup", () -> startupGraph.getTotalNanos() / 1e9);
+        for (String phase : startupGraph.getPhaseNames()) {
+            metricsRegistry.gauge("server_startup_phase_seconds", "The duration of the startup phases", () -> startupGraph.getPhaseNanos(phase) / 1e9, "phase", phase);
+        }
+    }
+
+    private void registerDatabaseMetrics() {
+        var statistics = sessionFactory.getStatistics();
+        statistics.setStatisticsEnabled(true);
+        metricsRegistry.counterFunction("hibernate_sessions_opened_total", "The number of the opened sessions", statistics::getSessionOpenCount);
+        metricsRegistry.counterFunction("hibernate_transactions_total", "The number of the transactions", statistics::getTransactionCount);
+        metricsRegistry.counterFunction("hibernate_transactions_successful_total", "The number of the successful transactions", statistics::getSuccessfulTransactionCount);
+        metricsRegistry.counterFunction("hibernate_optimistic_failures_total", "The number of the optimistic lock failures", statistics::getOptimisticFailureCount);
+        metricsRegistry.counterFunction("hibernate_statements_prepared_total", "The number of the prepared statements", statistics::getPrepareStatementCount);
+        metricsRegistry.counterFunction("hibernate_queries_executed_total", "The number of the executed queries", statistics::getQueryExecutionCount);
+        metricsRegistry.gauge("hibernate_query_execution_max_seconds", "The slowest query execution time", () -> statistics.getQueryExecutionMaxTime() / 1000.0);
+        metricsRegistry.counterFunction("hibernate_entities_total", "The number of the entity operations", statistics::getEntityLoadCount, "operation", "load");
+        metricsRegistry.counterFunction("hibernate_entities_total", "The number of the entity operations", statistics::getEntityFetchCount, "operation", "fetch");
+        metricsRegistry.counterFunction("hibernate_entities_total", "The number of the entity operations", statistics::getEntityInsertCount, "operation", "insert");
+        metricsRegistry.counterFunction("hibernate_entities_total", "The number of the entity operations", statistics::getEntityUpdateCount, "operation", "update");
+        metricsRegistry.counterFunction("hibernate_entities_total", "The number of the entity operations", statistics::getEntityDeleteCount, "operation", "delete");
+        metricsRegistry.counterFunction("hibernate_collections_total", "The number of the collection operations", statistics::getCollectionLoadCount, "operation", "load");
+        metricsRegistry.counterFunction("hibernate_collections_total", "The number of the collection operations", statistics::getCollectionFetchCount, "operation", "fetch");
+        metricsRegistry.counterFunction("hibernate_second_level_cache_requests_total", "The number of the second level cache requests", statistics::getSecondLevelCacheHitCount, "result", "hit");
+        metricsRegistry.counterFunction("hibernate_second_level_cache_requests_total", "The number of the second level cache requests", statistics::getSecondLevelCacheMissCount, "result", "miss");
+        metricsRegistry.counterFunction("hibernate_query_cache_requests_total", "The number of the query cache requests", statistics::getQueryCacheHitCount, "result", "hit");
+        metricsRegistry.counterFunction("hibernate_query_cache_requests_total", "The number of the query cache requests", statistics::getQueryCacheMissCount, "result", "miss");
+    }
+
+    private void registerServiceMetrics() {
+        metricsRegistry.gauge("credential_hasher_active_threads", "The number of the threads hashing credentials", () -> credentialHasher.getStatistics().activeThreads());
+        metricsRegistry.gauge("credential_hasher_queued", "The number of the queued credential hashes", () -> credentialHasher.getStatistics().queued());
+        metricsRegistry.counterFunction("credential_hasher_completed_total", "The number of the completed credential hashes", () -> credentialHasher.getStatistics().completed());
+        metricsRegistry.counterFunction("credential_hasher_rejected_total", "The number of the rejected credential hashes", () -> credentialHasher.getStatistics().rejected());
+
+        var tokenCache = requestServer.getHandler(JwtHandler.class).getProvider().getTokenCache();
+        metricsRegistry.gauge("token_cache_size", "The number of the cached verified tokens", () -> tokenCache.getStatistics().size());
+        metricsRegistry.counterFunction("token_cache_requests_total", "The number of the token cache requests", () -> tokenCache.getStatistics().hits(), "result", "hit");
+        metricsRegistry.counterFunction("token_cache_requests_total", "The number of the token cache requests", () -> tokenCache.getStatistics().misses(), "result", "miss");
+
+        metricsRegistry.gauge("jobs_pending", "The number of the running and queued jobs", jobManager::getPendingCount);
+    }
+
+    @OpenApi(
+            path = "/metrics",
+            methods = HttpMethod.GET,
+            summary = "Get the runtime metrics in the Prometheus text format. Roles: ADMIN",
+            description = "Get the runtime metrics in the Prometheus text format. Roles: ADMIN",
+            tags = "Metrics",
+            security = @OpenApiSecurity(name = SwaggerHandler.AUTH_KEY),
+            responses = @OpenApiResponse(
+                    status = "200",
+                    content = @OpenApiContent(type = "string", mimeType = "text/plain"),
+                    description = "The metrics"
+            )
+    )
+    private void metrics(Context ctx) {
+        ctx.contentType(CONTENT_TYPE);
+        ctx.result(metricsRegistry.write());
+    }
+}
@@ -0,0 +1,104 @@
+package io.github.etases.edublock.rs.handler;
+
+import com.google.inject.Inject;
+import io.github.etases.edublock.rs.ServerBuilder;
+import io.github.etases.edublock.rs.api.SimpleServerHandler;
+import io.github.etases.edublock.rs.config.MainConfig;
+import io.github.etases.edublock.rs.internal.metrics.MetricsRegistry;
+import io.github.etases.edublock.rs.internal.profiler.RequestProfile;
+import io.github.etases.edublock.rs.internal.profiler.RequestProfiler;
+import io.github.etases.edublock.rs.internal.property.ProfilerProperties;
+import io.javalin.Javalin;
+import io.javalin.config.JavalinConfig;
+import io.javalin.http.Context;
+import jakarta.servlet.DispatcherType;
+import jakarta.servlet.Filter;
+import org.eclipse.jetty.servlet.FilterHolder;
+import org.tinylog.Logger;
+
+import java.util.EnumSet;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+public class ProfilerHandler extends SimpleServerHandler {
+    private static final String PROFILE_ATTRIBUTE = "request-profile";
+    private static final int MAX_REPEATED_STATEMENTS = 3;
+    private static final int MAX_STATEMENT_LENGTH = 200;
+
+    private final ProfilerProperties properties;
+    private final MetricsRegistry metricsRegistry;
+
+    @Inject
+    public ProfilerHandler(ServerBuilder serverBuilder, MainConfig mainConfig, MetricsRegistry metricsRegistry) {
+        super(serverBuilder);
+        this.properties = mainConfig.getProfilerProperties();
+        this.metricsRegistry = metricsRegistry;
+    }
+
+    private static String shorten(String sql) {
+        String line = sql.replaceAll("\\s+", " ").trim();
+        return line.length() <= MAX_STATEMENT_LENGTH ? line : line.substring(0, MAX_STATEMENT_LENGTH) + "...";
+    }
+
+    @Override
+    protected void setupConfig(JavalinConfig config) {
+        if (!properties.enabled()) {
+            return;
+        }
+        // The after handlers of the asynchronous requests run on another thread,
+        // so the profile is detached from the request thread when the dispatch returns on it
+        Filter detachFilter = (request, response, chain) -> {
+            try {
+                chain.doFilter(request, response);
+            } finally {
+                RequestProfiler.stop();
+            }
+        };
+        config.jetty.contextHandlerConfig(handler -> handler.addFilter(new FilterHolder(detachFilter), "/*", EnumSet.of(DispatcherType.REQUEST)));
+    }
+
+    @Override
+    protected void setupServer(Javalin server) {
+        if (!properties.enabled()) {
+            return;
+        }
+        server.before(ctx -> ctx.attribute(PROFILE_ATTRIBUTE, RequestProfiler.start()));
+        server.after(this::finish);
+    }
+
+    private void finish(Context ctx) {
+        RequestProfile profile = ctx.attribute(PROFILE_ATTRIBUTE);
+        if (profile == null) {
+            return;
+        }
+
+        String route = ctx.endpointHandlerPath();
+        if (route.isEmpty()) {
+            route = "unmatched";
+        }
+        String method = ctx.method().name();
+        metricsRegistry.counter("http_request_statements_total", "The number of the SQL statements executed by the requests", "method", method, "route", route).add(profile.getStatementCount());
+
+        var repeatedStatements = profile.getRepeatedStatements(properties.repeatThreshold(), MAX_REPEATED_STATEMENTS);
+        if (!repeatedStatements.isEmpty()) {
+            metricsRegistry.counter("http_request_repeated_statements_total", "The number of the requests with repeated SQL statements", "method", method, "route", route).increment();
+        }
+
+        long elapsedMillis = TimeUnit.NANOSECONDS.toMillis(profile.getElapsedNanos());
+        boolean slow = elapsedMillis >= properties.slowRequestMillis();
+        if ((!slow && repeatedStatements.isEmpty()) || ThreadLocalRandom.current().nextDouble() >= properties.sampleRate()) {
+            return;
+        }
+        StringBuilder builder = new StringBuilder()
+                .append(slow ? "Slow request " : "Repeated statements in request ")
+                .append(method).append(' ').append(route)
+                .append(": ").append(elapsedMillis).append(" ms, ")
+                .append(profile.getStatementCount()).append(" statements (")
+                .append(profile.getDistinctStatementCount()).append(" distinct), ")
+                .append(TimeUnit.NANOSECONDS.toMillis(profile.getDatabaseNanos())).append(" ms in database");
+        for (var entry : repeatedStatements) {
+            builder.append("\n  ").append(entry.getValue()).append("x ").append(shorten(entry.getKey()));
+        }
+        Logger.warn(builder.toString());
+    }
+}
@@ -1,47 +1,70 @@
 package io.github.etases.edublock.rs.handler;
 
+import com.fasterxml.jackson.core.JsonFactory;
+import com.fasterxml.jackson.core.JsonGenerator;
 import io.github.etases.edublock.rs.RequestServer;
 import io.github.etases.edublock.rs.ServerBuilder;
 import io.github.etases.edublock.rs.api.SimpleServerHandler;
 import io.github.etases.edublock.rs.entity.Record;
 import io.github.etases.edublock.rs.entity.*;
+import io.github.etases.edublock.rs.internal.classification.ClassificationManager;
+import io.github.etases.edublock.rs.internal.etag.EntityTag;
+import io.github.etases.edublock.rs.internal.job.JobContext;
+import io.github.etases.edublock.rs.internal.job.JobManager;
+import io.github.etases.edublock.rs.internal.json.ResponseCompression;
 import io.github.etases.edublock.rs.internal.pagination.PaginationUtil;
+import io.github.etases.edublock.rs.internal.student.RecordHistoryMerger;
 import io.github.etases.edublock.rs.internal.subject.Subject;
 import io.github.etases.edublock.rs.internal.subject.SubjectManager;
 import io.github.etases.edublock.rs.model.input.PaginationParameter;
 import io.github.etases.edublock.rs.model.input.PendingRecordEntryInput;
 import io.github.etases.edublock.rs.model.input.PendingRecordEntryListInput;
 import io.github.etases.edublock.rs.model.input.PendingRecordEntryVerify;
+import io.github.etases.edublock.rs.model.input.PendingRecordEntryVerifyListInput;
 import io.github.etases.edublock.rs.model.output.*;
+import io.github.etases.edublock.rs.model.output.element.ClassificationReportOutput;
 import io.github.etases.edublock.rs.model.output.element.PendingRecordEntryOutput;
-import io.github.etases.edublock.rs.model.output.element.RecordHistoryOutput;
 import io.github.etases.edublock.rs.model.output.element.RecordOutput;
 import io.github.etases.edublock.rs.model.output.element.RecordWithStudentOutput;
 import io.javalin.Javalin;
+import io.javalin.http.ContentType;
 import io.javalin.http.Context;
+import io.javalin.json.JsonMapper;
 import io.javalin.openapi.*;
+import org.hibernate.LockMode;
+import org.hibernate.ScrollMode;
 import org.hibernate.Session;
 import org.hibernate.SessionFactory;
 import org.hibernate.Transaction;
 import org.hibernate.query.Query;
+import org.tinylog.Logger;
 
 import javax.inject.Inject;
+import java.io.IOException;
 import java.util.*;
 import java.util.concurrent.CompletableFuture;
 
 public class RecordHandler extends SimpleServerHandler {
+    private static final int CHUNK_SIZE = 200;
+    private static final int STREAM_WINDOW_SIZE = 100;
+    private static final JsonFactory JSON_FACTORY = new JsonFactory();
+    private static final String BULK_REQUEST_JOB = "record-bulk-request";
 
     private final SessionFactory sessionFactory;
     private final RequestServer requestServer;
+    private final JobManager jobManager;
+    private final ResponseCompression responseCompression;
 
     @Inject
-    public RecordHandler(ServerBuilder serverBuilder, SessionFactory sessionFactory, RequestServer requestServer) {
+    public RecordHandler(ServerBuilder serverBuilder, SessionFactory sessionFactory, RequestServer requestServer, JobManager jobManager, ResponseCompression responseCompression) {
         super(serverBuilder);
         this.sessionFactory = sessionFactory;
         this.requestServer = requestServer;
+        this.jobManager = jobManager;
+        this.responseCompression = responseCompression;
     }
 
-    private static Record createEmptyRecord(Student student, Classroom classroom) {
+    public static Record createEmptyRecord(Student student, Classroom classroom) {
         var record = new Record();
         record.setStudent(student);
         record.setClassroom(classroom);
@@ -61,14 +84,50 @@ public class RecordHandler extends SimpleServerHandler {
         });
     }
 
+    @Override
+    public void postSetup() {
+        jobManager.register(BULK_REQUEST_JOB, this::runBulkRequestJob);
+        backfillLatestScores();
+    }
+
+    /**
+     * Rebuild the latest scores of the records that were saved before the latest scores or their entry ids were stored,
+     * and the stored classification of the records classified with older rules
+     */
+    private void backfillLatestScores() {
+        List<Long> ids;
+        try (var session = sessionFactory.openSession()) {
+            ids = session.createNamedQuery("Record.findIdNeedLatestScores", Long.class)
+                    .setParameter("rulesVersion", ClassificationManager.getRulesVersion())
+                    .getResultList();
+        }
+        if (ids.isEmpty()) {
+            return;
+        }
+        for (int start = 0; start < ids.size(); start += CHUNK_SIZE) {
+            var chunk = ids.subList(start, Math.min(ids.size(), start + CHUNK_SIZE));
+            try (var session = sessionFactory.openSession()) {
+                Transaction transaction = session.beginTransaction();
+                for (var record : session.createNamedQuery("Record.findByIds", Record.class).setParameterList("ids", chunk).getResultList()) {
+                    ClassificationManager.rebuild(record);
+                    session.update(record);
+                }
+                transaction.commit();
+            }
+        }
+        Logger.info("Rebuilt the latest scores and the classification of " + ids.size() + " records");
+    }
+
     @Override
     protected void setupServer(Javalin server) {
         server.post("/record/request", this::request, JwtHandler.Role.STUDENT, JwtHandler.Role.TEACHER);
         server.post("/record/request/list", this::bulkRequest, JwtHandler.Role.STUDENT, JwtHandler.Role.TEACHER);
+        server.post("/record/request/list/async", this::bulkRequestAsync, JwtHandler.Role.STUDENT, JwtHandler.Role.TEACHER);
         server.post("/record/entry", this::updateEntry, JwtHandler.Role.TEACHER);
         server.get("/record/pending/list", this::listPending, JwtHandler.Role.TEACHER);
         server.get("/record/pending/list/{studentId}", this::listPendingByStudent, JwtHandler.Role.TEACHER);
         server.post("/record/pending/verify", this::verify, JwtHandler.Role.TEACHER);
+        server.post("/record/pending/verify/list", this::bulkVerify, JwtHandler.Role.TEACHER);
         server.get("/record/{classroomId}", this::getOwn, JwtHandler.Role.STUDENT);
         server.get("/record/{classroomId}/{studentId}", this::get, JwtHandler.Role.TEACHER, JwtHandler.Role.ADMIN, JwtHandler.Role.STAFF);
         server.get("/record/list/classroom/{classroomId}", this::listByClassroom, JwtHandler.Role.TEACHER, JwtHandler.Role.STAFF, JwtHandler.Role.ADMIN);
@@ -78,15 +137,7 @@ public class RecordHandler extends SimpleServerHandler {
     private CompletableFuture<RecordOutput> insertRecordFromUpdater(long studentId, RecordOutput recordOutput) {
         var studentUpdater = requestServer.getHandler(StudentUpdateHandler.class).getStudentUpdater();
         return studentUpdater.getStudentRecordHistory(studentId).thenApply(recordHistories -> {
-            var recordEntryOutputsFromHistory = recordHistories.parallelStream()
-                    .map(RecordHistoryOutput::fromFabricModel)
-                    .flatMap(history -> history.getRecord().parallelStream())
-                    .filter(record -> record.getClassroom().getId() == recordOutput.getClassroom().getId())
-                    .flatMap(record -> record.getEntries().parallelStream())
-                    .toList();
-            var joinedRecordEntryOutputs = new ArrayList<>(recordOutput.getEntries());
-            joinedRecordEntryOutputs.addAll(recordEntryOutputsFromHistory);
-            recordOutput.setEntries(joinedRecordEntryOutputs);
+            recordOutput.setEntries(RecordHistoryMerger.merge(recordOutput.getEntries(), recordHistories, recordOutput.getClassroom().getId()));
             return recordOutput;
         });
     }
@@ -94,15 +145,7 @@ public class RecordHandler extends SimpleServerHandler {
     private CompletableFuture<RecordWithStudentOutput> insertRecordFromUpdater(long studentId, RecordWithStudentOutput recordOutput) {
         var studentUpdater = requestServer.getHandler(StudentUpdateHandler.class).getStudentUpdater();
         return studentUpdater.getStudentRecordHistory(studentId).thenApply(recordHistories -> {
-            var recordEntryOutputsFromHistory = recordHistories.parallelStream()
-                    .map(RecordHistoryOutput::fromFabricModel)
-                    .flatMap(history -> history.getRecord().parallelStream())
-                    .filter(record -> record.getClassroom().getId() == recordOutput.getClassroom().getId())
-                    .flatMap(record -> record.getEntries().parallelStream())
-                    .toList();
-            var joinedRecordEntryOutputs = new ArrayList<>(recordOutput.getEntries());
-            joinedRecordEntryOutputs.addAll(recordEntryOutputsFromHistory);
-            recordOutput.setEntries(joinedRecordEntryOutputs);
+            recordOutput.setEntries(RecordHistoryMerger.merge(recordOutput.getEntries(), recordHistories, recordOutput.getClassroom().getId()));
             return recordOutput;
         });
     }
@@ -122,6 +165,79 @@ public class RecordHandler extends SimpleServerHandler {
         }
     }
 
+    /**
+     * Lock the row of the record and reload it, before its latest scores and classification are updated.
+     * The concurrent approvals of the same record then merge their entries one after another,
+     * without conflicting on the version of the record, which the derived state does not change.
+     * The saved entries are flushed first, so the reloaded record includes them.
+     *
+     * @param session the session
+     * @param record  the record
+     */
+    private static void lockForProjection(Session session, Record record) {
+        session.flush();
+        session.refresh(record, LockMode.PESSIMISTIC_WRITE);
+    }
+
+    private static EntityTag addRecordTag(EntityTag tag, Record record, boolean fillAllSubjects) {
+        var classroom = record.getClassroom();
+        var student = record.getStudent();
+        tag.add(ClassificationManager.getRulesVersion())
+                .add(record.getId()).add(record.getVersion())
+                .add(classroom.getId()).add(classroom.getVersion())
+                .add(student.getId()).add(student.getVersion())
+                .addAccount(classroom.getHomeroomTeacher())
+                .addAccount(student.getId());
+        if (record.getRecordEntry() != null) {
+            for (var entry : record.getRecordEntry()) {
+                tag.add(entry.getId()).add(entry.isUpdateComplete())
+                        .addAccount(entry.getTeacher())
+                        .addAccount(entry.getRequester())
+                        .addAccount(entry.getApprover());
+            }
+        }
+        if (fillAllSubjects) {
+            for (var classTeacher : classroom.getTeachers()) {
+                tag.add(classTeacher.getSubjectId()).addAccount(classTeacher.getTeacher());
+            }
+        }
+        return tag;
+    }
+
+    /**
+     * Add the records of the classrooms to the tag with a fixed number of queries, so the records do not need to be loaded.
+     * Each query only selects the ids and the versions of the rows in a fixed order, so any added, removed, updated or swapped row changes the tag.
+     *
+     * @param tag             the tag
+     * @param session         the session
+     * @param classroomIds    the ids of the classrooms of the records
+     * @param fillAllSubjects whether the missing subjects are filled, which adds the class teachers
+     */
+    private static void addListTag(EntityTag tag, Session session, List<Long> classroomIds, boolean fillAllSubjects) {
+        tag.add(ClassificationManager.getRulesVersion());
+        if (classroomIds.isEmpty()) {
+            tag.add("empty");
+            return;
+        }
+        List<String> queryNames = new ArrayList<>(List.of(
+                "Classroom.findTagRowsByIds",
+                "Record.findTagRowsByClassrooms",
+                "RecordEntry.findTagRowsByClassrooms",
+                "Account.findTagRowsByClassrooms",
+                "Profile.findTagRowsByClassrooms"
+        ));
+        if (fillAllSubjects) {
+            queryNames.add("ClassTeacher.findTagRowsByClassrooms");
+        }
+        for (String queryName : queryNames) {
+            tag.add(queryName);
+            session.createNamedQuery(queryName, Object[].class)
+                    .setParameterList("classroomIds", classroomIds)
+                    .getResultList()
+                    .forEach(row -> tag.add(Arrays.toString(row)));
+        }
+    }
+
     private void get(Context ctx, boolean isOwnRecordOnly) {
         long studentId = isOwnRecordOnly ? JwtHandler.getUserId(ctx) : Long.parseLong(ctx.pathParam("studentId"));
         long classroomId = Long.parseLong(ctx.pathParam("classroomId"));
@@ -141,7 +257,17 @@ public class RecordHandler extends SimpleServerHandler {
                 ctx.json(new RecordResponse(1, "Record not found", null));
                 return;
             }
+            if (!useUpdater && EntityTag.isNotModified(ctx, addRecordTag(EntityTag.of(ctx), record, fillAllSubjects).build(session))) {
+                return;
+            }
             recordOutput = RecordOutput.fromEntity(record, id -> Profile.getOrDefault(session, id), filterUpdated, fillAllSubjects);
+            if (generateClassification && !useUpdater) {
+                if (canUseStoredClassification(filterUpdated, fillAllSubjects)) {
+                    recordOutput.setClassification(ClassificationReportOutput.fromInternal(ClassificationManager.getReport(record)));
+                } else {
+                    recordOutput.updateClassification();
+                }
+            }
         }
 
         if (useUpdater) {
@@ -152,9 +278,6 @@ public class RecordHandler extends SimpleServerHandler {
                 ctx.json(new RecordResponse(0, "Get personal record", newRecordOutput));
             }));
         } else {
-            if (generateClassification) {
-                recordOutput.updateClassification();
-            }
             ctx.json(new RecordResponse(0, "Get personal record", recordOutput));
         }
     }
@@ -224,32 +347,24 @@ public class RecordHandler extends SimpleServerHandler {
         get(ctx, true);
     }
 
-    private Optional<PendingRecordEntryErrorListResponse.ErrorData> tryRequest(Session session, Account requester, PendingRecordEntryInput input) {
+    private Optional<PendingRecordEntryErrorListResponse.ErrorData> tryRequest(Session session, RequestContext context, Account requester, PendingRecordEntryInput input) {
         Subject subject = SubjectManager.getSubject(input.getSubjectId());
         if (subject == null) {
             return Optional.of(new PendingRecordEntryErrorListResponse.ErrorData(1, "Subject not found", input));
         }
 
-        var classStudentQuery = session.createNamedQuery("ClassStudent.findByClassroomAndStudent", ClassStudent.class)
-                .setParameter("classroomId", input.getClassroomId())
-                .setParameter("studentId", input.getStudentId());
-        var classStudent = classStudentQuery.uniqueResult();
+        var classStudent = context.getClassStudent(input.getClassroomId(), input.getStudentId());
         if (classStudent == null) {
             return Optional.of(new PendingRecordEntryErrorListResponse.ErrorData(2, "ClassStudent not found", input));
         }
-        var student = classStudent.getStudent();
-        var classroom = classStudent.getClassroom();
 
-        var classTeacherQuery = session.createNamedQuery("ClassTeacher.findByClassroomAndSubject", ClassTeacher.class)
-                .setParameter("classroomId", input.getClassroomId())
-                .setParameter("subjectId", input.getSubjectId());
-        var classTeacher = classTeacherQuery.uniqueResult();
+        var classTeacher = context.getClassTeacher(input.getClassroomId(), input.getSubjectId());
         if (classTeacher == null) {
             return Optional.of(new PendingRecordEntryErrorListResponse.ErrorData(3, "ClassTeacher not found", input));
         }
         var teacher = classTeacher.getTeacher();
 
-        var record = getOrCreateRecord(session, student, classroom);
+        var record = context.getOrCreateRecord(session, classStudent);
 
         var pending = new PendingRecordEntry();
         pending.setSubjectId(subject.getId());
@@ -290,7 +405,7 @@ public class RecordHandler extends SimpleServerHandler {
 
             Transaction transaction = session.beginTransaction();
 
-            var optionalErrorData = tryRequest(session, requester, input);
+            var optionalErrorData = tryRequest(session, RequestContext.load(session, List.of(input)), requester, input);
             if (optionalErrorData.isPresent()) {
                 var errorData = optionalErrorData.get();
                 ctx.status(404);
@@ -378,6 +493,9 @@ public class RecordHandler extends SimpleServerHandler {
             recordEntry.setApprover(teacher);
             recordEntry.setUpdateComplete(false);
             session.save(recordEntry);
+            lockForProjection(session, record);
+            ClassificationManager.applyEntry(record, recordEntry);
+            session.update(record);
 
             transaction.commit();
             ctx.json(new Response(0, "Record entry updated"));
@@ -416,8 +534,9 @@ public class RecordHandler extends SimpleServerHandler {
 
             Transaction transaction = session.beginTransaction();
             List<PendingRecordEntryErrorListResponse.ErrorData> errors = new ArrayList<>();
+            var context = RequestContext.load(session, input.getRequests());
             for (PendingRecordEntryInput pendingRecordEntryInput : input.getRequests()) {
-                tryRequest(session, requester, pendingRecordEntryInput).ifPresent(errors::add);
+                tryRequest(session, context, requester, pendingRecordEntryInput).ifPresent(errors::add);
             }
 
             if (errors.isEmpty()) {
@@ -431,50 +550,222 @@ public class RecordHandler extends SimpleServerHandler {
         }
     }
 
-    private void list(Context ctx, boolean filterByClassroom) {
+    @OpenApi(
+            path = "/record/request/list/async",
+            methods = HttpMethod.POST,
+            summary = "Bulk request record update in a background job. Roles: STUDENT, TEACHER",
+            description = "Bulk request record update in a background job. Roles: STUDENT, TEACHER."
+                    + " The requests are saved in chunks of " + CHUNK_SIZE + ", the invalid requests are recorded as errors of the job",
+            tags = "Record",
+            security = @OpenApiSecurity(name = SwaggerHandler.AUTH_KEY),
+            requestBody = @OpenApiRequestBody(
+                    content = @OpenApiContent(from = PendingRecordEntryListInput.class)
+            ),
+            responses = {
+                    @OpenApiResponse(
+                            status = "202",
+                            description = "The id of the job",
+                            content = @OpenApiContent(from = StringResponse.class)
+                    ),
+                    @OpenApiResponse(
+                            status = "503",
+                            description = "The job queue is full",
+                            content = @OpenApiContent(from = StringResponse.class)
+                    ),
+            }
+    )
+    private void bulkRequestAsync(Context ctx) {
+        PendingRecordEntryListInput input = ctx.bodyValidator(PendingRecordEntryListInput.class).check(PendingRecordEntryListInput::validate, "Invalid data").get();
+        long userId = JwtHandler.getUserId(ctx);
+        JobHandler.submit(ctx, jobManager, BULK_REQUEST_JOB, userId, input, input.getRequests().size());
+    }
+
+    private void runBulkRequestJob(JobContext context) {
+        var requests = context.getPayload(PendingRecordEntryListInput.class).getRequests();
+        for (int start = (int) context.getCheckpoint(); start < requests.size(); start += CHUNK_SIZE) {
+            int end = Math.min(requests.size(), start + CHUNK_SIZE);
+            try (var session = sessionFactory.openSession()) {
+                var requester = session.get(Account.class, context.getRequesterId());
+                Transaction transaction = session.beginTransaction();
+                List<String> errors = new ArrayList<>();
+                var requestContext = RequestContext.load(session, requests.subList(start, end));
+                for (int i = start; i < end; i++) {
+                    int index = i;
+                    tryRequest(session, requestContext, requester, requests.get(i)).ifPresent(error -> errors.add("#" + index + ": " + error.getMessage()));
+                }
+                context.checkpoint(session, end, errors);
+                transaction.commit();
+            }
+        }
+    }
+
+    /**
+     * Create the query of the records to list.
+     * The records are ordered by the student, newest first, and only the first record of each student is listed.
+     */
+    private static Query<Record> createListQuery(Session session, Context ctx, boolean filterByClassroom) {
+        if (filterByClassroom) {
+            long classroomId = Long.parseLong(ctx.pathParam("classroomId"));
+            return session.createNamedQuery("Record.findByClassroom", Record.class)
+                    .setParameter("classroomId", classroomId);
+        } else {
+            int grade = Integer.parseInt(ctx.pathParam("grade"));
+            int year = Integer.parseInt(ctx.pathParam("year"));
+            return session.createNamedQuery("Record.findByGradeAndYear", Record.class)
+                    .setParameter("grade", grade)
+                    .setParameter("year", year);
+        }
+    }
+
+    private static List<Long> findListClassroomIds(Session session, Context ctx, boolean filterByClassroom) {
+        if (filterByClassroom) {
+            return List.of(Long.parseLong(ctx.pathParam("classroomId")));
+        } else {
+            return session.createNamedQuery("Classroom.findIdByGradeAndYear", Long.class)
+                    .setParameter("grade", Integer.parseInt(ctx.pathParam("grade")))
+                    .setParameter("year", Integer.parseInt(ctx.pathParam("year")))
+                    .getResultList();
+        }
+    }
+
+    private void list(Context ctx, boolean filterByClassroom) throws IOException {
         boolean useUpdater = "true".equalsIgnoreCase(ctx.queryParam("updater"));
         boolean filterUpdated = "true".equalsIgnoreCase(ctx.queryParam("filterUpdated"));
         boolean generateClassification = "true".equalsIgnoreCase(ctx.queryParam("generateClassification"));
         boolean fillAllSubjects = "true".equalsIgnoreCase(ctx.queryParam("fillAllSubjects"));
+        boolean stream = "true".equalsIgnoreCase(ctx.queryParam("stream"));
+
+        if (stream && !useUpdater) {
+            streamList(ctx, filterByClassroom, filterUpdated, generateClassification, fillAllSubjects);
+            return;
+        }
 
-        Map<Long, RecordWithStudentOutput> recordOutputs = new HashMap<>();
+        Map<Long, RecordWithStudentOutput> recordOutputs = new LinkedHashMap<>();
         try (var session = sessionFactory.openSession()) {
-            Query<Record> query;
-            if (filterByClassroom) {
-                long classroomId = Long.parseLong(ctx.pathParam("classroomId"));
-                query = session.createNamedQuery("Record.findByClassroom", Record.class)
-                        .setParameter("classroomId", classroomId);
-            } else {
-                int grade = Integer.parseInt(ctx.pathParam("grade"));
-                int year = Integer.parseInt(ctx.pathParam("year"));
-                query = session.createNamedQuery("Record.findByGradeAndYear", Record.class)
-                        .setParameter("grade", grade)
-                        .setParameter("year", year);
+            if (!useUpdater) {
+                var tag = EntityTag.of(ctx);
+                addListTag(tag, session, findListClassroomIds(session, ctx, filterByClassroom), fillAllSubjects);
+                if (EntityTag.isNotModified(ctx, tag.build(session))) {
+                    return;
+                }
             }
-            for (var record : query.list()) {
-                recordOutputs.put(record.getStudent().getId(), RecordWithStudentOutput.fromEntity(record, id -> Profile.getOrDefault(session, id), filterUpdated, fillAllSubjects));
+            var records = createListQuery(session, ctx, filterByClassroom).list();
+            boolean useStoredClassification = canUseStoredClassification(filterUpdated, fillAllSubjects);
+            for (var record : records) {
+                if (recordOutputs.containsKey(record.getStudent().getId())) {
+                    continue;
+                }
+                var recordOutput = RecordWithStudentOutput.fromEntity(record, id -> Profile.getOrDefault(session, id), filterUpdated, fillAllSubjects);
+                if (generateClassification && !useUpdater && useStoredClassification) {
+                    recordOutput.setClassification(ClassificationReportOutput.fromInternal(ClassificationManager.getReport(record)));
+                }
+                recordOutputs.put(record.getStudent().getId(), recordOutput);
+            }
+            if (generateClassification && !useUpdater && !useStoredClassification) {
+                updateClassification(new ArrayList<>(recordOutputs.values()));
             }
         }
 
         if (useUpdater) {
-            List<CompletableFuture<Void>> futures = new ArrayList<>();
-            recordOutputs.forEach((studentId, recordOutput) -> futures.add(insertRecordFromUpdater(studentId, recordOutput).thenAccept(newRecordOutput -> {
-                if (generateClassification) {
-                    newRecordOutput.updateClassification();
-                }
-            })));
+            List<CompletableFuture<RecordWithStudentOutput>> futures = new ArrayList<>();
+            recordOutputs.forEach((studentId, recordOutput) -> futures.add(insertRecordFromUpdater(studentId, recordOutput)));
             ctx.future(() -> CompletableFuture.allOf(futures.toArray(new CompletableFuture[0]))
-                    .thenApply(v -> new ArrayList<>(recordOutputs.values()))
+                    .thenApply(v -> {
+                        List<RecordWithStudentOutput> newRecordOutputs = new ArrayList<>(recordOutputs.values());
+                        if (generateClassification) {
+                            updateClassification(newRecordOutputs);
+                        }
+                        return newRecordOutputs;
+                    })
                     .thenAccept(newRecordOutputs -> ctx.json(new RecordWithStudentListResponse(0, "OK", newRecordOutputs)))
             );
         } else {
-            if (generateClassification) {
-                recordOutputs.values().forEach(RecordWithStudentOutput::updateClassification);
-            }
             ctx.json(new RecordWithStudentListResponse(0, "OK", new ArrayList<>(recordOutputs.values())));
         }
     }
 
+    /**
+     * Write the records one by one to the response, so that only a window of the records is kept in memory.
+     * The response has the same shape as {@link RecordWithStudentListResponse}.
+     */
+    private void streamList(Context ctx, boolean filterByClassroom, boolean filterUpdated, boolean generateClassification, boolean fillAllSubjects) throws IOException {
+        var jsonMapper = ctx.jsonMapper();
+        try (var session = sessionFactory.openSession()) {
+            var query = createListQuery(session, ctx, filterByClassroom)
+                    .setReadOnly(true)
+                    .setFetchSize(STREAM_WINDOW_SIZE);
+            ctx.contentType(ContentType.APPLICATION_JSON);
+            try (
+                    var results = query.scroll(ScrollMode.FORWARD_ONLY);
+                    var generator = JSON_FACTORY.createGenerator(responseCompression.openOutputStream(ctx))
+            ) {
+                generator.writeStartObject();
+                generator.writeNumberField("status", 0);
+                generator.writeStringField("message", "OK");
+                generator.writeArrayFieldStart("data");
+                boolean useStoredClassification = canUseStoredClassification(filterUpdated, fillAllSubjects);
+                Set<Long> writtenStudents = new HashSet<>();
+                List<RecordWithStudentOutput> window = new ArrayList<>(STREAM_WINDOW_SIZE);
+                int count = 0;
+                while (results.next()) {
+                    var record = (Record) results.get(0);
+                    if (writtenStudents.add(record.getStudent().getId())) {
+                        var recordOutput = RecordWithStudentOutput.fromEntity(record, id -> Profile.getOrDefault(session, id), filterUpdated, fillAllSubjects);
+                        if (generateClassification && useStoredClassification) {
+                            recordOutput.setClassification(ClassificationReportOutput.fromInternal(ClassificationManager.getReport(record)));
+                        }
+                        window.add(recordOutput);
+                    }
+                    if (++count % STREAM_WINDOW_SIZE == 0) {
+                        writeWindow(generator, jsonMapper, window, generateClassification && !useStoredClassification);
+                        generator.flush();
+                        session.clear();
+                    }
+                }
+                writeWindow(generator, jsonMapper, window, generateClassification && !useStoredClassification);
+                generator.writeEndArray();
+                generator.writeEndObject();
+            }
+        }
+    }
+
+    /**
+     * Write a window of the streamed records, then clear it
+     *
+     * @param generator              the generator of the response
+     * @param jsonMapper             the JSON mapper
+     * @param window                 the outputs of the records
+     * @param generateClassification whether the classification is computed from the entries of the outputs in one batch
+     */
+    private static void writeWindow(JsonGenerator generator, JsonMapper jsonMapper, List<RecordWithStudentOutput> window, boolean generateClassification) throws IOException {
+        if (generateClassification && !window.isEmpty()) {
+            updateClassification(window);
+        }
+        for (var recordOutput : window) {
+            generator.writeRawValue(jsonMapper.toJsonString(recordOutput, RecordWithStudentOutput.class));
+        }
+        window.clear();
+    }
+
+    /**
+     * Check if the classification stored in the record matches the output.
+     * The stored classification covers all the approved entries, while the output may drop the updated entries or add the placeholder subjects.
+     *
+     * @param filterUpdated   whether the updated entries are filtered
+     * @param fillAllSubjects whether the missing subjects are filled
+     * @return true if the stored classification can be used
+     */
+    private static boolean canUseStoredClassification(boolean filterUpdated, boolean fillAllSubjects) {
+        return !filterUpdated && !fillAllSubjects;
+    }
+
+    private static void updateClassification(List<RecordWithStudentOutput> recordOutputs) {
+        var reports = ClassificationManager.createReports(recordOutputs.stream().map(RecordWithStudentOutput::getEntries).toList());
+        for (int i = 0; i < recordOutputs.size(); i++) {
+            recordOutputs.get(i).setClassification(reports.get(i));
+        }
+    }
+
 
     @OpenApi(
             path = "/record/list/classroom/{classroomId}",
@@ -489,7 +780,8 @@ public class RecordHandler extends SimpleServerHandler {
                     @OpenApiParam(name = "updater", description = "Add entries from updater"),
                     @OpenApiParam(name = "filterUpdated", description = "Filter local updated entries"),
                     @OpenApiParam(name = "generateClassification", description = "Generate classification"),
-                    @OpenApiParam(name = "fillAllSubjects", description = "Fill all subjects")
+                    @OpenApiParam(name = "fillAllSubjects", description = "Fill all subjects"),
+                    @OpenApiParam(name = "stream", description = "Stream the records to the response one by one, ignored if updater is used")
             },
             security = @OpenApiSecurity(name = SwaggerHandler.AUTH_KEY),
             responses = @OpenApiResponse(
@@ -498,7 +790,7 @@ public class RecordHandler extends SimpleServerHandler {
                     description = "The list of records"
             )
     )
-    private void listByClassroom(Context ctx) {
+    private void listByClassroom(Context ctx) throws IOException {
         list(ctx, true);
     }
 
@@ -516,7 +808,8 @@ public class RecordHandler extends SimpleServerHandler {
                     @OpenApiParam(name = "updater", description = "Add entries from updater"),
                     @OpenApiParam(name = "filterUpdated", description = "Filter local updated entries"),
                     @OpenApiParam(name = "generateClassification", description = "Generate classification"),
-                    @OpenApiParam(name = "fillAllSubjects", description = "Fill all subjects")
+                    @OpenApiParam(name = "fillAllSubjects", description = "Fill all subjects"),
+                    @OpenApiParam(name = "stream", description = "Stream the records to the response one by one, ignored if updater is used")
             },
             security = @OpenApiSecurity(name = SwaggerHandler.AUTH_KEY),
             responses = @OpenApiResponse(
@@ -525,7 +818,7 @@ public class RecordHandler extends SimpleServerHandler {
                     description = "The list of records"
             )
     )
-    private void listByGradeAndYear(Context ctx) {
+    private void listByGradeAndYear(Context ctx) throws IOException {
         list(ctx, false);
     }
 
@@ -647,23 +940,181 @@ public class RecordHandler extends SimpleServerHandler {
             }
 
             if (input.isAccepted()) {
-                var recordEntry = new RecordEntry();
-                recordEntry.setSubjectId(pendingRecordEntry.getSubjectId());
-                recordEntry.setFirstHalfScore(pendingRecordEntry.getFirstHalfScore());
-                recordEntry.setSecondHalfScore(pendingRecordEntry.getSecondHalfScore());
-                recordEntry.setFinalScore(pendingRecordEntry.getFinalScore());
-                recordEntry.setTeacher(pendingRecordEntry.getTeacher());
-                recordEntry.setRequester(pendingRecordEntry.getRequester());
-                recordEntry.setRecord(pendingRecordEntry.getRecord());
-                recordEntry.setRequestDate(pendingRecordEntry.getRequestDate());
-                recordEntry.setApprovalDate(new Date());
-                recordEntry.setApprover(account);
-                recordEntry.setUpdateComplete(false);
+                var recordEntry = createApprovedEntry(pendingRecordEntry, account, new Date());
                 session.save(recordEntry);
+                lockForProjection(session, pendingRecordEntry.getRecord());
+                ClassificationManager.applyEntry(pendingRecordEntry.getRecord(), recordEntry);
+                session.update(pendingRecordEntry.getRecord());
             }
             session.delete(pendingRecordEntry);
             transaction.commit();
             ctx.json(new Response(0, "Record verified"));
         }
     }
+
+    @OpenApi(
+            path = "/record/pending/verify/list",
+            methods = HttpMethod.POST,
+            summary = "Verify a list of record entries. Roles: TEACHER",
+            description = "Verify a list of record entries. Roles: TEACHER."
+                    + " The entries that cannot be verified are skipped, the result of each entry is returned",
+            tags = "Record",
+            security = @OpenApiSecurity(name = SwaggerHandler.AUTH_KEY),
+            requestBody = @OpenApiRequestBody(content = @OpenApiContent(from = PendingRecordEntryVerifyListInput.class)),
+            responses = @OpenApiResponse(
+                    status = "200",
+                    content = @OpenApiContent(from = PendingRecordEntryVerifyListResponse.class),
+                    description = "The result of each entry"
+            )
+    )
+    private void bulkVerify(Context ctx) {
+        PendingRecordEntryVerifyListInput input = ctx.bodyValidator(PendingRecordEntryVerifyListInput.class)
+                .check(PendingRecordEntryVerifyListInput::validate, "Invalid Record Entry id")
+                .get();
+
+        long userId = JwtHandler.getUserId(ctx);
+
+        List<PendingRecordEntryVerifyListResponse.ResultData> results = new ArrayList<>();
+        try (var session = sessionFactory.openSession()) {
+            Transaction transaction = session.beginTransaction();
+            var account = session.get(Account.class, userId);
+
+            Map<Long, PendingRecordEntry> pendingRecordEntryMap = new HashMap<>();
+            if (!input.getRequests().isEmpty()) {
+                var ids = input.getRequests().stream().map(PendingRecordEntryVerify::getId).distinct().toList();
+                session.createNamedQuery("PendingRecordEntry.findByIdsWithClassroom", PendingRecordEntry.class)
+                        .setParameterList("ids", ids)
+                        .stream()
+                        .forEach(pendingRecordEntry -> pendingRecordEntryMap.put(pendingRecordEntry.getId(), pendingRecordEntry));
+            }
+
+            Date approvalDate = new Date();
+            Set<Long> processedIds = new LinkedHashSet<>();
+            // Sorted, so the records are always locked in the same order
+            Map<Long, Record> updatedRecords = new TreeMap<>();
+            Map<Long, List<RecordEntry>> newEntries = new HashMap<>();
+            for (var request : input.getRequests()) {
+                long id = request.getId();
+                if (processedIds.contains(id)) {
+                    results.add(new PendingRecordEntryVerifyListResponse.ResultData(id, 3, "Duplicated record entry"));
+                    continue;
+                }
+                var pendingRecordEntry = pendingRecordEntryMap.get(id);
+                if (pendingRecordEntry == null) {
+                    results.add(new PendingRecordEntryVerifyListResponse.ResultData(id, 1, "Record not found"));
+                    continue;
+                }
+                var homeRoomTeacher = pendingRecordEntry.getRecord().getClassroom().getHomeroomTeacher();
+                if (homeRoomTeacher == null || homeRoomTeacher.getId() != userId) {
+                    results.add(new PendingRecordEntryVerifyListResponse.ResultData(id, 2, "Not homeroom teacher"));
+                    continue;
+                }
+
+                if (request.isAccepted()) {
+                    var recordEntry = createApprovedEntry(pendingRecordEntry, account, approvalDate);
+                    session.save(recordEntry);
+                    var record = pendingRecordEntry.getRecord();
+                    updatedRecords.put(record.getId(), record);
+                    newEntries.computeIfAbsent(record.getId(), recordId -> new ArrayList<>()).add(recordEntry);
+                }
+                processedIds.add(id);
+                results.add(new PendingRecordEntryVerifyListResponse.ResultData(id, 0, request.isAccepted() ? "Record accepted" : "Record rejected"));
+            }
+
+            updatedRecords.forEach((recordId, record) -> {
+                lockForProjection(session, record);
+                ClassificationManager.applyEntries(record, newEntries.get(recordId));
+                session.update(record);
+            });
+            if (!processedIds.isEmpty()) {
+                session.flush();
+                session.createNamedQuery("PendingRecordEntry.deleteByIds")
+                        .setParameterList("ids", processedIds)
+                        .executeUpdate();
+            }
+            transaction.commit();
+        }
+        ctx.json(new PendingRecordEntryVerifyListResponse(0, "Records verified", results));
+    }
+
+    private static RecordEntry createApprovedEntry(PendingRecordEntry pendingRecordEntry, Account approver, Date approvalDate) {
+        var recordEntry = new RecordEntry();
+        recordEntry.setSubjectId(pendingRecordEntry.getSubjectId());
+        recordEntry.setFirstHalfScore(pendingRecordEntry.getFirstHalfScore());
+        recordEntry.setSecondHalfScore(pendingRecordEntry.getSecondHalfScore());
+        recordEntry.setFinalScore(pendingRecordEntry.getFinalScore());
+        recordEntry.setTeacher(pendingRecordEntry.getTeacher());
+        recordEntry.setRequester(pendingRecordEntry.getRequester());
+        recordEntry.setRecord(pendingRecordEntry.getRecord());
+        recordEntry.setRequestDate(pendingRecordEntry.getRequestDate());
+        recordEntry.setApprovalDate(approvalDate);
+        recordEntry.setApprover(approver);
+        recordEntry.setUpdateComplete(false);
+        return recordEntry;
+    }
+
+    /**
+     * The preloaded lookups to validate a list of record requests.
+     * The class students, class teachers and records of the requests are loaded with one query each.
+     */
+    private static final class RequestContext {
+        private final Map<Long, Map<Long, ClassStudent>> classStudentMap = new HashMap<>();
+        private final Map<Long, Map<Long, ClassTeacher>> classTeacherMap = new HashMap<>();
+        private final Map<Long, Map<Long, Record>> recordMap = new HashMap<>();
+
+        static RequestContext load(Session session, List<PendingRecordEntryInput> inputs) {
+            var context = new RequestContext();
+            if (inputs.isEmpty()) {
+                return context;
+            }
+            Set<Long> classroomIds = new HashSet<>();
+            Set<Long> studentIds = new HashSet<>();
+            Set<Long> subjectIds = new HashSet<>();
+            for (var input : inputs) {
+                classroomIds.add(input.getClassroomId());
+                studentIds.add(input.getStudentId());
+                subjectIds.add(input.getSubjectId());
+            }
+            session.createNamedQuery("ClassStudent.findByClassroomsAndStudents", ClassStudent.class)
+                    .setParameterList("classroomIds", classroomIds)
+                    .setParameterList("studentIds", studentIds)
+                    .getResultList()
+                    .forEach(classStudent -> context.classStudentMap
+                            .computeIfAbsent(classStudent.getClassroom().getId(), id -> new HashMap<>())
+                            .putIfAbsent(classStudent.getStudent().getId(), classStudent));
+            session.createNamedQuery("ClassTeacher.findByClassroomsAndSubjects", ClassTeacher.class)
+                    .setParameterList("classroomIds", classroomIds)
+                    .setParameterList("subjectIds", subjectIds)
+                    .getResultList()
+                    .forEach(classTeacher -> context.classTeacherMap
+                            .computeIfAbsent(classTeacher.getClassroom().getId(), id -> new HashMap<>())
+                            .putIfAbsent(classTeacher.getSubjectId(), classTeacher));
+            session.createNamedQuery("Record.findByClassroomsAndStudents", Record.class)
+                    .setParameterList("classroomIds", classroomIds)
+                    .setParameterList("studentIds", studentIds)
+                    .getResultList()
+                    .forEach(record -> context.recordMap
+                            .computeIfAbsent(record.getClassroom().getId(), id -> new HashMap<>())
+                            .putIfAbsent(record.getStudent().getId(), record));
+            return context;
+        }
+
+        ClassStudent getClassStudent(long classroomId, long studentId) {
+            return classStudentMap.getOrDefault(classroomId, Collections.emptyMap()).get(studentId);
+        }
+
+        ClassTeacher getClassTeacher(long classroomId, long subjectId) {
+            return classTeacherMap.getOrDefault(classroomId, Collections.emptyMap()).get(subjectId);
+        }
+
+        Record getOrCreateRecord(Session session, ClassStudent classStudent) {
+            return recordMap
+                    .computeIfAbsent(classStudent.getClassroom().getId(), id -> new HashMap<>())
+                    .computeIfAbsent(classStudent.getStudent().getId(), id -> {
+                        var newRecord = createEmptyRecord(classStudent.getStudent(), classStudent.getClassroom());
+                        session.save(newRecord);
+                        return newRecord;
+                    });
+        }
+    }
 }
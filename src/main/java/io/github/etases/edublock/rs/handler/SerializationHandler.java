@@ -0,0 +1,90 @@
+package io.github.etases.edublock.rs.handler;
+
+import com.google.inject.Inject;
+import io.github.etases.edublock.rs.RequestServer;
+import io.github.etases.edublock.rs.ServerBuilder;
+import io.github.etases.edublock.rs.api.SimpleServerHandler;
+import io.github.etases.edublock.rs.internal.json.ResponseCompression;
+import io.github.etases.edublock.rs.internal.json.ResponseJsonMapper;
+import io.github.etases.edublock.rs.internal.metrics.MetricsRegistry;
+import io.javalin.Javalin;
+import io.javalin.config.JavalinConfig;
+import io.javalin.http.Context;
+import io.javalin.openapi.OpenApi;
+import io.javalin.openapi.OpenApiContent;
+import io.javalin.openapi.OpenApiResponse;
+import org.tinylog.Logger;
+
+import java.io.IOException;
+import java.lang.reflect.Method;
+import java.util.HashSet;
+import java.util.Set;
+
+public class SerializationHandler extends SimpleServerHandler {
+    private final RequestServer requestServer;
+    private final ResponseJsonMapper jsonMapper;
+    private final ResponseCompression responseCompression;
+    private final MetricsRegistry metricsRegistry;
+
+    @Inject
+    public SerializationHandler(ServerBuilder serverBuilder, RequestServer requestServer, ResponseJsonMapper jsonMapper, ResponseCompression responseCompression, MetricsRegistry metricsRegistry) {
+        super(serverBuilder);
+        this.requestServer = requestServer;
+        this.jsonMapper = jsonMapper;
+        this.responseCompression = responseCompression;
+        this.metricsRegistry = metricsRegistry;
+    }
+
+    @Override
+    protected void setupConfig(JavalinConfig config) {
+        config.jsonMapper(jsonMapper);
+        // The responses are compressed by ResponseCompression, so the size on the wire can be measured
+        config.compression.none();
+    }
+
+    @Override
+    protected void setupServer(Javalin server) {
+        server.before(ctx -> ResponseJsonMapper.takeSerializationNanos());
+        server.after(this::finish);
+    }
+
+    @Override
+    public void postSetup() {
+        Set<Class<?>> responseTypes = new HashSet<>();
+        requestServer.getServerHandlers().values().forEach(handler -> {
+            for (Method method : handler.getClass().getDeclaredMethods()) {
+                OpenApi openApi = method.getAnnotation(OpenApi.class);
+                if (openApi == null) {
+                    continue;
+                }
+                for (OpenApiResponse response : openApi.responses()) {
+                    for (OpenApiContent content : response.content()) {
+                        if (content.from().getName().startsWith("io.github.etases")) {
+                            responseTypes.add(content.from());
+                        }
+                    }
+                }
+            }
+        });
+        long warmedUp = responseTypes.stream().filter(jsonMapper::warmUp).count();
+        Logger.info("Prepared the JSON writers of " + warmedUp + " response types");
+    }
+
+    private void finish(Context ctx) throws IOException {
+        String route = ctx.endpointHandlerPath();
+        if (route.isEmpty()) {
+            route = "unmatched";
+        }
+        String method = ctx.method().name();
+
+        long serializationNanos = ResponseJsonMapper.takeSerializationNanos();
+        if (serializationNanos > 0) {
+            metricsRegistry.histogram("http_response_serialization_seconds", "The time spent on writing the JSON of the responses", "method", method, "route", route).observeNanos(serializationNanos);
+        }
+
+        var body = responseCompression.encode(ctx);
+        if (body != null) {
+            metricsRegistry.counter("http_response_bytes_total", "The number of the bytes of the response bodies on the wire", "method", method, "route", route, "encoding", body.encoding()).add(body.bytes());
+        }
+    }
+}
@@ -10,7 +10,12 @@ import io.github.etases.edublock.rs.command.updater.RestoreCommand;
 import io.github.etases.edublock.rs.config.MainConfig;
 import io.github.etases.edublock.rs.entity.*;
 import io.github.etases.edublock.rs.internal.account.AccountUtil;
+import io.github.etases.edublock.rs.internal.account.CredentialHasher;
+import io.github.etases.edublock.rs.internal.account.UsernameAllocator;
 import io.github.etases.edublock.rs.internal.classification.ClassificationManager;
+import io.github.etases.edublock.rs.internal.job.JobContext;
+import io.github.etases.edublock.rs.internal.job.JobManager;
+import io.github.etases.edublock.rs.internal.metrics.MetricsRegistry;
 import io.github.etases.edublock.rs.internal.student.FabricStudentUpdater;
 import io.github.etases.edublock.rs.internal.student.LocalStudentUpdater;
 import io.github.etases.edublock.rs.internal.student.StudentUpdaterWithLogger;
@@ -38,11 +43,14 @@ import java.util.concurrent.CompletableFuture;
 import java.util.concurrent.ScheduledExecutorService;
 import java.util.concurrent.ScheduledThreadPoolExecutor;
 import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
 import java.util.concurrent.atomic.AtomicReference;
 import java.util.stream.Collectors;
 
 public class StudentUpdateHandler implements ServerHandler {
+    private static final String RESTORE_JOB = "updater-restore";
     private final AtomicReference<CompletableFuture<Void>> currentFutureRef = new AtomicReference<>();
+    private final AtomicLong backlog = new AtomicLong();
     @Inject
     private CommandManager commandManager;
     @Inject
@@ -53,6 +61,14 @@ public class StudentUpdateHandler implements ServerHandler {
     private ServerBuilder serverBuilder;
     @Inject
     private MainConfig mainConfig;
+    @Inject
+    private CredentialHasher credentialHasher;
+    @Inject
+    private UsernameAllocator usernameAllocator;
+    @Inject
+    private JobManager jobManager;
+    @Inject
+    private MetricsRegistry metricsRegistry;
     @Getter
     private StudentUpdater studentUpdater;
     private ScheduledExecutorService executorService;
@@ -90,19 +106,28 @@ public class StudentUpdateHandler implements ServerHandler {
 
         var updaterPeriod = Math.max(mainConfig.getUpdaterPeriod(), 1);
         executorService = new ScheduledThreadPoolExecutor(1);
+        metricsRegistry.gauge("updater_backlog", "The number of the records and profiles waiting to be updated at the start of the last cycle", backlog::get);
+        var cycleDuration = metricsRegistry.histogram("updater_cycle_duration_seconds", "The duration of the updater cycles");
         executorService.scheduleAtFixedRate(() -> {
             var current = currentFutureRef.get();
             if (current != null && !current.isDone()) return;
+            long startTime = System.nanoTime();
+            backlog.set(0);
             currentFutureRef.set(
                     updateRecord()
                             .thenAccept(v -> Logger.info("Updated records"))
                             .thenCompose(v -> updatePersonal())
                             .thenAccept(v -> Logger.info("Updated personal"))
+                            .whenComplete((v, throwable) -> {
+                                cycleDuration.observeNanos(System.nanoTime() - startTime);
+                                metricsRegistry.counter("updater_cycles_total", "The number of the updater cycles", "result", throwable == null ? "success" : "failure").increment();
+                            })
             );
             Logger.info("Student update scheduled");
         }, updaterPeriod, updaterPeriod, TimeUnit.SECONDS);
 
-        commandManager.addCommand(new RestoreCommand(this));
+        jobManager.register(RESTORE_JOB, context -> restoreData(context).join());
+        commandManager.addCommand(new RestoreCommand(jobManager, RESTORE_JOB));
     }
 
     @Override
@@ -512,6 +537,10 @@ public class StudentUpdateHandler implements ServerHandler {
         }));
     }
 
+    private void countUpdate(String type, boolean success) {
+        metricsRegistry.counter("updater_updates_total", "The number of the students sent to the updater", "type", type, "result", success ? "success" : "failure").increment();
+    }
+
     private CompletableFuture<Void> updatePersonal() {
         List<CompletableFuture<Void>> futures = new LinkedList<>();
         Map<Long, Personal> personalMap = new HashMap<>();
@@ -521,6 +550,7 @@ public class StudentUpdateHandler implements ServerHandler {
         var transaction = session.beginTransaction();
 
         var profiles = session.createNamedQuery("Profile.findUpdated", Profile.class).getResultList();
+        backlog.addAndGet(profiles.size());
         for (var profile : profiles) {
             var student = session.get(Student.class, profile.getId());
             var completeRunnable = (Runnable) () -> {
@@ -540,6 +570,7 @@ public class StudentUpdateHandler implements ServerHandler {
             if (mainConfig.getServerProperties().devMode()) {
                 Logger.info("Updated personal: " + id + " " + success);
             }
+            countUpdate("personal", Boolean.TRUE.equals(success));
             if (Boolean.TRUE.equals(success)) {
                 completeRunnableMap.getOrDefault(id, () -> {
                 }).run();
@@ -564,6 +595,8 @@ public class StudentUpdateHandler implements ServerHandler {
                 .thenApply(Record::clone)
                 .thenCompose(record -> {
                     var classRecords = record.getClassRecords();
+                    List<ClassRecord> updatedClassRecords = new ArrayList<>();
+                    List<Map<Long, Float>> subjectScoreMaps = new ArrayList<>();
 
                     for (var entry : recordsPerClassMap.entrySet()) {
                         var classId = entry.getKey();
@@ -595,8 +628,7 @@ public class StudentUpdateHandler implements ServerHandler {
                             }
                         }
 
-                        // Update classification
-                        var classification = classRecord.getClassification();
+                        // Collect scores for classification
                         Map<Long, Float> subjectFirstHalfScores = new HashMap<>();
                         Map<Long, Float> subjectSecondHalfScores = new HashMap<>();
                         Map<Long, Float> subjectFinalScores = new HashMap<>();
@@ -605,13 +637,23 @@ public class StudentUpdateHandler implements ServerHandler {
                             subjectSecondHalfScores.put(subjectId, subject.getSecondHalfScore());
                             subjectFinalScores.put(subjectId, subject.getFinalScore());
                         });
-                        classification.setFirstHalfClassify(ClassificationManager.classifyRawSubjectMap(subjectFirstHalfScores).getIdentifier());
-                        classification.setSecondHalfClassify(ClassificationManager.classifyRawSubjectMap(subjectSecondHalfScores).getIdentifier());
-                        classification.setFinalClassify(ClassificationManager.classifyRawSubjectMap(subjectFinalScores).getIdentifier());
+                        subjectScoreMaps.add(subjectFirstHalfScores);
+                        subjectScoreMaps.add(subjectSecondHalfScores);
+                        subjectScoreMaps.add(subjectFinalScores);
+                        updatedClassRecords.add(classRecord);
 
                         classRecords.put(classId, classRecord);
                     }
 
+                    // Update classification
+                    var classifications = ClassificationManager.classifyAllRawSubjectMap(subjectScoreMaps);
+                    for (int i = 0; i < updatedClassRecords.size(); i++) {
+                        var classification = updatedClassRecords.get(i).getClassification();
+                        classification.setFirstHalfClassify(classifications.get(i * 3).getIdentifier());
+                        classification.setSecondHalfClassify(classifications.get(i * 3 + 1).getIdentifier());
+                        classification.setFinalClassify(classifications.get(i * 3 + 2).getIdentifier());
+                    }
+
                     record.setClassRecords(classRecords);
                     return studentUpdater.updateStudentRecord(studentId, record);
                 })
@@ -631,6 +673,7 @@ public class StudentUpdateHandler implements ServerHandler {
         var transaction = session.beginTransaction();
 
         var recordEntries = session.createNamedQuery("RecordEntry.findNeedUpdate", RecordEntry.class).getResultList();
+        backlog.addAndGet(recordEntries.size());
         for (var record : recordEntries) {
             var studentId = record.getRecord().getStudent().getId();
             var classId = record.getRecord().getClassroom().getId();
@@ -647,6 +690,7 @@ public class StudentUpdateHandler implements ServerHandler {
 
         List<CompletableFuture<Void>> futures = new LinkedList<>();
         recordsPerStudentMap.forEach((id, map) -> futures.add(updateRecord(id, map).thenAccept(success -> {
+            countUpdate("record", Boolean.TRUE.equals(success));
             if (Boolean.TRUE.equals(success)) {
                 recordRunnablePerStudentMap.getOrDefault(id, Collections.emptyList()).forEach(Runnable::run);
             }
@@ -657,63 +701,91 @@ public class StudentUpdateHandler implements ServerHandler {
         });
     }
 
-    public CompletableFuture<Void> restoreData() {
+    /**
+     * Restore the data from the updater to the database.
+     * The personal data and the records are restored in two transactions, each recorded as a step of the job.
+     *
+     * @param context the context of the restore job
+     * @return the future of the restore
+     */
+    public CompletableFuture<Void> restoreData(JobContext context) {
+        if (context.getCheckpoint() >= 2) {
+            return CompletableFuture.completedFuture(null);
+        }
+        CompletableFuture<Void> personalFuture = context.getCheckpoint() >= 1
+                ? CompletableFuture.completedFuture(null)
+                : restorePersonal(context);
+        return personalFuture.thenCompose(v -> restoreRecord(context));
+    }
+
+    private CompletableFuture<Void> restorePersonal(JobContext context) {
         return studentUpdater.getAllStudentPersonal()
                 .thenAccept(map -> {
+                    List<Long> missingIds = new ArrayList<>();
                     try (var session = sessionFactory.openSession()) {
-                        var transaction = session.beginTransaction();
-                        for (Map.Entry<Long, Personal> entry : map.entrySet()) {
-                            long id = entry.getKey();
-                            var personal = entry.getValue();
-
-                            Logger.info("Restoring student: " + id);
-
-                            var account = session.get(Account.class, id);
-                            if (account != null) {
+                        for (long id : map.keySet()) {
+                            if (session.get(Account.class, id) != null) {
                                 Logger.warn("Cannot restore personal for student: " + id + " because account already exists");
                                 continue;
                             }
-
-                            var username = AccountUtil.generateUsername(personal.getFirstName(), personal.getLastName());
-                            var password = mainConfig.getDefaultPassword();
-                            account = AccountUtil.createAccount(session, username, password);
-                            account.setId(id);
-                            account.setRole(JwtHandler.Role.STUDENT.name());
-                            session.save(account);
-
-                            var profile = new Profile();
-                            profile.setId(account.getId());
-                            profile.setAccount(account);
-                            profile.setFirstName(personal.getFirstName());
-                            profile.setLastName(personal.getLastName());
-                            profile.setMale(personal.isMale());
-                            profile.setAvatar(personal.getAvatar());
-                            profile.setBirthDate(personal.getBirthDate());
-                            profile.setAddress(personal.getAddress());
-                            profile.setPhone("");
-                            profile.setEmail("");
-                            profile.setUpdated(false);
-                            session.save(profile);
-
-                            var student = new Student();
-                            student.setId(account.getId());
-                            student.setAccount(account);
-                            student.setEthnic(personal.getEthnic());
-                            student.setFatherName(personal.getFatherName());
-                            student.setFatherJob(personal.getFatherJob());
-                            student.setMotherName(personal.getMotherName());
-                            student.setMotherJob(personal.getMotherJob());
-                            student.setGuardianName(personal.getGuardianName());
-                            student.setGuardianJob(personal.getGuardianJob());
-                            student.setHomeTown(personal.getHomeTown());
-                            session.save(student);
-
-                            Logger.info("Restored student: " + id);
+                            missingIds.add(id);
                         }
-                        transaction.commit();
                     }
-                })
-                .thenCompose(v -> studentUpdater.getAllStudentRecord())
+                    var passwords = credentialHasher.hashAll(Collections.nCopies(missingIds.size(), mainConfig.getDefaultPassword()));
+
+                    usernameAllocator.runReconciling(() -> {
+                        try (var session = sessionFactory.openSession()) {
+                            var transaction = session.beginTransaction();
+                            for (int i = 0; i < missingIds.size(); i++) {
+                                long id = missingIds.get(i);
+                                var personal = map.get(id);
+
+                                Logger.info("Restoring student: " + id);
+
+                                var username = usernameAllocator.allocate(AccountUtil.generateUsername(personal.getFirstName(), personal.getLastName()));
+                                var account = AccountUtil.createAccount(username, passwords.get(i));
+                                account.setId(id);
+                                account.setRole(JwtHandler.Role.STUDENT.name());
+                                session.save(account);
+
+                                var profile = new Profile();
+                                profile.setId(account.getId());
+                                profile.setAccount(account);
+                                profile.setFirstName(personal.getFirstName());
+                                profile.setLastName(personal.getLastName());
+                                profile.setMale(personal.isMale());
+                                profile.setAvatar(personal.getAvatar());
+                                profile.setBirthDate(personal.getBirthDate());
+                                profile.setAddress(personal.getAddress());
+                                profile.setPhone("");
+                                profile.setEmail("");
+                                profile.setUpdated(false);
+                                session.save(profile);
+
+                                var student = new Student();
+                                student.setId(account.getId());
+                                student.setAccount(account);
+                                student.setEthnic(personal.getEthnic());
+                                student.setFatherName(personal.getFatherName());
+                                student.setFatherJob(personal.getFatherJob());
+                                student.setMotherName(personal.getMotherName());
+                                student.setMotherJob(personal.getMotherJob());
+                                student.setGuardianName(personal.getGuardianName());
+                                student.setGuardianJob(personal.getGuardianJob());
+                                student.setHomeTown(personal.getHomeTown());
+                                session.save(student);
+
+                                Logger.info("Restored student: " + id);
+                            }
+                            context.checkpoint(session, 1, Collections.emptyList());
+                            transaction.commit();
+                        }
+                    });
+                });
+    }
+
+    private CompletableFuture<Void> restoreRecord(JobContext context) {
+        return studentUpdater.getAllStudentRecord()
                 .thenAccept(map -> {
                     try (var session = sessionFactory.openSession()) {
                         var transaction = session.beginTransaction();
@@ -784,11 +856,14 @@ public class StudentUpdateHandler implements ServerHandler {
                                     recordEntry.setRequestDate(Date.from(Instant.now()));
                                     recordEntry.setApprovalDate(Date.from(Instant.now()));
                                     session.save(recordEntry);
+                                    ClassificationManager.applyEntry(recordEntity, recordEntry);
 
                                     Logger.info("Restored subject record: " + id + " " + classroomId + " " + subjectId);
                                 }
+                                session.update(recordEntity);
                             }
                         }
+                        context.checkpoint(session, 2, Collections.emptyList());
                         transaction.commit();
                     }
                 });
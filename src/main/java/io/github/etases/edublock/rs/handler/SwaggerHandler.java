@@ -18,6 +18,7 @@ import java.util.Optional;
 
 public class SwaggerHandler extends SimpleServerHandler {
     public static final String AUTH_KEY = "BearerAuth";
+    public static final String DOCS_PATH = "/swagger-docs";
 
     @Inject
     public SwaggerHandler(ServerBuilder serverBuilder) {
@@ -26,8 +27,6 @@ public class SwaggerHandler extends SimpleServerHandler {
 
     @Override
     protected void setupConfig(JavalinConfig config) {
-        String deprecatedDocsPath = "/swagger-docs";
-
         OpenApiInfo openApiInfo = new OpenApiInfo();
         openApiInfo.setTitle("Edublock Request Server Documentation");
         openApiInfo.setDescription("EduBlock Request Server");
@@ -36,11 +35,11 @@ public class SwaggerHandler extends SimpleServerHandler {
         OpenApiConfiguration openApiConfiguration = new OpenApiConfiguration();
         openApiConfiguration.setInfo(openApiInfo);
         openApiConfiguration.setSecurity(new SecurityConfiguration(Map.of(AUTH_KEY, new BearerAuth()), Collections.emptyList()));
-        openApiConfiguration.setDocumentationPath(deprecatedDocsPath);
+        openApiConfiguration.setDocumentationPath(DOCS_PATH);
         config.plugins.register(new OpenApiPlugin(openApiConfiguration));
 
         SwaggerConfiguration swaggerConfiguration = new SwaggerConfiguration();
-        swaggerConfiguration.setDocumentationPath(deprecatedDocsPath);
+        swaggerConfiguration.setDocumentationPath(DOCS_PATH);
         swaggerConfiguration.setUiPath("/swagger");
         config.plugins.register(new SwaggerPlugin(swaggerConfiguration));
     }
@@ -7,6 +7,9 @@ import io.github.etases.edublock.rs.model.output.StringResponse;
 import io.github.etases.edublock.rs.model.output.ValidationExceptionResponse;
 import io.javalin.Javalin;
 import io.javalin.validation.ValidationException;
+import org.hibernate.StaleStateException;
+
+import javax.persistence.OptimisticLockException;
 
 public class ValidationErrorHandler extends SimpleServerHandler {
     @Inject
@@ -24,5 +27,13 @@ public class ValidationErrorHandler extends SimpleServerHandler {
             ctx.status(400);
             ctx.json(new StringResponse(-1992, "Invalid number format", exception.getMessage()));
         });
+        server.exception(OptimisticLockException.class, (exception, ctx) -> {
+            ctx.status(409);
+            ctx.json(new StringResponse(-1993, "The data has been changed by another request, please reload and try again", null));
+        });
+        server.exception(StaleStateException.class, (exception, ctx) -> {
+            ctx.status(409);
+            ctx.json(new StringResponse(-1993, "The data has been changed by another request, please reload and try again", null));
+        });
     }
 }
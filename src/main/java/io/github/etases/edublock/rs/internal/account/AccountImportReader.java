@@ -0,0 +1,139 @@
+package io.github.etases.edublock.rs.internal.account;
+
+import io.github.etases.edublock.rs.model.input.AccountCreate;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+import java.util.function.Function;
+
+/**
+ * The incremental reader of the account import stream.
+ * Only one line is held in memory at a time, so the stream can be arbitrarily large.
+ */
+public class AccountImportReader {
+    private final BufferedReader reader;
+    private final Format format;
+    private final Function<String, AccountCreate> jsonParser;
+    private long lineNumber = 0;
+
+    /**
+     * Create a new reader
+     *
+     * @param reader     the underlying reader
+     * @param format     the format of the stream
+     * @param jsonParser the parser for a NDJSON line
+     */
+    public AccountImportReader(BufferedReader reader, Format format, Function<String, AccountCreate> jsonParser) {
+        this.reader = reader;
+        this.format = format;
+        this.jsonParser = jsonParser;
+    }
+
+    private static List<String> splitCsvLine(String line) {
+        List<String> values = new ArrayList<>();
+        StringBuilder current = new StringBuilder();
+        boolean quoted = false;
+        for (int i = 0; i < line.length(); i++) {
+            char c = line.charAt(i);
+            if (quoted) {
+                if (c == '"') {
+                    if (i + 1 < line.length() && line.charAt(i + 1) == '"') {
+                        current.append('"');
+                        i++;
+                    } else {
+                        quoted = false;
+                    }
+                } else {
+                    current.append(c);
+                }
+            } else if (c == '"') {
+                quoted = true;
+            } else if (c == ',') {
+                values.add(current.toString().trim());
+                current.setLength(0);
+            } else {
+                current.append(c);
+            }
+        }
+        values.add(current.toString().trim());
+        return values;
+    }
+
+    private static boolean isCsvHeader(List<String> values) {
+        return !values.isEmpty() && values.get(0).toLowerCase(Locale.ROOT).replace("_", "").equals("firstname");
+    }
+
+    /**
+     * Read the next row
+     *
+     * @return the row, or null if the stream is ended
+     * @throws IOException if the stream cannot be read
+     */
+    public Row next() throws IOException {
+        String line;
+        while ((line = reader.readLine()) != null) {
+            lineNumber++;
+            if (line.isBlank()) {
+                continue;
+            }
+            if (format == Format.NDJSON) {
+                try {
+                    return new Row(lineNumber, jsonParser.apply(line));
+                } catch (Exception e) {
+                    return new Row(lineNumber, null);
+                }
+            }
+            List<String> values = splitCsvLine(line);
+            if (lineNumber == 1 && isCsvHeader(values)) {
+                continue;
+            }
+            if (values.size() < 3) {
+                return new Row(lineNumber, null);
+            }
+            return new Row(lineNumber, new AccountCreate(values.get(0), values.get(1), values.get(2)));
+        }
+        return null;
+    }
+
+    /**
+     * The format of the import stream
+     */
+    public enum Format {
+        /**
+         * Comma-separated values, each line is {@code firstName,lastName,role}, with an optional header line
+         */
+        CSV,
+        /**
+         * Newline-delimited JSON, each line is an account creation object
+         */
+        NDJSON;
+
+        /**
+         * Get the format from the content type
+         *
+         * @param contentType the content type
+         * @return the format, CSV if the content type is not NDJSON
+         */
+        public static Format fromContentType(String contentType) {
+            if (contentType != null) {
+                String lower = contentType.toLowerCase(Locale.ROOT);
+                if (lower.contains("ndjson") || lower.contains("json")) {
+                    return NDJSON;
+                }
+            }
+            return CSV;
+        }
+    }
+
+    /**
+     * A row of the import stream
+     *
+     * @param line    the line number
+     * @param account the account, or null if the line cannot be parsed
+     */
+    public record Row(long line, AccountCreate account) {
+    }
+}
@@ -2,7 +2,6 @@ package io.github.etases.edublock.rs.internal.account;
 
 import io.github.etases.edublock.rs.entity.Account;
 import lombok.experimental.UtilityClass;
-import org.hibernate.Session;
 import org.tinylog.Logger;
 
 import java.sql.Date;
@@ -13,16 +12,11 @@ import java.util.regex.Pattern;
 public final class AccountUtil {
     private static final Pattern normalizePattern = Pattern.compile("\\p{InCombiningDiacriticalMarks}+");
 
-    public static Account createAccount(Session session, String initialUsername, String password) {
-        long count = session.createNamedQuery("Account.countByUsernameRegex", Long.class)
-                .setParameter("username", initialUsername + "%")
-                .uniqueResult();
-        String salt = PasswordUtil.generateSalt();
-        String hashedPassword = PasswordUtil.hashPassword(password, salt);
+    public static Account createAccount(String username, HashedPassword password) {
         var account = new Account();
-        account.setUsername(initialUsername + (count == 0 ? "" : count));
-        account.setSalt(salt);
-        account.setHashedPassword(hashedPassword);
+        account.setUsername(username);
+        account.setSalt(password.salt());
+        account.setHashedPassword(password.hash());
         account.setCreatedAt(new Date(System.currentTimeMillis()));
         return account;
     }
@@ -0,0 +1,167 @@
+package io.github.etases.edublock.rs.internal.account;
+
+import com.google.inject.Inject;
+import com.google.inject.Singleton;
+import io.github.etases.edublock.rs.config.MainConfig;
+import org.tinylog.Logger;
+
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.*;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Supplier;
+
+/**
+ * The dedicated executor to hash and verify passwords.
+ * The queue is bounded, so that a burst of requests is rejected quickly instead of occupying every core.
+ */
+@Singleton
+public class CredentialHasher {
+    private final ThreadPoolExecutor executor;
+    private final ForkJoinPool bulkPool;
+    private final Executor completionExecutor = ForkJoinPool.commonPool();
+    private final LongAdder completedCount = new LongAdder();
+    private final LongAdder rejectedCount = new LongAdder();
+    private final LongAdder queueWaitNanos = new LongAdder();
+    private final LongAdder hashNanos = new LongAdder();
+    private final AtomicLong maxQueueWaitNanos = new AtomicLong();
+    private final AtomicLong maxHashNanos = new AtomicLong();
+
+    @Inject
+    public CredentialHasher(MainConfig mainConfig) {
+        int threads = mainConfig.getHashThreads() > 0
+                ? mainConfig.getHashThreads()
+                : Math.max(1, Runtime.getRuntime().availableProcessors() / 2);
+        int queueSize = Math.max(1, mainConfig.getHashQueueSize());
+        var threadCount = new AtomicInteger();
+        executor = new ThreadPoolExecutor(
+                threads, threads,
+                0L, TimeUnit.MILLISECONDS,
+                new ArrayBlockingQueue<>(queueSize),
+                runnable -> {
+                    var thread = new Thread(runnable, "credential-hasher-" + threadCount.incrementAndGet());
+                    thread.setDaemon(true);
+                    return thread;
+                },
+                new ThreadPoolExecutor.AbortPolicy()
+        );
+        bulkPool = new ForkJoinPool(
+                Math.max(1, Runtime.getRuntime().availableProcessors()),
+                pool -> {
+                    var thread = ForkJoinPool.defaultForkJoinWorkerThreadFactory.newThread(pool);
+                    thread.setName("credential-bulk-hasher-" + thread.getPoolIndex());
+                    return thread;
+                },
+                null,
+                false
+        );
+        Logger.info("Credential hasher: " + threads + " threads, queue size " + queueSize);
+    }
+
+    private static void updateMax(AtomicLong max, long value) {
+        max.accumulateAndGet(value, Math::max);
+    }
+
+    /**
+     * Run the hashing task on the executor
+     *
+     * @param task the task
+     * @param <T>  the type of the result
+     * @return the future of the result, completed exceptionally with {@link RejectedExecutionException} if the queue is full
+     */
+    public <T> CompletableFuture<T> submit(Supplier<T> task) {
+        long enqueueTime = System.nanoTime();
+        CompletableFuture<T> future = new CompletableFuture<>();
+        try {
+            executor.execute(() -> {
+                long startTime = System.nanoTime();
+                long waitTime = startTime - enqueueTime;
+                queueWaitNanos.add(waitTime);
+                updateMax(maxQueueWaitNanos, waitTime);
+                Runnable completion;
+                try {
+                    T result = task.get();
+                    completion = () -> future.complete(result);
+                } catch (Throwable throwable) {
+                    completion = () -> future.completeExceptionally(throwable);
+                }
+                long hashTime = System.nanoTime() - startTime;
+                hashNanos.add(hashTime);
+                updateMax(maxHashNanos, hashTime);
+                completedCount.increment();
+                // The dependent stages, such as writing the login response, run off the hasher thread
+                // so that they neither hold a hashing slot nor count in the hashing time
+                completionExecutor.execute(completion);
+            });
+        } catch (RejectedExecutionException e) {
+            rejectedCount.increment();
+            future.completeExceptionally(e);
+        }
+        return future;
+    }
+
+    /**
+     * Verify the password on the executor
+     *
+     * @param password the password
+     * @param salt     the salt
+     * @param hash     the expected hash
+     * @return the future of the result
+     * @see #submit(Supplier)
+     */
+    public CompletableFuture<Boolean> verify(String password, String salt, String hash) {
+        return submit(() -> PasswordUtil.verifyPassword(password, salt, hash));
+    }
+
+    /**
+     * Hash the passwords in parallel across all cores, each with a new salt.
+     * This is meant for bulk operations, to be called before the database transaction starts.
+     *
+     * @param passwords the passwords
+     * @return the hashed passwords, in the same order as the passwords
+     */
+    public List<HashedPassword> hashAll(List<String> passwords) {
+        if (passwords.isEmpty()) {
+            return Collections.emptyList();
+        }
+        return bulkPool.submit(() -> passwords.parallelStream().map(HashedPassword::create).toList()).join();
+    }
+
+    /**
+     * Get the snapshot of the statistics
+     *
+     * @return the statistics
+     */
+    public Statistics getStatistics() {
+        long completed = completedCount.sum();
+        return new Statistics(
+                executor.getMaximumPoolSize(),
+                executor.getActiveCount(),
+                executor.getQueue().size(),
+                executor.getQueue().size() + executor.getQueue().remainingCapacity(),
+                completed,
+                rejectedCount.sum(),
+                completed == 0 ? 0 : queueWaitNanos.sum() / completed,
+                maxQueueWaitNanos.get(),
+                completed == 0 ? 0 : hashNanos.sum() / completed,
+                maxHashNanos.get()
+        );
+    }
+
+    /**
+     * Stop the executors.
+     * The hasher is shared by the handlers, so this is called once by the server after all the handlers are stopped.
+     */
+    public void shutdown() {
+        executor.shutdown();
+        bulkPool.shutdown();
+    }
+
+    public record Statistics(int threads, int activeThreads, int queued, int queueCapacity,
+                             long completed, long rejected,
+                             long averageQueueWaitNanos, long maxQueueWaitNanos,
+                             long averageHashNanos, long maxHashNanos) {
+    }
+}
@@ -0,0 +1,20 @@
+package io.github.etases.edublock.rs.internal.account;
+
+/**
+ * The salt and the hash of a password
+ *
+ * @param salt the salt
+ * @param hash the hash
+ */
+public record HashedPassword(String salt, String hash) {
+    /**
+     * Hash the password with a new salt
+     *
+     * @param password the password
+     * @return the hashed password
+     */
+    public static HashedPassword create(String password) {
+        String salt = PasswordUtil.generateSalt();
+        return new HashedPassword(salt, PasswordUtil.hashPassword(password, salt));
+    }
+}
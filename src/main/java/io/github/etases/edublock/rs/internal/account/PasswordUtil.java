@@ -12,18 +12,20 @@ import java.util.Base64;
 @UtilityClass
 public final class PasswordUtil {
     private static final RandomStringGenerator saltGenerator;
-    private static final SecretKeyFactory keyFactory;
+    private static final ThreadLocal<SecretKeyFactory> keyFactory;
 
     static {
         saltGenerator = new RandomStringGenerator.Builder()
                 .withinRange('0', 'z')
                 .filteredBy(Character::isLetterOrDigit)
                 .build();
-        try {
-            keyFactory = SecretKeyFactory.getInstance("PBKDF2WithHmacSHA1");
-        } catch (NoSuchAlgorithmException e) {
-            throw new RuntimeException(e);
-        }
+        keyFactory = ThreadLocal.withInitial(() -> {
+            try {
+                return SecretKeyFactory.getInstance("PBKDF2WithHmacSHA1");
+            } catch (NoSuchAlgorithmException e) {
+                throw new RuntimeException(e);
+            }
+        });
     }
 
     public static String generateSalt() {
@@ -33,7 +35,7 @@ public final class PasswordUtil {
     public static String hashPassword(String password, String salt) {
         KeySpec spec = new PBEKeySpec(password.toCharArray(), salt.getBytes(), 65536, 128);
         try {
-            byte[] hash = keyFactory.generateSecret(spec).getEncoded();
+            byte[] hash = keyFactory.get().generateSecret(spec).getEncoded();
             return Base64.getEncoder().encodeToString(hash);
         } catch (Exception e) {
             throw new RuntimeException(e);
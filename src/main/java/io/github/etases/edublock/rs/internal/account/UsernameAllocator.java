@@ -0,0 +1,160 @@
+package io.github.etases.edublock.rs.internal.account;
+
+import com.google.inject.Inject;
+import com.google.inject.Singleton;
+import org.hibernate.Session;
+import org.hibernate.SessionFactory;
+import org.hibernate.exception.ConstraintViolationException;
+import org.tinylog.Logger;
+
+import javax.persistence.PersistenceException;
+import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * The in-memory index of the next numeric suffix for each username base.
+ * A username is split into its base and its trailing digits, e.g. "AnhNV12" is the base "AnhNV" with the suffix 12.
+ * Allocation is atomic, so concurrent and uncommitted creations never receive the same username.
+ */
+@Singleton
+public class UsernameAllocator {
+    private final SessionFactory sessionFactory;
+    private final Map<String, Integer> nextSuffixMap = new ConcurrentHashMap<>();
+    private volatile Set<String> usernameIndexNames = Collections.emptySet();
+
+    @Inject
+    public UsernameAllocator(SessionFactory sessionFactory) {
+        this.sessionFactory = sessionFactory;
+    }
+
+    private static int getSuffixStart(String username) {
+        int index = username.length();
+        while (index > 0 && Character.isDigit(username.charAt(index - 1))) {
+            index--;
+        }
+        return index;
+    }
+
+    /**
+     * Find the names of the unique indexes on the username column of the accounts.
+     * The names are generated by Hibernate, so they are read from the database instead of being hard-coded.
+     *
+     * @param session the session
+     * @return the upper-cased names
+     */
+    private static Set<String> findUsernameIndexNames(Session session) {
+        Set<String> names = new HashSet<>();
+        session.doWork(connection -> {
+            var metaData = connection.getMetaData();
+            String table = metaData.storesLowerCaseIdentifiers() ? "account" : metaData.storesUpperCaseIdentifiers() ? "ACCOUNT" : "Account";
+            Map<String, Set<String>> indexColumns = new HashMap<>();
+            try (var resultSet = metaData.getIndexInfo(connection.getCatalog(), null, table, true, false)) {
+                while (resultSet.next()) {
+                    String indexName = resultSet.getString("INDEX_NAME");
+                    String columnName = resultSet.getString("COLUMN_NAME");
+                    if (indexName != null && columnName != null) {
+                        indexColumns.computeIfAbsent(indexName.toUpperCase(Locale.ROOT), key -> new HashSet<>()).add(columnName.toUpperCase(Locale.ROOT));
+                    }
+                }
+            }
+            indexColumns.forEach((indexName, columns) -> {
+                if (columns.equals(Set.of("USERNAME"))) {
+                    names.add(indexName);
+                }
+            });
+        });
+        return names;
+    }
+
+    /**
+     * Check if the exception is caused by a duplicated username.
+     * Only the violations of the unique index of the username are conflicts, the other constraint violations are not.
+     *
+     * @param exception the exception
+     * @return true if it is
+     */
+    public boolean isConflict(PersistenceException exception) {
+        Throwable cause = exception;
+        while (cause != null && !(cause instanceof ConstraintViolationException)) {
+            cause = cause.getCause();
+        }
+        if (cause == null) {
+            return false;
+        }
+        var indexNames = usernameIndexNames;
+        if (indexNames.isEmpty()) {
+            // The index is unknown, so every violation is treated as a conflict
+            return true;
+        }
+        String constraintName = ((ConstraintViolationException) cause).getConstraintName();
+        if (constraintName == null) {
+            return false;
+        }
+        String upperName = constraintName.toUpperCase(Locale.ROOT);
+        return indexNames.stream().anyMatch(upperName::contains);
+    }
+
+    /**
+     * Load the suffixes from the database.
+     * The known suffixes are never lowered, so the allocations that are not committed yet are kept.
+     */
+    public void reload() {
+        List<String> usernames;
+        try (var session = sessionFactory.openSession()) {
+            usernames = session.createNamedQuery("Account.findAllUsernames", String.class).getResultList();
+            if (usernameIndexNames.isEmpty()) {
+                usernameIndexNames = findUsernameIndexNames(session);
+                if (usernameIndexNames.isEmpty()) {
+                    Logger.warn("Cannot find the unique index of the usernames, every constraint violation is treated as a username conflict");
+                }
+            }
+        }
+        Map<String, Integer> loadedMap = new HashMap<>();
+        for (String username : usernames) {
+            int suffixStart = getSuffixStart(username);
+            String base = username.substring(0, suffixStart);
+            int suffix;
+            if (suffixStart == username.length()) {
+                suffix = 0;
+            } else {
+                try {
+                    suffix = Integer.parseInt(username.substring(suffixStart));
+                } catch (NumberFormatException e) {
+                    continue;
+                }
+            }
+            loadedMap.merge(base, suffix + 1, Math::max);
+        }
+        loadedMap.forEach((base, next) -> nextSuffixMap.merge(base, next, Math::max));
+        Logger.info("Loaded " + usernames.size() + " usernames into " + loadedMap.size() + " username bases");
+    }
+
+    /**
+     * Allocate a unique username
+     *
+     * @param base the base username, generated by {@link AccountUtil#generateUsername(String, String)}
+     * @return the base itself if it is not taken, otherwise the base with the next numeric suffix
+     */
+    public String allocate(String base) {
+        int suffix = nextSuffixMap.merge(base, 1, Integer::sum) - 1;
+        return suffix == 0 ? base : base + suffix;
+    }
+
+    /**
+     * Run the action, and if it fails on a duplicated username, reconcile with the database and run it again
+     *
+     * @param action the action, which should allocate its usernames inside
+     */
+    public void runReconciling(Runnable action) {
+        try {
+            action.run();
+        } catch (PersistenceException e) {
+            if (!isConflict(e)) {
+                throw e;
+            }
+            Logger.warn("Username conflict detected, reconciling with the database");
+            reload();
+            action.run();
+        }
+    }
+}
@@ -14,6 +14,7 @@ import org.tinylog.Logger;
 
 import java.math.BigDecimal;
 import java.util.*;
+import java.util.function.Function;
 
 @Getter
 @Setter
@@ -37,23 +38,98 @@ public class Classification {
         return classification;
     }
 
-    public boolean isApplicable(Map<Subject, Float> subjectScoreMap) {
+    private static final String[] subjectIdVariables;
+    private static final String[] subjectIdentifierVariables;
+
+    static {
         var subjects = SubjectManager.getSubjects();
-        Map<String, Object> variableMap = new HashMap<>();
-        for (var subject : subjects) {
-            variableMap.put("subject" + subject.getId(), subjectScoreMap.getOrDefault(subject, 0.0F));
-            variableMap.put(subject.getIdentifier().toLowerCase(Locale.ROOT), subjectScoreMap.getOrDefault(subject, 0.0F));
+        subjectIdVariables = new String[subjects.size()];
+        subjectIdentifierVariables = new String[subjects.size()];
+        for (int ordinal = 0; ordinal < subjects.size(); ordinal++) {
+            var subject = subjects.get(ordinal);
+            subjectIdVariables[ordinal] = "subject" + subject.getId();
+            subjectIdentifierVariables[ordinal] = subject.getIdentifier().toLowerCase(Locale.ROOT);
+        }
+    }
+
+    /**
+     * Convert the subject scores to an array indexed by the subject ordinal
+     *
+     * @param subjectScoreMap the subject scores
+     * @return the score array
+     * @see SubjectManager#createScoreArray()
+     */
+    static float[] toScoreArray(Map<Subject, Float> subjectScoreMap) {
+        var scores = SubjectManager.createScoreArray();
+        subjectScoreMap.forEach((subject, score) -> {
+            int ordinal = SubjectManager.getOrdinal(subject.getId());
+            if (ordinal >= 0 && score != null) {
+                scores[ordinal] = score;
+            }
+        });
+        return scores;
+    }
+
+    /**
+     * Create the variable map used to evaluate the rules against the subject scores
+     *
+     * @param scores      the scores indexed by the subject ordinal, {@link Float#NaN} if the subject has no score
+     * @param variableMap the map to fill, usually a reused scratch buffer
+     */
+    static void fillVariableMap(float[] scores, Map<String, Object> variableMap) {
+        int count = 0;
+        double min = Double.POSITIVE_INFINITY;
+        double max = Double.NEGATIVE_INFINITY;
+        double sum = 0;
+        int countNotZero = 0;
+        double minNotZero = Double.POSITIVE_INFINITY;
+        double maxNotZero = Double.NEGATIVE_INFINITY;
+        double sumNotZero = 0;
+        for (int ordinal = 0; ordinal < scores.length; ordinal++) {
+            float score = scores[ordinal];
+            boolean present = !Float.isNaN(score);
+            float value = present ? score : 0.0F;
+            variableMap.put(subjectIdVariables[ordinal], value);
+            variableMap.put(subjectIdentifierVariables[ordinal], value);
+            if (!present) {
+                continue;
+            }
+            count++;
+            min = Math.min(min, value);
+            max = Math.max(max, value);
+            sum += value;
+            if (value != 0) {
+                countNotZero++;
+                minNotZero = Math.min(minNotZero, value);
+                maxNotZero = Math.max(maxNotZero, value);
+                sumNotZero += value;
+            }
         }
-        variableMap.put("subject_min", subjectScoreMap.values().stream().mapToDouble(Float::floatValue).min().orElse(0));
-        variableMap.put("subject_max", subjectScoreMap.values().stream().mapToDouble(Float::floatValue).max().orElse(0));
-        variableMap.put("subject_avg", subjectScoreMap.values().stream().mapToDouble(Float::floatValue).average().orElse(0));
-        variableMap.put("subject_sum", subjectScoreMap.values().stream().mapToDouble(Float::floatValue).sum());
-        variableMap.put("subject_min_not_zero", subjectScoreMap.values().stream().mapToDouble(Float::floatValue).filter(value -> value != 0).min().orElse(0));
-        variableMap.put("subject_max_not_zero", subjectScoreMap.values().stream().mapToDouble(Float::floatValue).filter(value -> value != 0).max().orElse(0));
-        variableMap.put("subject_avg_not_zero", subjectScoreMap.values().stream().mapToDouble(Float::floatValue).filter(value -> value != 0).average().orElse(0));
+        variableMap.put("subject_min", count == 0 ? 0D : min);
+        variableMap.put("subject_max", count == 0 ? 0D : max);
+        variableMap.put("subject_avg", count == 0 ? 0D : sum / count);
+        variableMap.put("subject_sum", sum);
+        variableMap.put("subject_min_not_zero", countNotZero == 0 ? 0D : minNotZero);
+        variableMap.put("subject_max_not_zero", countNotZero == 0 ? 0D : maxNotZero);
+        variableMap.put("subject_avg_not_zero", countNotZero == 0 ? 0D : sumNotZero / countNotZero);
+    }
+
+    public boolean isApplicable(Map<Subject, Float> subjectScoreMap) {
+        Map<String, Object> variableMap = new HashMap<>();
+        fillVariableMap(toScoreArray(subjectScoreMap), variableMap);
+        return isApplicable(variableMap, ExpressionUtils::createExpression);
+    }
 
+    /**
+     * Check if the classification is applicable to the prepared variables
+     *
+     * @param variableMap        the variables of the subject scores
+     * @param expressionProvider the provider of the expression of a rule, so that the parsed expressions can be reused by the caller thread
+     * @return true if all rules are satisfied
+     */
+    boolean isApplicable(Map<String, Object> variableMap, Function<String, Expression> expressionProvider) {
         for (String rule : rules) {
-            Expression expression = ExpressionUtils.createExpression(rule).withValues(variableMap);
+            Expression expression = expressionProvider.apply(rule).withValues(variableMap);
             try {
                 if (Boolean.FALSE.equals(expression.evaluate().getBooleanValue())) {
                     return false;
@@ -2,6 +2,7 @@ package io.github.etases.edublock.rs.internal.classification;
 
 import io.github.etases.edublock.rs.entity.Record;
 import io.github.etases.edublock.rs.entity.RecordEntry;
+import io.github.etases.edublock.rs.entity.RecordScore;
 import io.github.etases.edublock.rs.internal.subject.Subject;
 import io.github.etases.edublock.rs.internal.subject.SubjectManager;
 import io.github.etases.edublock.rs.model.output.element.ClassificationReportOutput;
@@ -15,11 +16,31 @@ import org.spongepowered.configurate.yaml.YamlConfigurationLoader;
 import java.io.File;
 import java.nio.file.Files;
 import java.nio.file.StandardCopyOption;
+import java.security.MessageDigest;
 import java.util.*;
+import java.util.concurrent.ForkJoinPool;
+import java.util.function.Function;
 
 @UtilityClass
 public class ClassificationManager {
     private static final List<Classification> classifications = new ArrayList<>();
+    private static final List<Classification> classificationsByLevel = new ArrayList<>();
+    private static final int PARALLEL_THRESHOLD = 8;
+    private static final ForkJoinPool classificationPool = new ForkJoinPool(
+            Math.max(1, Runtime.getRuntime().availableProcessors()),
+            pool -> {
+                var thread = ForkJoinPool.defaultForkJoinWorkerThreadFactory.newThread(pool);
+                thread.setName("classification-worker-" + thread.getPoolIndex());
+                return thread;
+            },
+            null,
+            false
+    );
+
+    /**
+     * The version of the classification rules, which changes whenever the rules change
+     */
+    private static final String rulesVersion;
 
     static {
         File classificationFile;
@@ -27,6 +48,8 @@ public class ClassificationManager {
             classificationFile = File.createTempFile("classification", ".yml");
             classificationFile.deleteOnExit();
             Files.copy(Objects.requireNonNull(stream), classificationFile.toPath(), StandardCopyOption.REPLACE_EXISTING);
+            byte[] digest = MessageDigest.getInstance("SHA-256").digest(Files.readAllBytes(classificationFile.toPath()));
+            rulesVersion = HexFormat.of().formatHex(digest, 0, 8);
         } catch (Exception e) {
             throw new IllegalStateException(e);
         }
@@ -44,6 +67,19 @@ public class ClassificationManager {
                 }
             });
         }
+
+        classificationsByLevel.addAll(classifications);
+        classificationsByLevel.sort(Comparator.comparingInt(Classification::getLevel));
+    }
+
+    /**
+     * Get the version of the classification rules.
+     * The records classified with another version are rebuilt, see {@link #isStoredClassificationValid(Record)}.
+     *
+     * @return the version
+     */
+    public String getRulesVersion() {
+        return rulesVersion;
     }
 
     public List<Classification> getClassifications() {
@@ -58,80 +94,240 @@ public class ClassificationManager {
     }
 
     public Classification classify(Map<Subject, Float> subjectScoreMap) {
-        return classifications.stream()
-                .filter(classification -> classification.isApplicable(subjectScoreMap))
-                .min(Comparator.comparingInt(Classification::getLevel))
-                .orElseGet(Classification::new);
+        return classify(Classification.toScoreArray(subjectScoreMap));
+    }
+
+    /**
+     * Classify the scores
+     *
+     * @param scores the scores indexed by the subject ordinal, {@link Float#NaN} if the subject has no score
+     * @return the classification
+     * @see SubjectManager#createScoreArray()
+     */
+    public Classification classify(float[] scores) {
+        var scratch = ClassificationScratch.get();
+        var variableMap = scratch.prepareVariables(scores);
+        for (var classification : classificationsByLevel) {
+            if (classification.isApplicable(variableMap, scratch::getExpression)) {
+                return classification;
+            }
+        }
+        return new Classification();
     }
 
     public Classification classifyRawSubjectMap(Map<Long, Float> subjectScoreMap) {
-        Map<Subject, Float> subjectFloatMap = new HashMap<>();
+        var scores = SubjectManager.createScoreArray();
         subjectScoreMap.forEach((id, score) -> {
-            Subject subject = SubjectManager.getSubject(id);
-            if (subject != null) {
-                subjectFloatMap.put(subject, score);
+            int ordinal = SubjectManager.getOrdinal(id);
+            if (ordinal >= 0 && score != null) {
+                scores[ordinal] = score;
             }
         });
-        return classify(subjectFloatMap);
+        return classify(scores);
+    }
+
+    /**
+     * Classify many subject score sets at once.
+     * Large batches are evaluated in parallel on the classification pool.
+     *
+     * @param subjectScoreMaps the subject score sets
+     * @return the classifications, in the same order as the score sets
+     */
+    public List<Classification> classifyAll(List<Map<Subject, Float>> subjectScoreMaps) {
+        return runBatch(subjectScoreMaps, subjectScoreMap -> classify(subjectScoreMap));
+    }
+
+    /**
+     * Classify many raw subject score sets at once
+     *
+     * @param subjectScoreMaps the score sets, keyed by the subject id
+     * @return the classifications, in the same order as the score sets
+     * @see #classifyAll(List)
+     */
+    public List<Classification> classifyAllRawSubjectMap(List<Map<Long, Float>> subjectScoreMaps) {
+        return runBatch(subjectScoreMaps, ClassificationManager::classifyRawSubjectMap);
     }
 
+    private <T, R> List<R> runBatch(List<T> inputs, Function<T, R> function) {
+        if (inputs.size() < PARALLEL_THRESHOLD) {
+            return inputs.stream().map(function).toList();
+        }
+        return classificationPool.submit(() -> inputs.parallelStream().map(function).toList()).join();
+    }
+
+    /**
+     * Create the classification report of the record.
+     * The latest scores stored in the record are used if they are available, otherwise they are computed from the entries.
+     *
+     * @param record the record
+     * @return the report
+     */
     public ClassificationReport createReport(Record record) {
-        Map<Long, RecordEntry> rawSubjectEntryMap = new HashMap<>();
-        record.getRecordEntry().forEach(recordEntry -> {
-            var subjectId = recordEntry.getSubjectId();
-            rawSubjectEntryMap.merge(subjectId, recordEntry, (oldEntry, newEntry) -> {
-                if (oldEntry.getApprovalDate() == null) {
-                    return newEntry;
-                } else if (newEntry.getApprovalDate() == null) {
-                    return oldEntry;
-                } else {
-                    return oldEntry.getApprovalDate().compareTo(newEntry.getApprovalDate()) > 0 ? oldEntry : newEntry;
-                }
-            });
-        });
+        if (record.getFinalClassify() != null && record.getLatestScores() != null) {
+            return createReport(record.getLatestScores());
+        }
+        Map<Long, RecordScore> latestScores = new HashMap<>();
+        if (record.getRecordEntry() != null) {
+            record.getRecordEntry().forEach(recordEntry -> mergeLatestScore(latestScores, recordEntry));
+        }
+        return createReport(latestScores);
+    }
 
-        Map<Subject, RecordEntry> subjectEntryMap = new HashMap<>();
-        rawSubjectEntryMap.forEach((subjectId, recordEntry) -> {
-            var subject = SubjectManager.getSubject(subjectId);
-            if (subject != null) {
-                subjectEntryMap.put(subject, recordEntry);
+    public ClassificationReport createReport(Map<Long, RecordScore> latestScores) {
+        var firstHalfScores = SubjectManager.createScoreArray();
+        var secondHalfScores = SubjectManager.createScoreArray();
+        var finalScores = SubjectManager.createScoreArray();
+        latestScores.forEach((subjectId, recordScore) -> {
+            int ordinal = SubjectManager.getOrdinal(subjectId);
+            if (ordinal >= 0) {
+                firstHalfScores[ordinal] = recordScore.getFirstHalfScore();
+                secondHalfScores[ordinal] = recordScore.getSecondHalfScore();
+                finalScores[ordinal] = recordScore.getFinalScore();
             }
         });
 
-        Map<Subject, Float> subjectFirstHalfScoreMap = new HashMap<>();
-        Map<Subject, Float> subjectSecondHalfScoreMap = new HashMap<>();
-        Map<Subject, Float> subjectFinalScoreMap = new HashMap<>();
-        subjectEntryMap.forEach((subject, recordEntry) -> {
-            subjectFirstHalfScoreMap.put(subject, recordEntry.getFirstHalfScore());
-            subjectSecondHalfScoreMap.put(subject, recordEntry.getSecondHalfScore());
-            subjectFinalScoreMap.put(subject, recordEntry.getFinalScore());
+        Classification firstHalfClassify = classify(firstHalfScores);
+        Classification secondHalfClassify = classify(secondHalfScores);
+        Classification finalClassify = classify(finalScores);
+
+        return new ClassificationReport(firstHalfClassify, secondHalfClassify, finalClassify);
+    }
+
+    /**
+     * Get the classification report stored in the record.
+     * The report is computed from the latest scores or the entries if the record has never been classified or is classified with older rules.
+     * This classifies all the approved entries, so it does not apply to the filtered entries of an output.
+     *
+     * @param record the record
+     * @return the report
+     */
+    public ClassificationReport getReport(Record record) {
+        if (!isStoredClassificationValid(record)) {
+            return createReport(record);
+        }
+        return new ClassificationReport(
+                getStoredClassification(record.getFirstHalfClassify()),
+                getStoredClassification(record.getSecondHalfClassify()),
+                getStoredClassification(record.getFinalClassify())
+        );
+    }
+
+    /**
+     * Apply the new entry to the latest scores and the stored classification of the record.
+     * Call this whenever a {@link RecordEntry} of the record is saved.
+     *
+     * @param record      the record
+     * @param recordEntry the new entry
+     */
+    public void applyEntry(Record record, RecordEntry recordEntry) {
+        applyEntries(record, List.of(recordEntry));
+    }
+
+    /**
+     * Apply the new entries to the latest scores, then update the stored classification of the record once.
+     * Call this whenever several {@link RecordEntry} of the record are saved together.
+     *
+     * @param record        the record
+     * @param recordEntries the new entries
+     */
+    public void applyEntries(Record record, Collection<RecordEntry> recordEntries) {
+        if (record.getFinalClassify() == null || record.getLatestScores() == null) {
+            rebuildLatestScores(record);
+        }
+        recordEntries.forEach(recordEntry -> mergeLatestScore(record.getLatestScores(), recordEntry));
+        updateStoredClassification(record);
+    }
+
+    /**
+     * Rebuild the latest scores and the stored classification of the record from all of its entries
+     *
+     * @param record the record
+     */
+    public void rebuild(Record record) {
+        rebuildLatestScores(record);
+        updateStoredClassification(record);
+    }
+
+    private void rebuildLatestScores(Record record) {
+        if (record.getLatestScores() == null) {
+            record.setLatestScores(new HashMap<>());
+        }
+        var latestScores = record.getLatestScores();
+        latestScores.clear();
+        if (record.getRecordEntry() != null) {
+            record.getRecordEntry().forEach(recordEntry -> mergeLatestScore(latestScores, recordEntry));
+        }
+    }
+
+    private void mergeLatestScore(Map<Long, RecordScore> latestScores, RecordEntry recordEntry) {
+        latestScores.merge(recordEntry.getSubjectId(), RecordScore.fromEntry(recordEntry), (oldScore, newScore) -> {
+            if (oldScore.getApprovalDate() == null) {
+                return newScore;
+            } else if (newScore.getApprovalDate() == null) {
+                return oldScore;
+            }
+            int compare = oldScore.getApprovalDate().compareTo(newScore.getApprovalDate());
+            if (compare == 0 && oldScore.getEntryId() != null && newScore.getEntryId() != null) {
+                compare = oldScore.getEntryId().compareTo(newScore.getEntryId());
+            }
+            return compare > 0 ? oldScore : newScore;
         });
+    }
+
+    private void updateStoredClassification(Record record) {
+        var report = createReport(record.getLatestScores());
+        record.setFirstHalfClassify(report.getFirstHalfClassify().getIdentifier());
+        record.setSecondHalfClassify(report.getSecondHalfClassify().getIdentifier());
+        record.setFinalClassify(report.getFinalClassify().getIdentifier());
+        record.setClassificationVersion(rulesVersion);
+    }
 
-        Classification firstHalfClassify = classify(subjectFirstHalfScoreMap);
-        Classification secondHalfClassify = classify(subjectSecondHalfScoreMap);
-        Classification finalClassify = classify(subjectFinalScoreMap);
+    /**
+     * Check if the stored classification of the record is made with the current rules
+     *
+     * @param record the record
+     * @return true if it is
+     */
+    public boolean isStoredClassificationValid(Record record) {
+        return record.getFinalClassify() != null && rulesVersion.equals(record.getClassificationVersion());
+    }
 
-        return new ClassificationReport(firstHalfClassify, secondHalfClassify, finalClassify);
+    private Classification getStoredClassification(String identifier) {
+        if (identifier == null || identifier.isEmpty()) {
+            return new Classification();
+        }
+        return getClassification(identifier);
     }
 
     public ClassificationReportOutput createReport(List<RecordEntryOutput> entryOutputs) {
-        Map<Subject, Float> subjectFirstHalfScoreMap = new HashMap<>();
-        Map<Subject, Float> subjectSecondHalfScoreMap = new HashMap<>();
-        Map<Subject, Float> subjectFinalScoreMap = new HashMap<>();
+        var firstHalfScores = SubjectManager.createScoreArray();
+        var secondHalfScores = SubjectManager.createScoreArray();
+        var finalScores = SubjectManager.createScoreArray();
         entryOutputs.forEach(recordEntry -> {
-            var subject = SubjectManager.getSubject(recordEntry.getSubjectId());
-            if (subject != null) {
-                subjectFirstHalfScoreMap.put(subject, recordEntry.getFirstHalfScore());
-                subjectSecondHalfScoreMap.put(subject, recordEntry.getSecondHalfScore());
-                subjectFinalScoreMap.put(subject, recordEntry.getFinalScore());
+            int ordinal = SubjectManager.getOrdinal(recordEntry.getSubjectId());
+            if (ordinal >= 0) {
+                firstHalfScores[ordinal] = recordEntry.getFirstHalfScore();
+                secondHalfScores[ordinal] = recordEntry.getSecondHalfScore();
+                finalScores[ordinal] = recordEntry.getFinalScore();
             }
         });
 
-        Classification firstHalfClassify = classify(subjectFirstHalfScoreMap);
-        Classification secondHalfClassify = classify(subjectSecondHalfScoreMap);
-        Classification finalClassify = classify(subjectFinalScoreMap);
+        Classification firstHalfClassify = classify(firstHalfScores);
+        Classification secondHalfClassify = classify(secondHalfScores);
+        Classification finalClassify = classify(finalScores);
         ClassificationReport report = new ClassificationReport(firstHalfClassify, secondHalfClassify, finalClassify);
 
         return ClassificationReportOutput.fromInternal(report);
     }
+
+    /**
+     * Create the reports of many entry lists at once, such as all records of a grade
+     *
+     * @param entryOutputsList the entry lists
+     * @return the reports, in the same order as the entry lists
+     * @see #classifyAll(List)
+     */
+    public List<ClassificationReportOutput> createReports(List<List<RecordEntryOutput>> entryOutputsList) {
+        return runBatch(entryOutputsList, entryOutputs -> createReport(entryOutputs));
+    }
 }
@@ -0,0 +1,29 @@
+package io.github.etases.edublock.rs.internal.classification;
+
+import com.ezylang.evalex.Expression;
+import me.hsgamer.hscore.expression.ezylang.ExpressionUtils;
+
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * The per-thread buffers used when classifying, so that the variable map and the parsed rules are reused between evaluations
+ */
+class ClassificationScratch {
+    private static final ThreadLocal<ClassificationScratch> scratchThreadLocal = ThreadLocal.withInitial(ClassificationScratch::new);
+    private final Map<String, Object> variableMap = new HashMap<>();
+    private final Map<String, Expression> expressionMap = new HashMap<>();
+
+    static ClassificationScratch get() {
+        return scratchThreadLocal.get();
+    }
+
+    Map<String, Object> prepareVariables(float[] scores) {
+        Classification.fillVariableMap(scores, variableMap);
+        return variableMap;
+    }
+
+    Expression getExpression(String rule) {
+        return expressionMap.computeIfAbsent(rule, ExpressionUtils::createExpression);
+    }
+}
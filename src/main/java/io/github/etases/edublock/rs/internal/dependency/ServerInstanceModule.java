@@ -1,6 +1,7 @@
 package io.github.etases.edublock.rs.internal.dependency;
 
 import com.google.inject.AbstractModule;
+import com.google.inject.Provides;
 import io.github.etases.edublock.rs.CommandManager;
 import io.github.etases.edublock.rs.DatabaseManager;
 import io.github.etases.edublock.rs.RequestServer;
@@ -23,6 +24,20 @@ public class ServerInstanceModule extends AbstractModule {
         bind(ServerBuilder.class).toInstance(requestServer.getServerBuilder());
         bind(MainConfig.class).toInstance(requestServer.getMainConfig());
         bind(DatabaseManager.class).toInstance(requestServer.getDatabaseManager());
-        bind(SessionFactory.class).toInstance(requestServer.getDatabaseManager().getSessionFactory());
+    }
+
+    /**
+     * Provide the session factory.
+     * It is built in a startup phase, so it is only available to the instances created after that phase.
+     *
+     * @return the session factory
+     */
+    @Provides
+    SessionFactory provideSessionFactory() {
+        var sessionFactory = requestServer.getDatabaseManager().getSessionFactory();
+        if (sessionFactory == null) {
+            throw new IllegalStateException("The session factory is not built yet");
+        }
+        return sessionFactory;
     }
 }
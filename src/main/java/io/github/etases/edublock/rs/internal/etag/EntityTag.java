@@ -0,0 +1,123 @@
+package io.github.etases.edublock.rs.internal.etag;
+
+import io.github.etases.edublock.rs.entity.Account;
+import io.javalin.http.Context;
+import io.javalin.http.Header;
+import io.javalin.http.HttpStatus;
+import org.hibernate.Session;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.HashSet;
+import java.util.HexFormat;
+import java.util.Set;
+
+/**
+ * The builder of the entity tag of a response.
+ * The tag is derived from the versions of the entities included in the response, so it can be checked before any output is built.
+ */
+public class EntityTag {
+    private final StringBuilder builder = new StringBuilder();
+    private final Set<Long> accountIds = new HashSet<>();
+
+    private EntityTag(String key) {
+        builder.append(key);
+    }
+
+    /**
+     * Create a new entity tag for the request.
+     * The path and the query of the request are part of the tag, since they change the output.
+     *
+     * @param ctx the context
+     * @return the entity tag
+     */
+    public static EntityTag of(Context ctx) {
+        String query = ctx.queryString();
+        return new EntityTag(query == null ? ctx.path() : ctx.path() + "?" + query);
+    }
+
+    /**
+     * Check the entity tag against the {@code If-None-Match} header of the request.
+     * The tag is set to the {@code ETag} header of the response, and if it matches, the status is set to 304.
+     *
+     * @param ctx the context
+     * @param tag the tag
+     * @return true if the client already has the response, and the handler should return without output
+     */
+    public static boolean isNotModified(Context ctx, String tag) {
+        ctx.header(Header.ETAG, tag);
+        String ifNoneMatch = ctx.header(Header.IF_NONE_MATCH);
+        if (ifNoneMatch == null) {
+            return false;
+        }
+        for (String value : ifNoneMatch.split(",")) {
+            String trimmed = value.trim();
+            if (trimmed.equals("*") || trimmed.equals(tag) || ("W/" + trimmed).equals(tag)) {
+                ctx.status(HttpStatus.NOT_MODIFIED);
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Add a part to the tag
+     *
+     * @param part the part
+     * @return this instance for chaining
+     */
+    public EntityTag add(Object part) {
+        builder.append(':').append(part);
+        return this;
+    }
+
+    /**
+     * Add an account and its profile to the tag.
+     * Their versions are loaded together when the tag is built.
+     *
+     * @param account the account, can be null
+     * @return this instance for chaining
+     */
+    public EntityTag addAccount(Account account) {
+        if (account != null) {
+            accountIds.add(account.getId());
+        }
+        return this;
+    }
+
+    /**
+     * Add an account and its profile to the tag
+     *
+     * @param accountId the id of the account
+     * @return this instance for chaining
+     * @see #addAccount(Account)
+     */
+    public EntityTag addAccount(long accountId) {
+        accountIds.add(accountId);
+        return this;
+    }
+
+    /**
+     * Build the tag
+     *
+     * @param session the session to load the versions of the added accounts
+     * @return the weak entity tag
+     */
+    public String build(Session session) {
+        if (!accountIds.isEmpty()) {
+            for (String queryName : new String[]{"Account.sumVersionByIds", "Profile.sumVersionByIds"}) {
+                var result = session.createNamedQuery(queryName, Object[].class)
+                        .setParameterList("ids", accountIds)
+                        .getSingleResult();
+                builder.append(':').append(result[0]).append('/').append(result[1]);
+            }
+        }
+        try {
+            var digest = MessageDigest.getInstance("SHA-256").digest(builder.toString().getBytes(StandardCharsets.UTF_8));
+            return "W/\"" + HexFormat.of().formatHex(digest, 0, 16) + "\"";
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+}
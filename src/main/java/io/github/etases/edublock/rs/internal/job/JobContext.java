@@ -0,0 +1,83 @@
+package io.github.etases.edublock.rs.internal.job;
+
+import io.github.etases.edublock.rs.entity.Job;
+import io.javalin.json.JsonMapper;
+import lombok.Getter;
+import org.hibernate.Session;
+
+import java.util.List;
+
+/**
+ * The context of a running job
+ */
+public class JobContext {
+    /**
+     * The maximum number of error lines kept in a job
+     */
+    public static final int MAX_ERRORS = 100;
+
+    @Getter
+    private final String id;
+    @Getter
+    private final long requesterId;
+    private final String payload;
+    private final JsonMapper jsonMapper;
+    private volatile long checkpoint;
+
+    JobContext(Job job, JsonMapper jsonMapper) {
+        this.id = job.getId();
+        this.requesterId = job.getRequesterId();
+        this.payload = job.getPayload();
+        this.checkpoint = job.getProcessed();
+        this.jsonMapper = jsonMapper;
+    }
+
+    /**
+     * Get the payload of the job
+     *
+     * @param type the type of the payload
+     * @param <T>  the type of the payload
+     * @return the payload
+     */
+    public <T> T getPayload(Class<T> type) {
+        return jsonMapper.fromJsonString(payload, type);
+    }
+
+    /**
+     * Get the number of the items processed before this run.
+     * The job should continue from this index.
+     *
+     * @return the checkpoint
+     */
+    public long getCheckpoint() {
+        return checkpoint;
+    }
+
+    /**
+     * Record the progress of the job.
+     * This should be called in the transaction that saves the processed items, so that both are committed together.
+     *
+     * @param session   the session of the transaction
+     * @param processed the number of the processed items, including the failed ones
+     * @param errors    the errors of the failed items since the last checkpoint
+     */
+    public void checkpoint(Session session, long processed, List<String> errors) {
+        var job = session.get(Job.class, id);
+        job.setProcessed(processed);
+        job.setFailed(job.getFailed() + errors.size());
+        if (!errors.isEmpty()) {
+            String currentErrors = job.getErrors() == null ? "" : job.getErrors();
+            long currentCount = currentErrors.isEmpty() ? 0 : currentErrors.lines().count();
+            StringBuilder builder = new StringBuilder(currentErrors);
+            for (int i = 0; i < errors.size() && currentCount + i < MAX_ERRORS; i++) {
+                if (!builder.isEmpty()) {
+                    builder.append('\n');
+                }
+                builder.append(errors.get(i));
+            }
+            job.setErrors(builder.toString());
+        }
+        session.update(job);
+        checkpoint = processed;
+    }
+}
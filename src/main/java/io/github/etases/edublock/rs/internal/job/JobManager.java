@@ -0,0 +1,241 @@
+package io.github.etases.edublock.rs.internal.job;
+
+import com.google.inject.Inject;
+import com.google.inject.Singleton;
+import io.github.etases.edublock.rs.config.MainConfig;
+import io.github.etases.edublock.rs.entity.Job;
+import io.javalin.json.JavalinJackson;
+import io.javalin.json.JsonMapper;
+import org.hibernate.SessionFactory;
+import org.tinylog.Logger;
+
+import java.util.*;
+import java.util.concurrent.*;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * The manager of the background jobs.
+ * The jobs are persisted, so the unfinished jobs are resumed from their checkpoint when the server starts again.
+ * The jobs that cannot be queued yet, because the queue is full or their runner is not registered, are kept queued and dispatched later.
+ */
+@Singleton
+public class JobManager {
+    private final SessionFactory sessionFactory;
+    private final ThreadPoolExecutor executor;
+    private final int queueSize;
+    private final Map<String, JobRunner> runners = new ConcurrentHashMap<>();
+    private final Map<String, List<String>> waitingForRunner = new HashMap<>();
+    private final Queue<String> deferred = new ConcurrentLinkedQueue<>();
+    private final JsonMapper jsonMapper = new JavalinJackson();
+
+    @Inject
+    public JobManager(SessionFactory sessionFactory, MainConfig mainConfig) {
+        this.sessionFactory = sessionFactory;
+        int threads = Math.max(1, mainConfig.getJobThreads());
+        this.queueSize = Math.max(1, mainConfig.getJobQueueSize());
+        var threadCount = new AtomicInteger();
+        executor = new ThreadPoolExecutor(
+                threads, threads,
+                0L, TimeUnit.MILLISECONDS,
+                new LinkedBlockingQueue<>(queueSize),
+                runnable -> {
+                    var thread = new Thread(runnable, "job-worker-" + threadCount.incrementAndGet());
+                    thread.setDaemon(true);
+                    return thread;
+                }
+        );
+        Logger.info("Job manager: " + threads + " threads, queue size " + queueSize);
+    }
+
+    /**
+     * Register the runner of a job type
+     *
+     * @param type   the type
+     * @param runner the runner
+     */
+    public void register(String type, JobRunner runner) {
+        List<String> waitingIds;
+        synchronized (waitingForRunner) {
+            runners.put(type, runner);
+            waitingIds = waitingForRunner.remove(type);
+        }
+        if (waitingIds != null) {
+            waitingIds.forEach(this::dispatch);
+            Logger.info("Dispatched " + waitingIds.size() + " jobs waiting for the runner of " + type);
+        }
+    }
+
+    /**
+     * Submit a new job
+     *
+     * @param type        the type of the job
+     * @param requesterId the id of the account submitting the job, 0 if it is submitted from the terminal
+     * @param payload     the payload, which is serialized and stored with the job
+     * @param total       the number of the items to process, 0 if it is unknown
+     * @return the id of the job
+     * @throws RejectedExecutionException if the queue is full
+     */
+    public String submit(String type, long requesterId, Object payload, long total) {
+        if (!runners.containsKey(type)) {
+            throw new IllegalArgumentException("Unknown job type: " + type);
+        }
+        var job = new Job();
+        job.setType(type);
+        job.setStatus(JobStatus.QUEUED.name());
+        job.setRequesterId(requesterId);
+        job.setPayload(jsonMapper.toJsonString(payload, payload.getClass()));
+        job.setTotal(total);
+        job.setCreatedAt(new Date());
+        try (var session = sessionFactory.openSession()) {
+            var transaction = session.beginTransaction();
+            session.save(job);
+            transaction.commit();
+        }
+        String id = job.getId();
+        try {
+            executor.execute(() -> run(id));
+        } catch (RejectedExecutionException e) {
+            try (var session = sessionFactory.openSession()) {
+                var transaction = session.beginTransaction();
+                session.delete(job);
+                transaction.commit();
+            }
+            throw new RejectedExecutionException("The job queue is full", e);
+        }
+        Logger.info("Submitted job " + id + " (" + type + ")");
+        return id;
+    }
+
+    /**
+     * Resume the unfinished jobs.
+     * Call this after the handlers register their runners, the jobs of an unregistered type wait for their runner.
+     */
+    public void resume() {
+        List<String> ids;
+        try (var session = sessionFactory.openSession()) {
+            ids = session.createNamedQuery("Job.findByStatus", Job.class)
+                    .setParameterList("statuses", List.of(JobStatus.QUEUED.name(), JobStatus.RUNNING.name()))
+                    .stream()
+                    .map(Job::getId)
+                    .toList();
+        }
+        ids.forEach(this::dispatch);
+        if (!ids.isEmpty()) {
+            Logger.info("Resumed " + ids.size() + " jobs");
+        }
+    }
+
+    /**
+     * Check if there is a queued or running job of the type
+     *
+     * @param type the type
+     * @return true if there is
+     */
+    public boolean hasUnfinishedJob(String type) {
+        try (var session = sessionFactory.openSession()) {
+            return session.createNamedQuery("Job.findByStatus", Job.class)
+                    .setParameterList("statuses", List.of(JobStatus.QUEUED.name(), JobStatus.RUNNING.name()))
+                    .stream()
+                    .anyMatch(job -> job.getType().equals(type));
+        }
+    }
+
+    /**
+     * Get the number of the running and queued jobs
+     *
+     * @return the number of the jobs
+     */
+    public int getPendingCount() {
+        return executor.getActiveCount() + executor.getQueue().size();
+    }
+
+    /**
+     * Stop the workers. The running jobs are interrupted and will be resumed on the next start.
+     */
+    public void shutdown() {
+        executor.shutdownNow();
+    }
+
+    private void dispatch(String id) {
+        try {
+            executor.execute(() -> run(id));
+        } catch (RejectedExecutionException e) {
+            if (!executor.isShutdown()) {
+                deferred.add(id);
+            }
+        }
+    }
+
+    private void dispatchDeferred() {
+        int free = queueSize - executor.getQueue().size();
+        for (int i = 0; i < free; i++) {
+            String id = deferred.poll();
+            if (id == null) {
+                return;
+            }
+            dispatch(id);
+        }
+    }
+
+    private void run(String id) {
+        try {
+            runJob(id);
+        } finally {
+            dispatchDeferred();
+        }
+    }
+
+    private void runJob(String id) {
+        JobContext context;
+        JobRunner runner;
+        try (var session = sessionFactory.openSession()) {
+            var job = session.get(Job.class, id);
+            if (job == null || JobStatus.valueOf(job.getStatus()).isFinished()) {
+                return;
+            }
+            synchronized (waitingForRunner) {
+                runner = runners.get(job.getType());
+                if (runner == null) {
+                    waitingForRunner.computeIfAbsent(job.getType(), type -> new ArrayList<>()).add(id);
+                    Logger.warn("Job " + id + " waits for the runner of " + job.getType());
+                    return;
+                }
+            }
+            var transaction = session.beginTransaction();
+            job.setStatus(JobStatus.RUNNING.name());
+            if (job.getStartedAt() == null) {
+                job.setStartedAt(new Date());
+            }
+            session.update(job);
+            transaction.commit();
+            context = new JobContext(job, jsonMapper);
+        }
+
+        JobStatus status;
+        String message;
+        try {
+            runner.run(context);
+            status = JobStatus.COMPLETED;
+            message = null;
+        } catch (Exception e) {
+            if (executor.isShutdown()) {
+                Logger.info("Job " + id + " is interrupted at " + context.getCheckpoint() + ", it will be resumed on the next start");
+                return;
+            }
+            Logger.error(e, "Job " + id + " failed");
+            status = JobStatus.FAILED;
+            message = e.getMessage();
+        }
+
+        try (var session = sessionFactory.openSession()) {
+            var transaction = session.beginTransaction();
+            var job = session.get(Job.class, id);
+            job.setStatus(status.name());
+            job.setMessage(message == null ? null : message.substring(0, Math.min(message.length(), 1024)));
+            job.setFinishedAt(new Date());
+            session.update(job);
+            transaction.commit();
+        }
+        Logger.info("Job " + id + " " + status.name().toLowerCase());
+    }
+}
@@ -0,0 +1,15 @@
+package io.github.etases.edublock.rs.internal.job;
+
+/**
+ * The worker of a job type
+ */
+@FunctionalInterface
+public interface JobRunner {
+    /**
+     * Run the job from its checkpoint
+     *
+     * @param context the context of the job
+     * @throws Exception if the job fails
+     */
+    void run(JobContext context) throws Exception;
+}
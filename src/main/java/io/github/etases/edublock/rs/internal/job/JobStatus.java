@@ -0,0 +1,32 @@
+package io.github.etases.edublock.rs.internal.job;
+
+/**
+ * The status of a job
+ */
+public enum JobStatus {
+    /**
+     * Waiting for a worker
+     */
+    QUEUED,
+    /**
+     * Being processed by a worker, or interrupted by a shutdown and waiting to be resumed
+     */
+    RUNNING,
+    /**
+     * Finished, the errors of the failed items are recorded in the job
+     */
+    COMPLETED,
+    /**
+     * Stopped by an unexpected exception
+     */
+    FAILED;
+
+    /**
+     * Check if the job is finished
+     *
+     * @return true if it is
+     */
+    public boolean isFinished() {
+        return this == COMPLETED || this == FAILED;
+    }
+}
@@ -0,0 +1,195 @@
+package io.github.etases.edublock.rs.internal.json;
+
+import com.google.inject.Inject;
+import com.google.inject.Singleton;
+import io.github.etases.edublock.rs.config.MainConfig;
+import io.javalin.http.Context;
+import org.jetbrains.annotations.Nullable;
+
+import java.io.ByteArrayOutputStream;
+import java.io.FilterOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.util.HashSet;
+import java.util.Locale;
+import java.util.Set;
+import java.util.zip.DeflaterOutputStream;
+import java.util.zip.GZIPOutputStream;
+
+/**
+ * The compression of the response bodies, with gzip or deflate depending on the {@code Accept-Encoding} header of the request
+ */
+@Singleton
+public class ResponseCompression {
+    public static final String IDENTITY = "identity";
+    private static final String GZIP = "gzip";
+    private static final String DEFLATE = "deflate";
+    private static final String STREAM_ATTRIBUTE = "response-compression-stream";
+
+    private final int threshold;
+
+    @Inject
+    public ResponseCompression(MainConfig mainConfig) {
+        threshold = mainConfig.getServerProperties().compressionThreshold();
+    }
+
+    /**
+     * Select the encoding from the {@code Accept-Encoding} header, gzip is preferred over deflate
+     *
+     * @param acceptEncoding the header
+     * @return the encoding, or null if the client accepts neither
+     */
+    @Nullable
+    static String selectEncoding(@Nullable String acceptEncoding) {
+        if (acceptEncoding == null || acceptEncoding.isBlank()) {
+            return null;
+        }
+        Set<String> accepted = new HashSet<>();
+        Set<String> rejected = new HashSet<>();
+        for (String part : acceptEncoding.split(",")) {
+            String[] params = part.split(";");
+            String name = params[0].trim().toLowerCase(Locale.ROOT);
+            if (isRejected(params)) {
+                rejected.add(name);
+            } else {
+                accepted.add(name);
+            }
+        }
+        if (accepted.contains(GZIP)) {
+            return GZIP;
+        }
+        if (accepted.contains(DEFLATE)) {
+            return DEFLATE;
+        }
+        if (accepted.contains("*")) {
+            if (!rejected.contains(GZIP)) {
+                return GZIP;
+            }
+            if (!rejected.contains(DEFLATE)) {
+                return DEFLATE;
+            }
+        }
+        return null;
+    }
+
+    private static boolean isRejected(String[] params) {
+        for (int i = 1; i < params.length; i++) {
+            String param = params[i].trim();
+            if (param.startsWith("q=")) {
+                try {
+                    return Double.parseDouble(param.substring(2)) <= 0;
+                } catch (NumberFormatException e) {
+                    return true;
+                }
+            }
+        }
+        return false;
+    }
+
+    private static boolean isCompressible(@Nullable String contentType) {
+        return contentType != null && (contentType.contains("json") || contentType.startsWith("text/"));
+    }
+
+    private static OutputStream wrap(OutputStream outputStream, String encoding) throws IOException {
+        return GZIP.equals(encoding) ? new GZIPOutputStream(outputStream, 8192) : new DeflaterOutputStream(outputStream);
+    }
+
+    private static byte[] compress(byte[] body, String encoding) throws IOException {
+        var bytes = new ByteArrayOutputStream(Math.max(64, body.length / 4));
+        try (var outputStream = wrap(bytes, encoding)) {
+            outputStream.write(body);
+        }
+        return bytes.toByteArray();
+    }
+
+    /**
+     * Open the output stream to write a streamed response body.
+     * The body is compressed whenever the client accepts it, since its size is not known beforehand.
+     * Close the stream after writing, so that the compressed body is finished.
+     *
+     * @param ctx the context
+     * @return the output stream
+     * @throws IOException if the output stream of the response cannot be opened
+     */
+    public OutputStream openOutputStream(Context ctx) throws IOException {
+        var countingStream = new CountingOutputStream(ctx.res().getOutputStream());
+        ctx.attribute(STREAM_ATTRIBUTE, countingStream);
+        if (threshold < 0) {
+            return countingStream;
+        }
+        ctx.res().addHeader("Vary", "Accept-Encoding");
+        String encoding = selectEncoding(ctx.header("Accept-Encoding"));
+        if (encoding == null) {
+            return countingStream;
+        }
+        ctx.header("Content-Encoding", encoding);
+        countingStream.encoding = encoding;
+        return wrap(countingStream, encoding);
+    }
+
+    /**
+     * Compress the result of the response if it is text, at least as large as the threshold and the client accepts it.
+     * Call this after the handler, before the result is written.
+     *
+     * @param ctx the context
+     * @return the body written to the response, or null if it is neither text nor streamed with {@link #openOutputStream(Context)}
+     * @throws IOException if the result cannot be read
+     */
+    @Nullable
+    public EncodedBody encode(Context ctx) throws IOException {
+        CountingOutputStream countingStream = ctx.attribute(STREAM_ATTRIBUTE);
+        if (countingStream != null) {
+            return new EncodedBody(countingStream.encoding, countingStream.count);
+        }
+
+        InputStream result = ctx.resultInputStream();
+        if (result == null || !isCompressible(ctx.res().getContentType())) {
+            return null;
+        }
+        byte[] body = result.readAllBytes();
+        String encoding = null;
+        if (threshold >= 0) {
+            ctx.res().addHeader("Vary", "Accept-Encoding");
+            if (body.length >= threshold && ctx.res().getHeader("Content-Encoding") == null) {
+                encoding = selectEncoding(ctx.header("Accept-Encoding"));
+            }
+        }
+        if (encoding != null) {
+            body = compress(body, encoding);
+            ctx.header("Content-Encoding", encoding);
+        }
+        ctx.result(body);
+        return new EncodedBody(encoding == null ? IDENTITY : encoding, body.length);
+    }
+
+    /**
+     * The body written to the response
+     *
+     * @param encoding the content encoding, {@link #IDENTITY} if it is not compressed
+     * @param bytes    the number of the bytes on the wire
+     */
+    public record EncodedBody(String encoding, long bytes) {
+    }
+
+    private static final class CountingOutputStream extends FilterOutputStream {
+        private String encoding = IDENTITY;
+        private long count;
+
+        private CountingOutputStream(OutputStream outputStream) {
+            super(outputStream);
+        }
+
+        @Override
+        public void write(int b) throws IOException {
+            out.write(b);
+            count++;
+        }
+
+        @Override
+        public void write(byte[] b, int off, int len) throws IOException {
+            out.write(b, off, len);
+            count += len;
+        }
+    }
+}
@@ -0,0 +1,172 @@
+package io.github.etases.edublock.rs.internal.json;
+
+import com.fasterxml.jackson.databind.JavaType;
+import com.fasterxml.jackson.databind.JsonMappingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectReader;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import com.fasterxml.jackson.module.blackbird.BlackbirdModule;
+import com.google.inject.Singleton;
+import io.javalin.json.JsonMapper;
+import org.jetbrains.annotations.NotNull;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+import java.lang.management.ManagementFactory;
+import java.lang.management.ThreadMXBean;
+import java.lang.reflect.Type;
+import java.nio.charset.StandardCharsets;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.stream.Stream;
+
+/**
+ * The JSON mapper of the server.
+ * It uses the generated accessors of Blackbird instead of reflection, and keeps a reader and a writer for each type so that their serializers are only looked up once.
+ * The CPU time spent on writing is added up per thread, see {@link #takeSerializationNanos()}.
+ */
+@Singleton
+public class ResponseJsonMapper implements JsonMapper {
+    private static final ThreadMXBean THREAD_BEAN = ManagementFactory.getThreadMXBean();
+    private static final boolean CPU_TIME_SUPPORTED = THREAD_BEAN.isCurrentThreadCpuTimeSupported();
+    private static final ThreadLocal<long[]> serializationNanos = ThreadLocal.withInitial(() -> new long[1]);
+
+    private final ObjectMapper mapper = new ObjectMapper()
+            .findAndRegisterModules()
+            .registerModule(new BlackbirdModule());
+    private final Map<Type, ObjectWriter> writers = new ConcurrentHashMap<>();
+    private final Map<Type, ObjectReader> readers = new ConcurrentHashMap<>();
+
+    private static long currentTime() {
+        if (CPU_TIME_SUPPORTED) {
+            try {
+                long cpuTime = THREAD_BEAN.getCurrentThreadCpuTime();
+                if (cpuTime >= 0) {
+                    return cpuTime;
+                }
+            } catch (UnsupportedOperationException ignored) {
+                // The CPU time is not supported for the virtual threads, use the wall time instead
+            }
+        }
+        return System.nanoTime();
+    }
+
+    private static void addSerializationNanos(long startTime) {
+        serializationNanos.get()[0] += currentTime() - startTime;
+    }
+
+    /**
+     * Get and reset the time spent on writing JSON in the current thread.
+     * The time is the CPU time of the thread if it is supported, otherwise the wall time.
+     *
+     * @return the time in nanoseconds
+     */
+    public static long takeSerializationNanos() {
+        long[] nanos = serializationNanos.get();
+        long value = nanos[0];
+        nanos[0] = 0;
+        return value;
+    }
+
+    private ObjectWriter getWriter(Type type) {
+        return writers.computeIfAbsent(type, key -> mapper.writerFor(mapper.constructType(key)));
+    }
+
+    private ObjectReader getReader(Type type) {
+        return readers.computeIfAbsent(type, key -> mapper.readerFor(mapper.constructType(key)));
+    }
+
+    /**
+     * Create the writer of the type and look up its serializer, so the first response of the type does not pay for it
+     *
+     * @param type the type
+     * @return true if the serializer is found
+     */
+    public boolean warmUp(Type type) {
+        JavaType javaType = mapper.constructType(type);
+        getWriter(type);
+        try {
+            mapper.getSerializerProviderInstance().findTypedValueSerializer(javaType, true, null);
+            return true;
+        } catch (JsonMappingException e) {
+            return false;
+        }
+    }
+
+    @NotNull
+    @Override
+    public String toJsonString(@NotNull Object obj, @NotNull Type type) {
+        if (obj instanceof String string) {
+            return string;
+        }
+        long startTime = currentTime();
+        try {
+            return getWriter(type).writeValueAsString(obj);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        } finally {
+            addSerializationNanos(startTime);
+        }
+    }
+
+    @NotNull
+    @Override
+    public InputStream toJsonStream(@NotNull Object obj, @NotNull Type type) {
+        if (obj instanceof String string) {
+            return new ByteArrayInputStream(string.getBytes(StandardCharsets.UTF_8));
+        }
+        long startTime = currentTime();
+        try {
+            return new ByteArrayInputStream(getWriter(type).writeValueAsBytes(obj));
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        } finally {
+            addSerializationNanos(startTime);
+        }
+    }
+
+    @Override
+    public void writeToOutputStream(@NotNull Stream<?> stream, @NotNull OutputStream outputStream) {
+        long startTime = currentTime();
+        try (var generator = mapper.getFactory().createGenerator(outputStream)) {
+            generator.writeStartArray();
+            var iterator = stream.iterator();
+            while (iterator.hasNext()) {
+                Object item = iterator.next();
+                if (item == null) {
+                    generator.writeNull();
+                } else {
+                    getWriter(item.getClass()).writeValue(generator, item);
+                }
+            }
+            generator.writeEndArray();
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        } finally {
+            addSerializationNanos(startTime);
+        }
+    }
+
+    @NotNull
+    @Override
+    public <T> T fromJsonString(@NotNull String json, @NotNull Type targetType) {
+        try {
+            return getReader(targetType).readValue(json);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    @NotNull
+    @Override
+    public <T> T fromJsonStream(@NotNull InputStream json, @NotNull Type targetType) {
+        try {
+            return getReader(targetType).readValue(json);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+}
@@ -18,19 +18,25 @@ import org.jetbrains.annotations.NotNull;
 import java.util.Map;
 import java.util.Optional;
 import java.util.Set;
+import java.util.concurrent.TimeUnit;
 
 public class JwtProvider {
+    private static final int TOKEN_CACHE_SIZE = 10000;
+    private static final long TOKEN_CACHE_MAX_AGE_MILLIS = TimeUnit.MINUTES.toMillis(5);
     private final Algorithm algorithm;
     private final JWTVerifier verifier;
     private final String userRoleClaim;
     @Getter
     private final JwtProperties properties;
+    @Getter
+    private final VerifiedTokenCache tokenCache;
 
     public JwtProvider(String userRoleClaim, JwtProperties properties) {
         this.userRoleClaim = userRoleClaim;
         this.properties = properties;
         this.algorithm = Algorithm.HMAC256(properties.secret());
         this.verifier = JWT.require(algorithm).build();
+        this.tokenCache = new VerifiedTokenCache(TOKEN_CACHE_SIZE, TOKEN_CACHE_MAX_AGE_MILLIS);
     }
 
     public String generateToken(JWTCreator.Builder builder) {
@@ -80,7 +86,7 @@ public class JwtProvider {
 
     public Handler createHeaderDecodeHandler() {
         return context -> JwtUtil.getTokenFromHeader(context)
-                .flatMap(this::validateToken)
+                .flatMap(token -> tokenCache.get(token, this::validateToken))
                 .ifPresent(jwt -> JwtUtil.addDecodedToContext(context, jwt));
     }
 }
@@ -0,0 +1,153 @@
+package io.github.etases.edublock.rs.internal.jwt;
+
+import com.auth0.jwt.interfaces.DecodedJWT;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.Base64;
+import java.util.Comparator;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Function;
+
+/**
+ * A bounded cache of verified tokens, keyed by the SHA-256 digest of the raw token.
+ * An entry never outlives the expiry of its token.
+ * <p>
+ * The eviction is approximate, so that a cache hit never takes a lock:
+ * when the cache grows over its maximum size, one thread drops the expired entries,
+ * then the least recently used entries until the cache is back under 90% of its maximum size.
+ * The last access of an entry is only updated once per second.
+ */
+public class VerifiedTokenCache {
+    private static final long ACCESS_RESOLUTION_MILLIS = 1000;
+    private static final ThreadLocal<MessageDigest> digestThreadLocal = ThreadLocal.withInitial(() -> {
+        try {
+            return MessageDigest.getInstance("SHA-256");
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException(e);
+        }
+    });
+    private final int maximumSize;
+    private final int evictionTargetSize;
+    private final long maximumAgeMillis;
+    private final ConcurrentHashMap<String, Entry> entries = new ConcurrentHashMap<>();
+    private final AtomicBoolean evicting = new AtomicBoolean();
+    private final LongAdder hitCount = new LongAdder();
+    private final LongAdder missCount = new LongAdder();
+    private final LongAdder evictionCount = new LongAdder();
+
+    public VerifiedTokenCache(int maximumSize, long maximumAgeMillis) {
+        this.maximumSize = maximumSize;
+        this.evictionTargetSize = Math.max(1, maximumSize - maximumSize / 10);
+        this.maximumAgeMillis = maximumAgeMillis;
+    }
+
+    private static String digest(String token) {
+        var digest = digestThreadLocal.get();
+        return Base64.getEncoder().encodeToString(digest.digest(token.getBytes(StandardCharsets.UTF_8)));
+    }
+
+    /**
+     * Get the verified token from the cache, or verify and cache it
+     *
+     * @param token    the raw token
+     * @param verifier the verifier, called on a cache miss
+     * @return the decoded token, or empty if the token is invalid
+     */
+    public Optional<DecodedJWT> get(String token, Function<String, Optional<DecodedJWT>> verifier) {
+        var key = digest(token);
+        long now = System.currentTimeMillis();
+        var entry = entries.get(key);
+        if (entry != null) {
+            if (entry.expireTime > now) {
+                entry.access(now);
+                hitCount.increment();
+                return Optional.of(entry.jwt);
+            }
+            entries.remove(key, entry);
+        }
+
+        missCount.increment();
+        var optionalJwt = verifier.apply(token);
+        optionalJwt.ifPresent(jwt -> {
+            long expireTime = now + maximumAgeMillis;
+            if (jwt.getExpiresAt() != null) {
+                expireTime = Math.min(expireTime, jwt.getExpiresAt().getTime());
+            }
+            if (expireTime > now) {
+                entries.put(key, new Entry(jwt, expireTime, now));
+                if (entries.size() > maximumSize) {
+                    evict(now);
+                }
+            }
+        });
+        return optionalJwt;
+    }
+
+    private void evict(long now) {
+        // Only one thread evicts, the others keep adding and catch up on the next eviction
+        if (!evicting.compareAndSet(false, true)) {
+            return;
+        }
+        try {
+            entries.values().removeIf(entry -> entry.expireTime <= now);
+            int excess = entries.size() - evictionTargetSize;
+            if (excess <= 0) {
+                return;
+            }
+            // Take the access times first, since they may change while sorting
+            entries.entrySet().stream()
+                    .map(mapEntry -> new EvictionCandidate(mapEntry.getKey(), mapEntry.getValue(), mapEntry.getValue().lastAccess))
+                    .sorted(Comparator.comparingLong(EvictionCandidate::lastAccess))
+                    .limit(excess)
+                    .forEach(candidate -> {
+                        if (entries.remove(candidate.key(), candidate.entry())) {
+                            evictionCount.increment();
+                        }
+                    });
+        } finally {
+            evicting.set(false);
+        }
+    }
+
+    public void clear() {
+        entries.clear();
+    }
+
+    /**
+     * Get the snapshot of the statistics
+     *
+     * @return the statistics
+     */
+    public Statistics getStatistics() {
+        return new Statistics(entries.size(), hitCount.sum(), missCount.sum(), evictionCount.sum());
+    }
+
+    private static final class Entry {
+        private final DecodedJWT jwt;
+        private final long expireTime;
+        private volatile long lastAccess;
+
+        private Entry(DecodedJWT jwt, long expireTime, long lastAccess) {
+            this.jwt = jwt;
+            this.expireTime = expireTime;
+            this.lastAccess = lastAccess;
+        }
+
+        private void access(long now) {
+            if (now - lastAccess >= ACCESS_RESOLUTION_MILLIS) {
+                lastAccess = now;
+            }
+        }
+    }
+
+    private record EvictionCandidate(String key, Entry entry, long lastAccess) {
+    }
+
+    public record Statistics(int size, long hits, long misses, long evictions) {
+    }
+}
@@ -0,0 +1,39 @@
+package io.github.etases.edublock.rs.internal.metrics;
+
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * A monotonic counter
+ */
+public class Counter {
+    private final LongAdder value = new LongAdder();
+
+    Counter() {
+        // EMPTY
+    }
+
+    /**
+     * Increase the counter by one
+     */
+    public void increment() {
+        value.increment();
+    }
+
+    /**
+     * Increase the counter
+     *
+     * @param amount the amount
+     */
+    public void add(long amount) {
+        value.add(amount);
+    }
+
+    /**
+     * Get the current value
+     *
+     * @return the value
+     */
+    public long get() {
+        return value.sum();
+    }
+}
@@ -0,0 +1,56 @@
+package io.github.etases.edublock.rs.internal.metrics;
+
+import java.util.concurrent.atomic.DoubleAdder;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * A histogram of durations in seconds, with fixed buckets
+ */
+public class Histogram {
+    static final double[] BUCKETS = {0.005, 0.01, 0.025, 0.05, 0.1, 0.25, 0.5, 1, 2.5, 5, 10};
+
+    private final LongAdder[] bucketCounts = new LongAdder[BUCKETS.length];
+    private final LongAdder count = new LongAdder();
+    private final DoubleAdder sum = new DoubleAdder();
+
+    Histogram() {
+        for (int i = 0; i < bucketCounts.length; i++) {
+            bucketCounts[i] = new LongAdder();
+        }
+    }
+
+    /**
+     * Record a duration
+     *
+     * @param nanos the duration in nanoseconds
+     */
+    public void observeNanos(long nanos) {
+        double seconds = nanos / 1e9;
+        for (int i = 0; i < BUCKETS.length; i++) {
+            if (seconds <= BUCKETS[i]) {
+                bucketCounts[i].increment();
+                break;
+            }
+        }
+        count.increment();
+        sum.add(seconds);
+    }
+
+    long[] getCumulativeCounts() {
+        long[] counts = new long[BUCKETS.length];
+        long cumulative = 0;
+        for (int i = 0; i < BUCKETS.length; i++) {
+            cumulative += bucketCounts[i].sum();
+            counts[i] = cumulative;
+        }
+        return counts;
+    }
+
+    long getCount() {
+        return count.sum();
+    }
+
+    double getSum() {
+        return sum.sum();
+    }
+}
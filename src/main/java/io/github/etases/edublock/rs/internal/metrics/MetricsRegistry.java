@@ -0,0 +1,149 @@
+package io.github.etases.edublock.rs.internal.metrics;
+
+import com.google.inject.Singleton;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentSkipListMap;
+import java.util.function.DoubleSupplier;
+import java.util.function.Function;
+
+/**
+ * The registry of the runtime metrics, written in the Prometheus text exposition format.
+ * Recording a metric only touches a striped counter, so the registry is cheap enough to always be enabled.
+ */
+@Singleton
+public class MetricsRegistry {
+    private final Map<String, Family> families = new ConcurrentSkipListMap<>();
+
+    private static String formatLabels(String[] labels) {
+        if (labels.length == 0) {
+            return "";
+        }
+        if (labels.length % 2 != 0) {
+            throw new IllegalArgumentException("The labels must be pairs of name and value");
+        }
+        StringBuilder builder = new StringBuilder("{");
+        for (int i = 0; i < labels.length; i += 2) {
+            if (i > 0) {
+                builder.append(',');
+            }
+            builder.append(labels[i]).append("=\"").append(escape(labels[i + 1])).append('"');
+        }
+        return builder.append('}').toString();
+    }
+
+    private static String escape(String value) {
+        return value.replace("\\", "\\\\").replace("\"", "\\\"").replace("\n", "\\n");
+    }
+
+    private static String formatValue(double value) {
+        if (value == (long) value) {
+            return Long.toString((long) value);
+        }
+        return Double.toString(value);
+    }
+
+    private static String withLabel(String labels, String name, String value) {
+        String label = name + "=\"" + value + "\"";
+        return labels.isEmpty() ? "{" + label + "}" : labels.substring(0, labels.length() - 1) + "," + label + "}";
+    }
+
+    @SuppressWarnings("unchecked")
+    private <T> T getOrCreate(String name, String help, String type, String[] labels, Function<String, Object> creator) {
+        var family = families.computeIfAbsent(name, key -> new Family(help, type));
+        if (!family.type.equals(type)) {
+            throw new IllegalArgumentException("The metric " + name + " is already registered as " + family.type);
+        }
+        return (T) family.metrics.computeIfAbsent(formatLabels(labels), creator);
+    }
+
+    /**
+     * Get or create a counter
+     *
+     * @param name   the name of the metric
+     * @param help   the description of the metric
+     * @param labels the labels, as pairs of name and value
+     * @return the counter
+     */
+    public Counter counter(String name, String help, String... labels) {
+        return getOrCreate(name, help, "counter", labels, key -> new Counter());
+    }
+
+    /**
+     * Get or create a histogram of durations
+     *
+     * @param name   the name of the metric, which should end with "_seconds"
+     * @param help   the description of the metric
+     * @param labels the labels, as pairs of name and value
+     * @return the histogram
+     */
+    public Histogram histogram(String name, String help, String... labels) {
+        return getOrCreate(name, help, "histogram", labels, key -> new Histogram());
+    }
+
+    /**
+     * Register a gauge, whose value is read when the metrics are written
+     *
+     * @param name     the name of the metric
+     * @param help     the description of the metric
+     * @param supplier the supplier of the value
+     * @param labels   the labels, as pairs of name and value
+     */
+    public void gauge(String name, String help, DoubleSupplier supplier, String... labels) {
+        getOrCreate(name, help, "gauge", labels, key -> supplier);
+    }
+
+    /**
+     * Register a counter whose value is maintained elsewhere and read when the metrics are written
+     *
+     * @param name     the name of the metric
+     * @param help     the description of the metric
+     * @param supplier the supplier of the value
+     * @param labels   the labels, as pairs of name and value
+     */
+    public void counterFunction(String name, String help, DoubleSupplier supplier, String... labels) {
+        getOrCreate(name, help, "counter", labels, key -> supplier);
+    }
+
+    /**
+     * Write all metrics in the text exposition format
+     *
+     * @return the text
+     */
+    public String write() {
+        StringBuilder builder = new StringBuilder();
+        families.forEach((name, family) -> {
+            builder.append("# HELP ").append(name).append(' ').append(family.help).append('\n');
+            builder.append("# TYPE ").append(name).append(' ').append(family.type).append('\n');
+            family.metrics.forEach((labels, metric) -> {
+                if (metric instanceof Counter counter) {
+                    builder.append(name).append(labels).append(' ').append(counter.get()).append('\n');
+                } else if (metric instanceof DoubleSupplier supplier) {
+                    builder.append(name).append(labels).append(' ').append(formatValue(supplier.getAsDouble())).append('\n');
+                } else if (metric instanceof Histogram histogram) {
+                    long[] counts = histogram.getCumulativeCounts();
+                    for (int i = 0; i < counts.length; i++) {
+                        builder.append(name).append("_bucket").append(withLabel(labels, "le", formatValue(Histogram.BUCKETS[i]))).append(' ').append(counts[i]).append('\n');
+                    }
+                    long count = histogram.getCount();
+                    builder.append(name).append("_bucket").append(withLabel(labels, "le", "+Inf")).append(' ').append(count).append('\n');
+                    builder.append(name).append("_sum").append(labels).append(' ').append(formatValue(histogram.getSum())).append('\n');
+                    builder.append(name).append("_count").append(labels).append(' ').append(count).append('\n');
+                }
+            });
+        });
+        return builder.toString();
+    }
+
+    private static final class Family {
+        private final String help;
+        private final String type;
+        private final Map<String, Object> metrics = new ConcurrentHashMap<>();
+
+        private Family(String help, String type) {
+            this.help = help;
+            this.type = type;
+        }
+    }
+}
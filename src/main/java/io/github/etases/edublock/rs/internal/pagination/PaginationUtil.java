@@ -10,14 +10,35 @@ import java.util.List;
 @UtilityClass
 public final class PaginationUtil {
     public static <T> Pair<List<T>, PaginationInfo> getPagedList(List<T> list, PaginationParameter parameter) {
+        int totalEntries = list.size();
+        int fromIndex = Math.min(getFirstResult(parameter), totalEntries);
+        int toIndex = Math.min(fromIndex + parameter.getPageSize(), totalEntries);
+        return Pair.of(list.subList(fromIndex, toIndex), getPaginationInfo(totalEntries, parameter));
+    }
+
+    /**
+     * Get the index of the first entry of the page, to page in the query
+     *
+     * @param parameter the pagination parameter
+     * @return the index
+     */
+    public static int getFirstResult(PaginationParameter parameter) {
+        return (int) Math.min(Integer.MAX_VALUE, (parameter.getPageNumber() - 1L) * parameter.getPageSize());
+    }
+
+    /**
+     * Get the pagination info of the page, when the entries are counted in the query
+     *
+     * @param totalEntries the number of all the entries
+     * @param parameter    the pagination parameter
+     * @return the pagination info
+     */
+    public static PaginationInfo getPaginationInfo(int totalEntries, PaginationParameter parameter) {
         int pageSize = parameter.getPageSize();
         int pageNumber = parameter.getPageNumber();
-        int totalEntries = list.size();
         int totalPages = (int) Math.ceil(totalEntries / (double) pageSize);
-        int fromIndex = Math.min((pageNumber - 1) * pageSize, totalEntries);
-        int toIndex = Math.min(fromIndex + pageSize, totalEntries);
         boolean hasNextPage = pageNumber < totalPages;
         boolean hasPreviousPage = pageNumber > 1;
-        return Pair.of(list.subList(fromIndex, toIndex), new PaginationInfo(totalPages, totalEntries, pageNumber, pageSize, hasPreviousPage, hasNextPage));
+        return new PaginationInfo(totalPages, totalEntries, pageNumber, pageSize, hasPreviousPage, hasNextPage);
     }
 }
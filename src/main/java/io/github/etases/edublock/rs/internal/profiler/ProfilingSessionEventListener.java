@@ -0,0 +1,34 @@
+package io.github.etases.edublock.rs.internal.profiler;
+
+import org.hibernate.BaseSessionEventListener;
+
+/**
+ * The session event listener that adds the execution time of the statements to the current request.
+ * A new listener is created for each session.
+ */
+public class ProfilingSessionEventListener extends BaseSessionEventListener {
+    private long executeStart;
+    private long batchStart;
+
+    @Override
+    public void jdbcExecuteStatementStart() {
+        executeStart = System.nanoTime();
+    }
+
+    @Override
+    public void jdbcExecuteStatementEnd() {
+        long elapsed = System.nanoTime() - executeStart;
+        RequestProfiler.current().ifPresent(profile -> profile.onExecuted(elapsed));
+    }
+
+    @Override
+    public void jdbcExecuteBatchStart() {
+        batchStart = System.nanoTime();
+    }
+
+    @Override
+    public void jdbcExecuteBatchEnd() {
+        long elapsed = System.nanoTime() - batchStart;
+        RequestProfiler.current().ifPresent(profile -> profile.onExecuted(elapsed));
+    }
+}
@@ -0,0 +1,14 @@
+package io.github.etases.edublock.rs.internal.profiler;
+
+import org.hibernate.resource.jdbc.spi.StatementInspector;
+
+/**
+ * The statement inspector that counts the statements of the current request
+ */
+public class ProfilingStatementInspector implements StatementInspector {
+    @Override
+    public String inspect(String sql) {
+        RequestProfiler.current().ifPresent(profile -> profile.onStatement(sql));
+        return sql;
+    }
+}
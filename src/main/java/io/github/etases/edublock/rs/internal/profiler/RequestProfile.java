@@ -0,0 +1,76 @@
+package io.github.etases.edublock.rs.internal.profiler;
+
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * The SQL statements executed while handling a request
+ */
+public class RequestProfile {
+    private final long startTime = System.nanoTime();
+    private final Map<String, Integer> statementCounts = new HashMap<>();
+    private int statementCount;
+    private long databaseNanos;
+
+    void onStatement(String sql) {
+        statementCount++;
+        statementCounts.merge(sql, 1, Integer::sum);
+    }
+
+    void onExecuted(long nanos) {
+        databaseNanos += nanos;
+    }
+
+    /**
+     * Get the time elapsed since the request started
+     *
+     * @return the elapsed time in nanoseconds
+     */
+    public long getElapsedNanos() {
+        return System.nanoTime() - startTime;
+    }
+
+    /**
+     * Get the number of the statements
+     *
+     * @return the number of the statements
+     */
+    public int getStatementCount() {
+        return statementCount;
+    }
+
+    /**
+     * Get the number of the distinct statements
+     *
+     * @return the number of the distinct statements
+     */
+    public int getDistinctStatementCount() {
+        return statementCounts.size();
+    }
+
+    /**
+     * Get the total execution time of the statements
+     *
+     * @return the time in nanoseconds
+     */
+    public long getDatabaseNanos() {
+        return databaseNanos;
+    }
+
+    /**
+     * Get the statements that are executed at least the threshold times, which are likely N+1 queries
+     *
+     * @param threshold the threshold
+     * @param limit     the maximum number of the statements
+     * @return the statements and their counts, the most repeated first
+     */
+    public List<Map.Entry<String, Integer>> getRepeatedStatements(int threshold, int limit) {
+        return statementCounts.entrySet().stream()
+                .filter(entry -> entry.getValue() >= threshold)
+                .sorted(Map.Entry.<String, Integer>comparingByValue().reversed())
+                .limit(limit)
+                .map(entry -> Map.entry(entry.getKey(), entry.getValue()))
+                .toList();
+    }
+}
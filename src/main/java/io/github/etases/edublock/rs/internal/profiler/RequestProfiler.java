@@ -0,0 +1,42 @@
+package io.github.etases.edublock.rs.internal.profiler;
+
+import lombok.experimental.UtilityClass;
+
+import java.util.Optional;
+
+/**
+ * The holder of the profile of the request handled by the current thread.
+ * The statements run by other threads, such as the futures of the updater, are not attributed to the request.
+ */
+@UtilityClass
+public class RequestProfiler {
+    private static final ThreadLocal<RequestProfile> CURRENT = new ThreadLocal<>();
+
+    /**
+     * Start a new profile on the current thread
+     *
+     * @return the profile
+     */
+    public static RequestProfile start() {
+        var profile = new RequestProfile();
+        CURRENT.set(profile);
+        return profile;
+    }
+
+    /**
+     * Stop profiling on the current thread.
+     * Call this on the thread that started the profile, the profile itself is kept by the request.
+     */
+    public static void stop() {
+        CURRENT.remove();
+    }
+
+    /**
+     * Get the profile of the current thread
+     *
+     * @return the profile, or empty if the thread is not handling a request
+     */
+    public static Optional<RequestProfile> current() {
+        return Optional.ofNullable(CURRENT.get());
+    }
+}
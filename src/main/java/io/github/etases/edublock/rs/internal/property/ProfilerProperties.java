@@ -0,0 +1,25 @@
+package io.github.etases.edublock.rs.internal.property;
+
+import java.util.Map;
+import java.util.Objects;
+
+public record ProfilerProperties(boolean enabled, long slowRequestMillis, int repeatThreshold,
+                                 double sampleRate) {
+    public static ProfilerProperties fromMap(Map<?, ?> map) {
+        return new ProfilerProperties(
+                Boolean.parseBoolean(Objects.toString(map.get("enabled"), "true")),
+                Long.parseLong(Objects.toString(map.get("slow-request-millis"), "1000")),
+                Integer.parseInt(Objects.toString(map.get("repeat-threshold"), "10")),
+                Double.parseDouble(Objects.toString(map.get("sample-rate"), "1.0"))
+        );
+    }
+
+    public Map<String, Object> toMap() {
+        return Map.of(
+                "enabled", enabled,
+                "slow-request-millis", slowRequestMillis,
+                "repeat-threshold", repeatThreshold,
+                "sample-rate", sampleRate
+        );
+    }
+}
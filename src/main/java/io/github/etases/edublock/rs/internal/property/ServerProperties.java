@@ -5,14 +5,20 @@ import java.util.Map;
 import java.util.Objects;
 
 public record ServerProperties(String host, int port, boolean devMode, boolean bypassCors,
-                               List<String> allowedOrigins) {
+                               List<String> allowedOrigins, String threadMode, int minThreads, int maxThreads,
+                               int queueSize, int compressionThreshold) {
     public static ServerProperties fromMap(Map<?, ?> map) {
         return new ServerProperties(
                 Objects.toString(map.get("host"), ""),
                 Integer.parseInt(Objects.toString(map.get("port"), "7070")),
                 Boolean.parseBoolean(Objects.toString(map.get("dev-mode"), "true")),
                 Boolean.parseBoolean(Objects.toString(map.get("bypass-cors"), "true")),
-                List.of(Objects.toString(map.get("allowed-origins"), "*").split(","))
+                List.of(Objects.toString(map.get("allowed-origins"), "*").split(",")),
+                Objects.toString(map.get("thread-mode"), "platform"),
+                Integer.parseInt(Objects.toString(map.get("min-threads"), "8")),
+                Integer.parseInt(Objects.toString(map.get("max-threads"), "250")),
+                Integer.parseInt(Objects.toString(map.get("queue-size"), "0")),
+                Integer.parseInt(Objects.toString(map.get("compression-threshold"), "1500"))
         );
     }
 
@@ -22,7 +28,12 @@ public record ServerProperties(String host, int port, boolean devMode, boolean b
                 "port", port,
                 "dev-mode", devMode,
                 "bypass-cors", bypassCors,
-                "allowed-origins", String.join(",", allowedOrigins)
+                "allowed-origins", String.join(",", allowedOrigins),
+                "thread-mode", threadMode,
+                "min-threads", minThreads,
+                "max-threads", maxThreads,
+                "queue-size", queueSize,
+                "compression-threshold", compressionThreshold
         );
     }
 }
@@ -0,0 +1,244 @@
+package io.github.etases.edublock.rs.internal.seed;
+
+import com.google.inject.Inject;
+import com.google.inject.Singleton;
+import io.github.etases.edublock.rs.config.MainConfig;
+import io.github.etases.edublock.rs.entity.Record;
+import io.github.etases.edublock.rs.entity.*;
+import io.github.etases.edublock.rs.entity.generator.UseExistOrIncrementGenerator;
+import io.github.etases.edublock.rs.internal.account.AccountUtil;
+import io.github.etases.edublock.rs.internal.account.PasswordUtil;
+import io.github.etases.edublock.rs.internal.account.UsernameAllocator;
+import io.github.etases.edublock.rs.internal.classification.ClassificationManager;
+import io.github.etases.edublock.rs.internal.subject.Subject;
+import io.github.etases.edublock.rs.internal.subject.SubjectManager;
+import org.hibernate.Session;
+import org.hibernate.SessionFactory;
+import org.hibernate.engine.spi.SessionFactoryImplementor;
+import org.tinylog.Logger;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.*;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.stream.Stream;
+
+/**
+ * The seeder of large synthetic datasets, such as for the staging and the benchmark databases.
+ * The rows are generated into CSV files and loaded with {@code INSERT ... SELECT FROM CSVREAD}, instead of saving the entities one by one.
+ * All accounts share one hash of the default password, so no hashing is done per account.
+ * <p>
+ * The files are read by the database, so the database must run on the same machine as the server.
+ */
+@Singleton
+public class BulkSeeder {
+    private static final String[] FIRST_NAMES = {"An", "Bình", "Cường", "Dũng", "Giang", "Hương", "Khánh", "Long", "Mai", "Phương", "Quỳnh", "Tuấn", "Vy", "Yến"};
+    private static final String[] LAST_NAMES = {"Nguyễn Văn", "Trần Thị", "Lê Hoàng", "Phạm Minh", "Hoàng Đức", "Vũ Ngọc", "Đặng Quốc", "Bùi Thị Thanh", "Đỗ Gia", "Hồ Bảo"};
+
+    private final SessionFactory sessionFactory;
+    private final UsernameAllocator usernameAllocator;
+    private final MainConfig mainConfig;
+
+    @Inject
+    public BulkSeeder(SessionFactory sessionFactory, UsernameAllocator usernameAllocator, MainConfig mainConfig) {
+        this.sessionFactory = sessionFactory;
+        this.usernameAllocator = usernameAllocator;
+        this.mainConfig = mainConfig;
+    }
+
+    private static long nextId(Session session, String entityName) {
+        return session.createQuery("SELECT COALESCE(MAX(e.id), 0) FROM " + entityName + " e", Long.class).getSingleResult() + 1;
+    }
+
+    private static float randomScore(Random random) {
+        return Math.round(random.nextFloat() * 100) / 10f;
+    }
+
+    /**
+     * Generate and load the data
+     *
+     * @param scale the scale of the data
+     * @return the number of the loaded rows, keyed by the table
+     * @throws IOException if the files cannot be written
+     */
+    public Map<String, Long> seed(SeedScale scale) throws IOException {
+        long startTime = System.currentTimeMillis();
+        Path directory = Files.createTempDirectory("edublock-seed");
+        try {
+            var tables = generate(scale, directory);
+            Logger.info("Generated the data in " + (System.currentTimeMillis() - startTime) + "ms");
+            var rows = load(tables);
+            resetIdentifierGenerators();
+            Logger.info("Seeded " + scale.students() + " students in " + (System.currentTimeMillis() - startTime) + "ms");
+            return rows;
+        } finally {
+            try (Stream<Path> files = Files.list(directory)) {
+                for (Path file : files.toList()) {
+                    Files.deleteIfExists(file);
+                }
+            }
+            Files.deleteIfExists(directory);
+        }
+    }
+
+    private List<BulkTable> generate(SeedScale scale, Path directory) throws IOException {
+        var random = ThreadLocalRandom.current();
+        var subjectIds = SubjectManager.getSubjects().stream().map(Subject::getId).toList();
+        String salt = PasswordUtil.generateSalt();
+        String hash = PasswordUtil.hashPassword(mainConfig.getDefaultPassword(), salt);
+        var now = new Date();
+
+        long nextAccountId;
+        long nextClassroomId;
+        long nextClassTeacherId;
+        long nextClassStudentId;
+        long nextRecordId;
+        long nextEntryId;
+        try (var session = sessionFactory.openSession()) {
+            nextAccountId = nextId(session, "Account");
+            nextClassroomId = nextId(session, "Classroom");
+            nextClassTeacherId = nextId(session, "ClassTeacher");
+            nextClassStudentId = nextId(session, "ClassStudent");
+            nextRecordId = nextId(session, "Record");
+            nextEntryId = nextId(session, "RecordEntry");
+        }
+
+        String[] scoreProperties = BulkTable.getElementProperties(sessionFactory, Record.class, "latestScores");
+        try (
+                var accounts = BulkTable.ofEntity(sessionFactory, Account.class, directory, "username", "hashedPassword", "salt", "role", "createdAt", "version");
+                var profiles = BulkTable.ofEntity(sessionFactory, Profile.class, directory, "firstName", "lastName", "male", "avatar", "birthDate", "address", "phone", "email", "updated", "version");
+                var students = BulkTable.ofEntity(sessionFactory, Student.class, directory, "ethnic", "fatherName", "fatherJob", "motherName", "motherJob", "guardianName", "guardianJob", "homeTown", "version");
+                var classrooms = BulkTable.ofEntity(sessionFactory, Classroom.class, directory, "name", "grade", "year", "homeroomTeacher", "version");
+                var classTeachers = BulkTable.ofEntity(sessionFactory, ClassTeacher.class, directory, "classroom", "teacher", "subjectId");
+                var classStudents = BulkTable.ofEntity(sessionFactory, ClassStudent.class, directory, "classroom", "student");
+                var records = BulkTable.ofEntity(sessionFactory, Record.class, directory, "classroom", "student", "firstHalfClassify", "secondHalfClassify", "finalClassify", "classificationVersion", "version");
+                var latestScores = BulkTable.ofElementMap(sessionFactory, Record.class, "latestScores", directory);
+                var entries = BulkTable.ofEntity(sessionFactory, RecordEntry.class, directory, "subjectId", "firstHalfScore", "secondHalfScore", "finalScore", "requestDate", "approvalDate", "updateComplete", "teacher", "requester", "approver", "record")
+        ) {
+            Map<Long, List<Long>> teachersBySubject = new LinkedHashMap<>();
+            List<Long> teachers = new ArrayList<>();
+            for (long subjectId : subjectIds) {
+                List<Long> subjectTeachers = new ArrayList<>();
+                for (int i = 0; i < scale.teachersPerSubject(); i++) {
+                    long id = nextAccountId++;
+                    addAccount(accounts, profiles, random, id, "TEACHER", salt, hash, now);
+                    subjectTeachers.add(id);
+                    teachers.add(id);
+                }
+                teachersBySubject.put(subjectId, subjectTeachers);
+            }
+
+            List<Long> classroomIds = new ArrayList<>();
+            List<Long> homeroomTeachers = new ArrayList<>();
+            List<Map<Long, Long>> classroomTeachers = new ArrayList<>();
+            for (int grade : SeedScale.GRADES) {
+                for (int i = 0; i < scale.classesPerGrade(); i++) {
+                    long id = nextClassroomId++;
+                    long homeroomTeacher = teachers.get(classroomIds.size() % teachers.size());
+                    classrooms.add(id, grade + "A" + (i + 1), grade, scale.year(), homeroomTeacher, 0);
+                    Map<Long, Long> subjectTeachers = new HashMap<>();
+                    for (var entry : teachersBySubject.entrySet()) {
+                        long teacher = entry.getValue().get(i % entry.getValue().size());
+                        classTeachers.add(nextClassTeacherId++, id, teacher, entry.getKey());
+                        subjectTeachers.put(entry.getKey(), teacher);
+                    }
+                    classroomIds.add(id);
+                    homeroomTeachers.add(homeroomTeacher);
+                    classroomTeachers.add(subjectTeachers);
+                }
+            }
+
+            int progressStep = Math.max(1, scale.students() / 10);
+            for (int i = 0; i < scale.students(); i++) {
+                int classIndex = i % classroomIds.size();
+                long classroomId = classroomIds.get(classIndex);
+                long studentId = nextAccountId++;
+                addAccount(accounts, profiles, random, studentId, "STUDENT", salt, hash, now);
+                students.add(studentId, "Kinh", randomName(random), "", randomName(random), "", "", "", "", 0);
+                classStudents.add(nextClassStudentId++, classroomId, studentId);
+
+                long recordId = nextRecordId++;
+                var record = new Record();
+                record.setRecordEntry(new ArrayList<>());
+                for (int j = 0; j < scale.entriesPerRecord(); j++) {
+                    long subjectId = subjectIds.get(j % subjectIds.size());
+                    long teacher = classroomTeachers.get(classIndex).get(subjectId);
+                    var entry = new RecordEntry();
+                    entry.setId(nextEntryId++);
+                    entry.setSubjectId(subjectId);
+                    entry.setFirstHalfScore(randomScore(random));
+                    entry.setSecondHalfScore(randomScore(random));
+                    entry.setFinalScore(randomScore(random));
+                    entry.setRequestDate(new Date(now.getTime() - (scale.entriesPerRecord() - j) * 60_000L));
+                    entry.setApprovalDate(new Date(entry.getRequestDate().getTime() + 1000));
+                    record.getRecordEntry().add(entry);
+                    entries.add(entry.getId(), subjectId, entry.getFirstHalfScore(), entry.getSecondHalfScore(), entry.getFinalScore(),
+                            entry.getRequestDate(), entry.getApprovalDate(), true, teacher, teacher, homeroomTeachers.get(classIndex), recordId);
+                }
+                ClassificationManager.rebuild(record);
+                records.add(recordId, classroomId, studentId, record.getFirstHalfClassify(), record.getSecondHalfClassify(), record.getFinalClassify(), record.getClassificationVersion(), 0);
+                for (var scoreEntry : record.getLatestScores().entrySet()) {
+                    var score = scoreEntry.getValue();
+                    Object[] row = new Object[2 + scoreProperties.length];
+                    row[0] = recordId;
+                    row[1] = scoreEntry.getKey();
+                    for (int p = 0; p < scoreProperties.length; p++) {
+                        row[2 + p] = switch (scoreProperties[p]) {
+                            case "firstHalfScore" -> score.getFirstHalfScore();
+                            case "secondHalfScore" -> score.getSecondHalfScore();
+                            case "finalScore" -> score.getFinalScore();
+                            case "approvalDate" -> score.getApprovalDate();
+                            case "entryId" -> score.getEntryId();
+                            default -> throw new IllegalStateException("Unknown score property: " + scoreProperties[p]);
+                        };
+                    }
+                    latestScores.add(row);
+                }
+
+                if ((i + 1) % progressStep == 0) {
+                    Logger.info("Generated " + (i + 1) + "/" + scale.students() + " students");
+                }
+            }
+            return List.of(accounts, profiles, students, classrooms, classTeachers, classStudents, records, latestScores, entries);
+        }
+    }
+
+    private void addAccount(BulkTable accounts, BulkTable profiles, Random random, long id, String role, String salt, String hash, Date now) throws IOException {
+        String firstName = FIRST_NAMES[random.nextInt(FIRST_NAMES.length)];
+        String lastName = LAST_NAMES[random.nextInt(LAST_NAMES.length)];
+        String username = usernameAllocator.allocate(AccountUtil.generateUsername(firstName, lastName));
+        accounts.add(id, username, hash, salt, role, now, 0);
+        profiles.add(id, firstName, lastName, random.nextBoolean(), "", now, "", "", "", false, 0);
+    }
+
+    private static String randomName(Random random) {
+        return LAST_NAMES[random.nextInt(LAST_NAMES.length)] + " " + FIRST_NAMES[random.nextInt(FIRST_NAMES.length)];
+    }
+
+    private Map<String, Long> load(List<BulkTable> tables) {
+        Map<String, Long> rows = new LinkedHashMap<>();
+        try (var session = sessionFactory.openSession()) {
+            var transaction = session.beginTransaction();
+            for (var table : tables) {
+                long startTime = System.currentTimeMillis();
+                int count = session.createNativeQuery(table.getInsertStatement()).executeUpdate();
+                rows.put(table.getTableName(), (long) count);
+                Logger.info("Loaded " + count + " rows into " + table.getTableName() + " in " + (System.currentTimeMillis() - startTime) + "ms");
+            }
+            transaction.commit();
+        }
+        return rows;
+    }
+
+    /**
+     * Make the identifier generators read the new maximum identifiers, since the rows are inserted without Hibernate
+     */
+    private void resetIdentifierGenerators() {
+        sessionFactory.unwrap(SessionFactoryImplementor.class).getMetamodel().entityPersisters().values().forEach(persister -> {
+            if (persister.getIdentifierGenerator() instanceof UseExistOrIncrementGenerator generator) {
+                generator.reset();
+            }
+        });
+    }
+}
@@ -0,0 +1,145 @@
+package io.github.etases.edublock.rs.internal.seed;
+
+import lombok.Getter;
+import org.hibernate.SessionFactory;
+import org.hibernate.engine.spi.SessionFactoryImplementor;
+import org.hibernate.persister.collection.AbstractCollectionPersister;
+import org.hibernate.persister.entity.AbstractEntityPersister;
+import org.hibernate.type.ComponentType;
+
+import java.io.BufferedWriter;
+import java.io.Closeable;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.text.SimpleDateFormat;
+import java.util.ArrayList;
+import java.util.Date;
+import java.util.List;
+
+/**
+ * A table written to a CSV file, to be loaded in bulk with the {@code CSVREAD} function of H2.
+ * The table and the column names are taken from the Hibernate metadata, so they follow the mapping of the entities.
+ */
+public class BulkTable implements Closeable {
+    @Getter
+    private final String tableName;
+    private final List<String> columns;
+    private final Path file;
+    private final BufferedWriter writer;
+    private final SimpleDateFormat dateFormat = new SimpleDateFormat("yyyy-MM-dd HH:mm:ss.SSS");
+
+    private BulkTable(String tableName, List<String> columns, Path file) throws IOException {
+        this.tableName = tableName;
+        this.columns = columns;
+        this.file = file;
+        this.writer = Files.newBufferedWriter(file, StandardCharsets.UTF_8);
+        writer.write(String.join(",", columns));
+        writer.newLine();
+    }
+
+    /**
+     * Create the table of an entity
+     *
+     * @param sessionFactory the session factory
+     * @param entityClass    the class of the entity
+     * @param directory      the directory to write the file
+     * @param properties     the properties to write after the identifier, one column each
+     * @return the table
+     * @throws IOException if the file cannot be created
+     */
+    public static BulkTable ofEntity(SessionFactory sessionFactory, Class<?> entityClass, Path directory, String... properties) throws IOException {
+        var persister = (AbstractEntityPersister) sessionFactory.unwrap(SessionFactoryImplementor.class).getMetamodel().entityPersister(entityClass);
+        List<String> columns = new ArrayList<>(List.of(persister.getIdentifierColumnNames()));
+        for (String property : properties) {
+            columns.addAll(List.of(persister.getPropertyColumnNames(property)));
+        }
+        return new BulkTable(persister.getTableName(), columns, directory.resolve(entityClass.getSimpleName() + ".csv"));
+    }
+
+    /**
+     * Create the table of a map of embeddable elements.
+     * The columns are the key, the map key, then the properties of the element in the order of {@link #getElementProperties(SessionFactory, Class, String)}.
+     *
+     * @param sessionFactory the session factory
+     * @param entityClass    the class of the owning entity
+     * @param role           the name of the collection property
+     * @param directory      the directory to write the file
+     * @return the table
+     * @throws IOException if the file cannot be created
+     */
+    public static BulkTable ofElementMap(SessionFactory sessionFactory, Class<?> entityClass, String role, Path directory) throws IOException {
+        var persister = getCollectionPersister(sessionFactory, entityClass, role);
+        List<String> columns = new ArrayList<>();
+        columns.addAll(List.of(persister.getKeyColumnNames()));
+        columns.addAll(List.of(persister.getIndexColumnNames()));
+        columns.addAll(List.of(persister.getElementColumnNames()));
+        return new BulkTable(persister.getTableName(), columns, directory.resolve(entityClass.getSimpleName() + "_" + role + ".csv"));
+    }
+
+    /**
+     * Get the properties of the element of a collection, in the order of their columns
+     *
+     * @param sessionFactory the session factory
+     * @param entityClass    the class of the owning entity
+     * @param role           the name of the collection property
+     * @return the properties
+     */
+    public static String[] getElementProperties(SessionFactory sessionFactory, Class<?> entityClass, String role) {
+        return ((ComponentType) getCollectionPersister(sessionFactory, entityClass, role).getElementType()).getPropertyNames();
+    }
+
+    private static AbstractCollectionPersister getCollectionPersister(SessionFactory sessionFactory, Class<?> entityClass, String role) {
+        return (AbstractCollectionPersister) sessionFactory.unwrap(SessionFactoryImplementor.class).getMetamodel().collectionPersister(entityClass.getName() + "." + role);
+    }
+
+    /**
+     * Add a row
+     *
+     * @param values the values, in the order of the columns
+     * @throws IOException if the row cannot be written
+     */
+    public void add(Object... values) throws IOException {
+        if (values.length != columns.size()) {
+            throw new IllegalArgumentException("Expected " + columns.size() + " values for " + tableName + " but got " + values.length);
+        }
+        for (int i = 0; i < values.length; i++) {
+            if (i > 0) {
+                writer.write(',');
+            }
+            writeValue(values[i]);
+        }
+        writer.newLine();
+    }
+
+    private void writeValue(Object value) throws IOException {
+        if (value == null) {
+            return;
+        }
+        if (value instanceof Number || value instanceof Boolean) {
+            writer.write(value.toString());
+        } else if (value instanceof Date date) {
+            writer.write(dateFormat.format(date));
+        } else {
+            writer.write('"');
+            writer.write(value.toString().replace("\"", "\"\""));
+            writer.write('"');
+        }
+    }
+
+    /**
+     * Get the statement to load the file into the table
+     *
+     * @return the statement
+     */
+    public String getInsertStatement() {
+        return "INSERT INTO " + tableName + " (" + String.join(", ", columns) + ") SELECT * FROM CSVREAD('"
+                + file.toAbsolutePath().toString().replace("'", "''") + "', NULL, 'charset=UTF-8')";
+    }
+
+    @Override
+    public void close() throws IOException {
+        writer.close();
+    }
+}
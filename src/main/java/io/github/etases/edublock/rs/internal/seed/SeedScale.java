@@ -0,0 +1,21 @@
+package io.github.etases.edublock.rs.internal.seed;
+
+/**
+ * The scale of the seeded data
+ *
+ * @param students           the number of the students
+ * @param classesPerGrade    the number of the classrooms in each grade
+ * @param teachersPerSubject the number of the teachers of each subject
+ * @param entriesPerRecord   the number of the approved entries in each record
+ * @param year               the school year of the classrooms
+ */
+public record SeedScale(int students, int classesPerGrade, int teachersPerSubject, int entriesPerRecord, int year) {
+    /**
+     * The grades of the seeded classrooms
+     */
+    public static final int[] GRADES = {10, 11, 12};
+
+    public boolean validate() {
+        return students > 0 && classesPerGrade > 0 && teachersPerSubject > 0 && entriesPerRecord >= 0 && year > 0;
+    }
+}
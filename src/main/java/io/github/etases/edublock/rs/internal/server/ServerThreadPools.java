@@ -0,0 +1,59 @@
+package io.github.etases.edublock.rs.internal.server;
+
+import io.github.etases.edublock.rs.internal.property.ServerProperties;
+import lombok.experimental.UtilityClass;
+import org.eclipse.jetty.util.BlockingArrayQueue;
+import org.eclipse.jetty.util.thread.QueuedThreadPool;
+import org.eclipse.jetty.util.thread.ThreadPool;
+import org.tinylog.Logger;
+
+import java.util.Locale;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+/**
+ * The factory of the thread pool that handles the requests of the server
+ */
+@UtilityClass
+public class ServerThreadPools {
+    private static final String POOL_NAME = "JettyServerThreadPool";
+    private static final int IDLE_TIMEOUT = 60_000;
+
+    /**
+     * Create the thread pool from the server properties.
+     * The thread mode "virtual" runs every request on a virtual thread, which needs Java 21 or newer.
+     * Otherwise, a platform thread pool with the configured sizes is used.
+     *
+     * @param properties the server properties
+     * @return the thread pool
+     */
+    public static ThreadPool create(ServerProperties properties) {
+        if ("virtual".equals(properties.threadMode().toLowerCase(Locale.ROOT))) {
+            var executor = createVirtualThreadExecutor();
+            if (executor != null) {
+                Logger.info("Server thread mode: virtual");
+                return new VirtualThreadPool(executor);
+            }
+            Logger.warn("Virtual threads are not available on Java " + Runtime.version().feature() + ", falling back to platform threads");
+        }
+        int maxThreads = Math.max(1, properties.maxThreads());
+        int minThreads = Math.max(1, Math.min(properties.minThreads(), maxThreads));
+        int queueSize = properties.queueSize();
+        var queue = queueSize > 0
+                ? new BlockingArrayQueue<Runnable>(Math.min(queueSize, 1024), 1024, queueSize)
+                : new BlockingArrayQueue<Runnable>(1024, 1024);
+        var threadPool = new QueuedThreadPool(maxThreads, minThreads, IDLE_TIMEOUT, queue);
+        threadPool.setName(POOL_NAME);
+        Logger.info("Server thread mode: platform, " + minThreads + "-" + maxThreads + " threads, queue size " + (queueSize > 0 ? queueSize : "unbounded"));
+        return threadPool;
+    }
+
+    private static ExecutorService createVirtualThreadExecutor() {
+        try {
+            var method = Executors.class.getMethod("newVirtualThreadPerTaskExecutor");
+            return (ExecutorService) method.invoke(null);
+        } catch (ReflectiveOperationException | UnsupportedOperationException e) {
+            return null;
+        }
+    }
+}
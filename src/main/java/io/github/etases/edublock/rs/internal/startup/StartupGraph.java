@@ -0,0 +1,146 @@
+package io.github.etases.edublock.rs.internal.startup;
+
+import org.tinylog.Logger;
+
+import java.util.*;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * The phases of the server startup, as a dependency graph.
+ * A phase starts as soon as all of its dependencies are done, so the independent phases run in parallel.
+ */
+public class StartupGraph {
+    private final Map<String, Phase> phases = new LinkedHashMap<>();
+    private long totalNanos = -1;
+
+    /**
+     * Add a phase.
+     * The dependencies must be added before the phase, so the graph cannot have a cycle.
+     *
+     * @param name         the name of the phase
+     * @param action       the action of the phase
+     * @param dependencies the names of the phases to run before
+     * @return this graph
+     */
+    public StartupGraph add(String name, Runnable action, String... dependencies) {
+        if (phases.containsKey(name)) {
+            throw new IllegalArgumentException("Duplicate startup phase: " + name);
+        }
+        for (String dependency : dependencies) {
+            if (!phases.containsKey(dependency)) {
+                throw new IllegalArgumentException("Unknown dependency of the startup phase " + name + ": " + dependency);
+            }
+        }
+        phases.put(name, new Phase(name, action, List.of(dependencies)));
+        return this;
+    }
+
+    /**
+     * Run the phases and log the timing report.
+     * If a phase fails, the phases depending on it are not run and the failure is thrown.
+     */
+    public void run() {
+        AtomicInteger threadCount = new AtomicInteger();
+        ExecutorService executor = Executors.newFixedThreadPool(Math.max(1, Math.min(phases.size(), Runtime.getRuntime().availableProcessors())), runnable -> {
+            Thread thread = new Thread(runnable, "startup-" + threadCount.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        });
+        long startTime = System.nanoTime();
+        Map<String, CompletableFuture<Void>> futures = new HashMap<>();
+        try {
+            for (Phase phase : phases.values()) {
+                CompletableFuture<?>[] dependencyFutures = phase.dependencies.stream().map(futures::get).toArray(CompletableFuture[]::new);
+                futures.put(phase.name, CompletableFuture.allOf(dependencyFutures).thenRunAsync(() -> phase.run(startTime), executor));
+            }
+            CompletableFuture.allOf(futures.values().toArray(CompletableFuture[]::new)).join();
+        } catch (CompletionException e) {
+            throw e.getCause() instanceof RuntimeException runtimeException ? runtimeException : e;
+        } finally {
+            totalNanos = System.nanoTime() - startTime;
+            executor.shutdown();
+            logReport();
+        }
+    }
+
+    private void logReport() {
+        StringBuilder builder = new StringBuilder("Startup finished in ").append(toMillis(totalNanos)).append("ms");
+        for (Phase phase : phases.values()) {
+            builder.append(System.lineSeparator()).append("  ").append(phase.name).append(": ");
+            if (phase.endNanos < 0) {
+                builder.append("not completed");
+            } else {
+                builder.append(toMillis(phase.endNanos - phase.startNanos)).append("ms")
+                        .append(" (+").append(toMillis(phase.startNanos)).append("ms on ").append(phase.threadName).append(")");
+            }
+        }
+        Logger.info(builder.toString());
+    }
+
+    private static long toMillis(long nanos) {
+        return nanos / 1_000_000;
+    }
+
+    /**
+     * Get the names of the phases, in the order they are added
+     *
+     * @return the names
+     */
+    public List<String> getPhaseNames() {
+        return List.copyOf(phases.keySet());
+    }
+
+    /**
+     * Get the duration of a phase
+     *
+     * @param name the name of the phase
+     * @return the duration in nanoseconds, or -1 if the phase is not completed
+     */
+    public long getPhaseNanos(String name) {
+        Phase phase = phases.get(name);
+        if (phase == null || phase.endNanos < 0) {
+            return -1;
+        }
+        return phase.endNanos - phase.startNanos;
+    }
+
+    /**
+     * Get the duration of the whole startup
+     *
+     * @return the duration in nanoseconds, or -1 if the graph is not run
+     */
+    public long getTotalNanos() {
+        return totalNanos;
+    }
+
+    private static final class Phase {
+        private final String name;
+        private final Runnable action;
+        private final List<String> dependencies;
+        private volatile long startNanos = -1;
+        private volatile long endNanos = -1;
+        private volatile String threadName;
+
+        private Phase(String name, Runnable action, List<String> dependencies) {
+            this.name = name;
+            this.action = action;
+            this.dependencies = dependencies;
+        }
+
+        private void run(long graphStartTime) {
+            threadName = Thread.currentThread().getName();
+            startNanos = System.nanoTime() - graphStartTime;
+            try {
+                action.run();
+            } catch (RuntimeException e) {
+                Logger.error(e, "Failed to run the startup phase " + name);
+                throw e;
+            }
+            endNanos = System.nanoTime() - graphStartTime;
+        }
+    }
+}
@@ -0,0 +1,49 @@
+package io.github.etases.edublock.rs.internal.student;
+
+import io.github.etases.edublock.rs.model.fabric.ClassRecord;
+import io.github.etases.edublock.rs.model.fabric.RecordHistory;
+import io.github.etases.edublock.rs.model.output.element.RecordEntryOutput;
+import lombok.experimental.UtilityClass;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * The merger of the local record entries with the record history from the updater.
+ * The history is looked up by the class id, so only the versions of the requested class are converted.
+ */
+@UtilityClass
+public class RecordHistoryMerger {
+    /**
+     * Merge the entries of a class from the record history into the local entries
+     *
+     * @param localEntries the local entries
+     * @param histories    the record history of the student
+     * @param classId      the id of the class
+     * @return the local entries followed by one entry per subject for each version of the class
+     */
+    public static List<RecordEntryOutput> merge(List<RecordEntryOutput> localEntries, List<RecordHistory> histories, long classId) {
+        List<RecordEntryOutput> mergedEntries = new ArrayList<>(localEntries);
+        for (var history : histories) {
+            var classRecord = getClassRecord(history, classId);
+            if (classRecord == null || classRecord.getSubjects() == null) {
+                continue;
+            }
+            for (var subjectEntry : classRecord.getSubjects().entrySet()) {
+                var entry = RecordEntryOutput.fromFabricModel(subjectEntry.getKey(), subjectEntry.getValue());
+                entry.setRequestDate(history.getTimestamp());
+                entry.setApprovalDate(history.getTimestamp());
+                mergedEntries.add(entry);
+            }
+        }
+        return mergedEntries;
+    }
+
+    private static ClassRecord getClassRecord(RecordHistory history, long classId) {
+        var record = history.getRecord();
+        if (record == null || record.getClassRecords() == null) {
+            return null;
+        }
+        return record.getClassRecords().get(classId);
+    }
+}
@@ -2,64 +2,54 @@ package io.github.etases.edublock.rs.internal.subject;
 
 import lombok.experimental.UtilityClass;
 
-import java.io.BufferedReader;
-import java.io.InputStreamReader;
-import java.util.HashMap;
+import java.util.Arrays;
 import java.util.List;
-import java.util.Map;
-import java.util.Objects;
 
 @UtilityClass
 public class SubjectManager {
-    private static final Map<Long, Subject> subjects;
-    private static final Object lock = new Object();
+    private static final SubjectRegistry registry;
 
     static {
-        synchronized (lock) {
-            subjects = new HashMap<>();
-            try (
-                    var stream = SubjectManager.class.getClassLoader().getResourceAsStream("subjects.csv");
-                    var reader = new BufferedReader(new InputStreamReader(Objects.requireNonNull(stream)))
-            ) {
-                String line;
-                while ((line = reader.readLine()) != null) {
-                    var subject = parseSubject(line);
-                    subjects.put(subject.getId(), subject);
-                }
-            } catch (Exception e) {
-                throw new IllegalStateException(e);
-            }
+        try (var stream = SubjectManager.class.getClassLoader().getResourceAsStream("subjects.csv")) {
+            registry = SubjectRegistry.load(stream);
+        } catch (Exception e) {
+            throw new IllegalStateException(e);
         }
     }
 
-    private static Subject parseSubject(String line) {
-        if (line == null || line.isBlank()) {
-            return null;
-        }
-        var parts = line.split(",");
-        if (parts.length < 3) {
-            return null;
-        }
-        var subject = new Subject();
-        subject.setId(Long.parseLong(parts[0].trim()));
-        subject.setIdentifier(parts[1].trim());
-        subject.setName(parts[2].trim());
-        subject.setOtherNames(List.of(parts).subList(3, parts.length).stream().map(String::trim).toList());
-        return subject;
+    public static SubjectRegistry getRegistry() {
+        return registry;
     }
 
     public static Subject getSubject(long id) {
-        return subjects.get(id);
+        return registry.getSubject(id);
     }
 
     public static Subject getSubject(String name) {
-        return subjects.values().stream()
-                .filter(subject -> subject.getIdentifier().equalsIgnoreCase(name) || subject.getName().equalsIgnoreCase(name) || subject.getOtherNames().stream().anyMatch(name::equalsIgnoreCase))
-                .findFirst()
-                .orElse(null);
+        return registry.getSubject(name);
     }
 
     public static List<Subject> getSubjects() {
-        return List.copyOf(subjects.values());
+        return registry.getSubjects();
+    }
+
+    public static int getOrdinal(long id) {
+        return registry.getOrdinal(id);
+    }
+
+    public static int getSubjectCount() {
+        return registry.size();
+    }
+
+    /**
+     * Create an array to store a score per subject, indexed by the subject ordinal.
+     * Subjects without a score are {@link Float#NaN}.
+     *
+     * @return the score array
+     */
+    public static float[] createScoreArray() {
+        var scores = new float[registry.size()];
+        Arrays.fill(scores, Float.NaN);
+        return scores;
     }
 }
@@ -0,0 +1,119 @@
+package io.github.etases.edublock.rs.internal.subject;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.nio.charset.StandardCharsets;
+import java.util.*;
+
+/**
+ * An immutable registry of subjects.
+ * Each subject is assigned a dense ordinal, in the order of their ids, so that scores can be stored in arrays indexed by the ordinal.
+ */
+public final class SubjectRegistry {
+    private static final int MAX_ID = 0xFFFF;
+    private final List<Subject> subjects;
+    private final int[] ordinalById;
+    private final Map<String, Subject> aliasIndex;
+
+    private SubjectRegistry(List<Subject> subjects) {
+        var sortedSubjects = new ArrayList<>(subjects);
+        sortedSubjects.sort(Comparator.comparingLong(Subject::getId));
+        this.subjects = Collections.unmodifiableList(sortedSubjects);
+
+        long maxId = sortedSubjects.isEmpty() ? 0 : sortedSubjects.get(sortedSubjects.size() - 1).getId();
+        this.ordinalById = new int[(int) maxId + 1];
+        Arrays.fill(ordinalById, -1);
+
+        Map<String, Subject> aliases = new HashMap<>();
+        for (int ordinal = 0; ordinal < sortedSubjects.size(); ordinal++) {
+            var subject = sortedSubjects.get(ordinal);
+            if (ordinalById[(int) subject.getId()] >= 0) {
+                throw new IllegalStateException("Duplicated subject id: " + subject.getId());
+            }
+            ordinalById[(int) subject.getId()] = ordinal;
+            aliases.putIfAbsent(fold(subject.getIdentifier()), subject);
+            aliases.putIfAbsent(fold(subject.getName()), subject);
+            for (var otherName : subject.getOtherNames()) {
+                aliases.putIfAbsent(fold(otherName), subject);
+            }
+        }
+        this.aliasIndex = Map.copyOf(aliases);
+    }
+
+    /**
+     * Load the registry from a CSV stream, each line is {@code id,identifier,name[,other names...]}
+     *
+     * @param stream the stream
+     * @return the registry
+     * @throws IOException if the stream cannot be read
+     */
+    public static SubjectRegistry load(InputStream stream) throws IOException {
+        List<Subject> subjects = new ArrayList<>();
+        try (var reader = new BufferedReader(new InputStreamReader(Objects.requireNonNull(stream), StandardCharsets.UTF_8))) {
+            String line;
+            while ((line = reader.readLine()) != null) {
+                var subject = parseSubject(line);
+                if (subject != null) {
+                    subjects.add(subject);
+                }
+            }
+        }
+        return new SubjectRegistry(subjects);
+    }
+
+    private static Subject parseSubject(String line) {
+        if (line == null || line.isBlank()) {
+            return null;
+        }
+        var parts = line.split(",");
+        if (parts.length < 3) {
+            return null;
+        }
+        var subject = new Subject();
+        subject.setId(Long.parseLong(parts[0].trim()));
+        subject.setIdentifier(parts[1].trim());
+        subject.setName(parts[2].trim());
+        subject.setOtherNames(List.of(parts).subList(3, parts.length).stream().map(String::trim).toList());
+        if (subject.getId() < 0 || subject.getId() > MAX_ID) {
+            throw new IllegalStateException("Subject id is out of range: " + subject.getId());
+        }
+        return subject;
+    }
+
+    private static String fold(String name) {
+        return name.toLowerCase(Locale.ROOT);
+    }
+
+    public int getOrdinal(long id) {
+        if (id < 0 || id >= ordinalById.length) {
+            return -1;
+        }
+        return ordinalById[(int) id];
+    }
+
+    public Subject getSubject(long id) {
+        int ordinal = getOrdinal(id);
+        return ordinal < 0 ? null : subjects.get(ordinal);
+    }
+
+    public Subject getSubjectByOrdinal(int ordinal) {
+        return subjects.get(ordinal);
+    }
+
+    public Subject getSubject(String name) {
+        if (name == null) {
+            return null;
+        }
+        return aliasIndex.get(fold(name));
+    }
+
+    public List<Subject> getSubjects() {
+        return subjects;
+    }
+
+    public int size() {
+        return subjects.size();
+    }
+}
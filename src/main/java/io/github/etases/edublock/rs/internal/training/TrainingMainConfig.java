@@ -0,0 +1,104 @@
+package io.github.etases.edublock.rs.internal.training;
+
+import io.github.etases.edublock.rs.config.MainConfig;
+import io.github.etases.edublock.rs.internal.property.*;
+
+import java.util.Collections;
+import java.util.Map;
+
+/**
+ * The config of the training run.
+ * It uses the values of the actual config, except that the database is in memory, the server listens on a random local port and Fabric is disabled,
+ * so the synthetic data of the training never leaves the process.
+ */
+public class TrainingMainConfig implements MainConfig {
+    private final MainConfig config;
+    private final DatabaseProperties databaseProperties;
+    private final ServerProperties serverProperties;
+
+    public TrainingMainConfig(MainConfig config) {
+        this.config = config;
+        databaseProperties = DatabaseProperties.fromMap(Map.of(
+                "name", "training",
+                "is-memory", true
+        ));
+        var properties = config.getServerProperties();
+        serverProperties = new ServerProperties(
+                "localhost",
+                0,
+                properties.devMode(),
+                properties.bypassCors(),
+                properties.allowedOrigins(),
+                properties.threadMode(),
+                properties.minThreads(),
+                properties.maxThreads(),
+                properties.queueSize(),
+                properties.compressionThreshold()
+        );
+    }
+
+    @Override
+    public JwtProperties getJwtProperties() {
+        return config.getJwtProperties();
+    }
+
+    @Override
+    public DatabaseProperties getDatabaseProperties() {
+        return databaseProperties;
+    }
+
+    @Override
+    public ServerProperties getServerProperties() {
+        return serverProperties;
+    }
+
+    @Override
+    public FabricProperties getFabricProperties() {
+        return FabricProperties.fromMap(Collections.emptyMap());
+    }
+
+    @Override
+    public FabricUpdaterProperties getFabricUpdaterProperties() {
+        return config.getFabricUpdaterProperties();
+    }
+
+    @Override
+    public ProfilerProperties getProfilerProperties() {
+        return config.getProfilerProperties();
+    }
+
+    @Override
+    public String getDefaultPassword() {
+        return config.getDefaultPassword();
+    }
+
+    @Override
+    public int getHashThreads() {
+        return config.getHashThreads();
+    }
+
+    @Override
+    public int getHashQueueSize() {
+        return config.getHashQueueSize();
+    }
+
+    @Override
+    public int getJobThreads() {
+        return config.getJobThreads();
+    }
+
+    @Override
+    public int getJobQueueSize() {
+        return config.getJobQueueSize();
+    }
+
+    @Override
+    public int getUpdaterPeriod() {
+        return config.getUpdaterPeriod();
+    }
+
+    @Override
+    public boolean isOneClassPerYear() {
+        return config.isOneClassPerYear();
+    }
+}
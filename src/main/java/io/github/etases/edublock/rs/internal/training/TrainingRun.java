@@ -0,0 +1,142 @@
+package io.github.etases.edublock.rs.internal.training;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.github.etases.edublock.rs.RequestServer;
+import io.github.etases.edublock.rs.entity.Account;
+import io.github.etases.edublock.rs.handler.JwtHandler;
+import io.github.etases.edublock.rs.handler.SwaggerHandler;
+import io.github.etases.edublock.rs.internal.seed.BulkSeeder;
+import io.github.etases.edublock.rs.internal.seed.SeedScale;
+import org.hibernate.Session;
+import org.tinylog.Logger;
+
+import java.io.IOException;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.time.Duration;
+import java.time.Year;
+import java.util.*;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * The training run of the server.
+ * It starts the server with the {@link TrainingMainConfig}, seeds a small synthetic school, sends the requests to every documented route
+ * with every role, then exits the JVM.
+ * This loads and links the classes used to serve the requests, so that a class data sharing archive can be dumped at exit.
+ */
+public class TrainingRun {
+    private static final SeedScale SCALE = new SeedScale(120, 2, 1, 10, Year.now().getValue());
+    private static final List<String> METHODS = List.of("get", "post", "put", "patch", "delete");
+    private static final Pattern PATH_PARAM_PATTERN = Pattern.compile("\\{([^}]+)}");
+
+    private final RequestServer requestServer;
+    private final HttpClient httpClient = HttpClient.newBuilder().connectTimeout(Duration.ofSeconds(5)).build();
+    private final ObjectMapper objectMapper = new ObjectMapper();
+
+    public TrainingRun(RequestServer requestServer) {
+        this.requestServer = requestServer;
+    }
+
+    private static String fillPathParams(String path) {
+        Matcher matcher = PATH_PARAM_PATTERN.matcher(path);
+        StringBuilder builder = new StringBuilder();
+        while (matcher.find()) {
+            String value = matcher.group(1).equalsIgnoreCase("role") ? "student" : "1";
+            matcher.appendReplacement(builder, value);
+        }
+        matcher.appendTail(builder);
+        return builder.toString();
+    }
+
+    private static Account findAccount(Session session, String role) {
+        return session.createNamedQuery("Account.findByRole", Account.class)
+                .setParameter("role", role)
+                .setMaxResults(1)
+                .uniqueResult();
+    }
+
+    /**
+     * Run the training and exit the JVM.
+     * The exit code is 0 if the training is done, even if some of the requests fail, since only the loaded classes matter.
+     */
+    public void run() {
+        int exitCode = 0;
+        try {
+            long startTime = System.nanoTime();
+            requestServer.startServer();
+            requestServer.getDependencyManager().getInjector().getInstance(BulkSeeder.class).seed(SCALE);
+
+            String baseUrl = "http://localhost:" + requestServer.getServer().port();
+            List<String> tokens = createTokens();
+            List<Route> routes = getRoutes(baseUrl);
+            Map<Integer, Integer> statusCounts = new TreeMap<>();
+            for (Route route : routes) {
+                for (String token : tokens) {
+                    statusCounts.merge(send(baseUrl, route, token), 1, Integer::sum);
+                }
+            }
+            Logger.info("Trained " + routes.size() + " routes with " + statusCounts.values().stream().mapToInt(Integer::intValue).sum()
+                    + " requests in " + (System.nanoTime() - startTime) / 1_000_000 + "ms, status codes: " + statusCounts);
+        } catch (Exception e) {
+            Logger.error(e, "Failed to run the training");
+            exitCode = 1;
+        }
+        System.exit(exitCode);
+    }
+
+    private List<String> createTokens() {
+        var jwtHandler = requestServer.getHandler(JwtHandler.class);
+        List<String> tokens = new ArrayList<>();
+        tokens.add(null);
+        try (var session = requestServer.getDatabaseManager().getSessionFactory().openSession()) {
+            var student = findAccount(session, "STUDENT");
+            var teacher = findAccount(session, "TEACHER");
+            tokens.add(jwtHandler.generateToken(student.getId(), student.getUsername(), student.getRole()));
+            tokens.add(jwtHandler.generateToken(teacher.getId(), teacher.getUsername(), teacher.getRole()));
+            // The seeded school has no staff or admin account, so their tokens use the account of the teacher
+            tokens.add(jwtHandler.generateToken(teacher.getId(), teacher.getUsername(), JwtHandler.Role.STAFF.name()));
+            tokens.add(jwtHandler.generateToken(teacher.getId(), teacher.getUsername(), JwtHandler.Role.ADMIN.name()));
+        }
+        return tokens;
+    }
+
+    private List<Route> getRoutes(String baseUrl) throws IOException, InterruptedException {
+        var request = HttpRequest.newBuilder(URI.create(baseUrl + SwaggerHandler.DOCS_PATH)).GET().build();
+        JsonNode paths = objectMapper.readTree(httpClient.send(request, HttpResponse.BodyHandlers.ofString()).body()).path("paths");
+        List<Route> routes = new ArrayList<>();
+        paths.fields().forEachRemaining(pathEntry -> pathEntry.getValue().fieldNames().forEachRemaining(method -> {
+            if (METHODS.contains(method)) {
+                routes.add(new Route(method, fillPathParams(pathEntry.getKey())));
+            }
+        }));
+        // Read first, so the seeded data is not deleted before it is read
+        routes.sort(Comparator.comparingInt((Route route) -> METHODS.indexOf(route.method())).thenComparing(Route::path));
+        return routes;
+    }
+
+    private int send(String baseUrl, Route route, String token) throws InterruptedException {
+        var builder = HttpRequest.newBuilder(URI.create(baseUrl + route.path()))
+                .timeout(Duration.ofSeconds(10))
+                .header("Content-Type", "application/json");
+        if (token != null) {
+            builder.header("Authorization", "Bearer " + token);
+        }
+        var body = route.method().equals("get") || route.method().equals("delete")
+                ? HttpRequest.BodyPublishers.noBody()
+                : HttpRequest.BodyPublishers.ofString("{}");
+        builder.method(route.method().toUpperCase(Locale.ROOT), body);
+        try {
+            return httpClient.send(builder.build(), HttpResponse.BodyHandlers.discarding()).statusCode();
+        } catch (IOException e) {
+            Logger.warn("Failed to send the training request to " + route.method().toUpperCase(Locale.ROOT) + " " + route.path() + ": " + e.getMessage());
+            return -1;
+        }
+    }
+
+    private record Route(String method, String path) {
+    }
+}
@@ -0,0 +1,22 @@
+package io.github.etases.edublock.rs.model.output;
+
+import io.github.etases.edublock.rs.model.output.element.JobOutput;
+import io.github.etases.edublock.rs.model.output.element.PaginationInfo;
+import lombok.*;
+import lombok.experimental.FieldDefaults;
+import org.jetbrains.annotations.Nullable;
+
+import java.util.List;
+
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+@FieldDefaults(level = AccessLevel.PRIVATE)
+public class JobListResponse {
+    int status;
+    String message;
+    PaginationInfo pageInfo;
+    @Nullable
+    List<JobOutput> data;
+}
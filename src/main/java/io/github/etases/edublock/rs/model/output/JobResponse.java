@@ -0,0 +1,18 @@
+package io.github.etases.edublock.rs.model.output;
+
+import io.github.etases.edublock.rs.model.output.element.JobOutput;
+import lombok.*;
+import lombok.experimental.FieldDefaults;
+import org.jetbrains.annotations.Nullable;
+
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+@FieldDefaults(level = AccessLevel.PRIVATE)
+public class JobResponse {
+    int status;
+    String message;
+    @Nullable
+    JobOutput data;
+}
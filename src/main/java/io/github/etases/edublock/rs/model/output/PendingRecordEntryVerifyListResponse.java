@@ -0,0 +1,30 @@
+package io.github.etases.edublock.rs.model.output;
+
+import lombok.*;
+import lombok.experimental.FieldDefaults;
+import org.jetbrains.annotations.Nullable;
+
+import java.util.List;
+
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+@FieldDefaults(level = AccessLevel.PRIVATE)
+public class PendingRecordEntryVerifyListResponse {
+    int status;
+    String message;
+    @Nullable
+    List<PendingRecordEntryVerifyListResponse.ResultData> data;
+
+    @Getter
+    @Setter
+    @NoArgsConstructor
+    @AllArgsConstructor
+    @FieldDefaults(level = AccessLevel.PRIVATE)
+    public static class ResultData {
+        long id;
+        int status;
+        String message;
+    }
+}
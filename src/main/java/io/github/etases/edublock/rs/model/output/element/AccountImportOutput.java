@@ -0,0 +1,21 @@
+package io.github.etases.edublock.rs.model.output.element;
+
+import io.github.etases.edublock.rs.model.input.AccountCreate;
+import lombok.*;
+import lombok.experimental.FieldDefaults;
+import org.jetbrains.annotations.Nullable;
+
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+@FieldDefaults(level = AccessLevel.PRIVATE)
+public class AccountImportOutput {
+    long line;
+    int status;
+    String message;
+    @Nullable
+    AccountCreate input;
+    @Nullable
+    AccountWithProfileOutput account;
+}
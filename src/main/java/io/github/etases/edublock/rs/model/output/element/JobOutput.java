@@ -0,0 +1,71 @@
+package io.github.etases.edublock.rs.model.output.element;
+
+import io.github.etases.edublock.rs.entity.Job;
+import lombok.*;
+import lombok.experimental.FieldDefaults;
+import org.jetbrains.annotations.Nullable;
+
+import java.util.Collections;
+import java.util.Date;
+import java.util.List;
+
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+@FieldDefaults(level = AccessLevel.PRIVATE)
+public class JobOutput {
+    String id;
+    String type;
+    String status;
+    long requesterId;
+    long total;
+    long processed;
+    long failed;
+    double throughput;
+    @Nullable
+    String message;
+    List<String> errors;
+    Date createdAt;
+    @Nullable
+    Date startedAt;
+    @Nullable
+    Date finishedAt;
+
+    /**
+     * Create the summary of a job, without the errors.
+     * This is used by the query {@code Job.findSummaries}, so the payload and the errors are not loaded.
+     */
+    public JobOutput(String id, String type, String status, long requesterId, long total, long processed, long failed,
+                     @Nullable String message, Date createdAt, @Nullable Date startedAt, @Nullable Date finishedAt) {
+        this(id, type, status, requesterId, total, processed, failed, getThroughput(processed, startedAt, finishedAt),
+                message, Collections.emptyList(), createdAt, startedAt, finishedAt);
+    }
+
+    private static double getThroughput(long processed, @Nullable Date startedAt, @Nullable Date finishedAt) {
+        if (startedAt == null) {
+            return 0;
+        }
+        long end = finishedAt == null ? System.currentTimeMillis() : finishedAt.getTime();
+        long elapsed = end - startedAt.getTime();
+        return elapsed > 0 ? processed * 1000D / elapsed : 0;
+    }
+
+    public static JobOutput fromEntity(Job job) {
+        return new JobOutput(
+                job.getId(),
+                job.getType(),
+                job.getStatus(),
+                job.getRequesterId(),
+                job.getTotal(),
+                job.getProcessed(),
+                job.getFailed(),
+                getThroughput(job.getProcessed(), job.getStartedAt(), job.getFinishedAt()),
+                job.getMessage(),
+                job.getErrors() == null || job.getErrors().isEmpty() ? Collections.emptyList() : job.getErrors().lines().toList(),
+                job.getCreatedAt(),
+                job.getStartedAt(),
+                job.getFinishedAt()
+        );
+    }
+}